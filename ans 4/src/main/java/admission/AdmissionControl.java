@@ -0,0 +1,109 @@
+package admission;
+
+import cluster.ClusterClient;
+import cluster.ClusterMembership;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import model.Map;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import runtime.GameApi;
+
+import java.io.IOException;
+
+/**
+ * Admission control for the API: a global cap on requests in flight, plus separate per-client
+ * budgets for creating games and for firing shots. Everything is lock-free (atomic counters and
+ * compare-and-set token buckets), so it adds no contention of its own. See WebConfig for the paths.
+ * Bulk creation costs one creation token per game, and a game on a large board one token per
+ * create.cells-per-token cells (rounded up). Moves and fast-forwards take from the shot budget too,
+ * a fast-forward one token per turn (see GameApi.turnCost).
+ */
+@Component
+public class AdmissionControl {
+    private final boolean enabled;
+    private final ClusterMembership membership;
+    private final int cellsPerCreationToken;
+    private final ConcurrencyLimiter concurrencyLimiter;
+    private final ClientRateLimiter creationLimiter;
+    private final ClientRateLimiter shotLimiter;
+
+    public AdmissionControl(@Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.max-in-flight:256}") int maxInFlight,
+            @Value("${admission.create.per-second:2}") double createsPerSecond,
+            @Value("${admission.create.burst:20}") int createBurst,
+            @Value("${admission.create.cells-per-token:65536}") int cellsPerCreationToken,
+            @Value("${admission.shots.per-second:50}") double shotsPerSecond,
+            @Value("${admission.shots.burst:100}") int shotBurst,
+            ClusterMembership membership) {
+        this.enabled = enabled;
+        this.membership = membership;
+        this.cellsPerCreationToken = Math.max(cellsPerCreationToken, 1);
+        this.concurrencyLimiter = new ConcurrencyLimiter(maxInFlight);
+        this.creationLimiter = new ClientRateLimiter("game creation", "POST", createsPerSecond, createBurst,
+                this::clientOf, this::creationCostOf);
+        this.shotLimiter = new ClientRateLimiter("shot", "POST", shotsPerSecond, shotBurst,
+                this::clientOf, request -> GameApi.turnCost(request.getRequestURI(), request.getParameter("turns"),
+                        shotBurst));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    public ClientRateLimiter getCreationLimiter() {
+        return creationLimiter;
+    }
+
+    public ClientRateLimiter getShotLimiter() {
+        return shotLimiter;
+    }
+
+    // Requests forwarded by a cluster member carry the original client's address, anyone else is their remote address
+    String clientOf(HttpServletRequest request) {
+        if (membership.isEnabled() && membership.isForwardedByPeer(request)) {
+            String client = request.getHeader(ClusterClient.CLIENT_HEADER);
+            if (client != null) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Games created times the tokens per game; malformed parameters cost one token and are rejected by the controller
+    int creationCostOf(HttpServletRequest request) {
+        return GameApi.creationCost(intParameter(request, "count", 1),
+                intParameter(request, "boardSize", Map.DEFAULT_BOARD_SIZE), cellsPerCreationToken);
+    }
+
+    private static int intParameter(HttpServletRequest request, String name, int defaultValue) {
+        String value = request.getParameter(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // A negative waitNanos leaves out Retry-After, for requests that will never be admitted
+    static void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String message) {
+        response.setStatus(status.value());
+        if (waitNanos >= 0) {
+            response.setHeader("Retry-After", String.valueOf(ClientBuckets.retryAfterSeconds(waitNanos)));
+        }
+        response.setContentType("text/plain");
+        try {
+            response.getWriter().write(message);
+        } catch (IOException e) {
+            // the client is gone, nothing else to tell it
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A token bucket per client, created on a client's first request and forgotten once full again when too
+ * many clients are tracked. Free of Spring and servlet types, so the embedded server can use it as well
+ * as ClientRateLimiter.
+ */
+public class ClientBuckets {
+    // Past this many clients, the ones with full buckets are forgotten
+    private static final int MAX_TRACKED_CLIENTS = 100_000;
+    // New clients between two sweeps for full buckets, so a sweep's cost is spread over many insertions
+    private static final int EVICTION_INTERVAL = 1024;
+
+    private final double tokensPerSecond;
+    private final int burst;
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger insertionsSinceEviction = new AtomicInteger();
+
+    public ClientBuckets(double tokensPerSecond, int burst) {
+        this.tokensPerSecond = tokensPerSecond;
+        this.burst = burst;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    // Takes cost tokens from the client's bucket; returns 0 if it may go ahead, else the nanoseconds until it may
+    public long tryAcquire(String client, long now, int cost) {
+        TokenBucket bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = new TokenBucket(tokensPerSecond, burst, now);
+            TokenBucket existing = buckets.putIfAbsent(client, bucket);
+            if (existing != null) {
+                bucket = existing;
+            } else if (insertionsSinceEviction.incrementAndGet() >= EVICTION_INTERVAL) {
+                insertionsSinceEviction.set(0);
+                if (buckets.size() > MAX_TRACKED_CLIENTS) {
+                    buckets.values().removeIf(idle -> idle.isFull(now));
+                }
+            }
+        }
+        return bucket.tryAcquire(now, cost);
+    }
+
+    // The Retry-After value for a wait returned by tryAcquire, in whole seconds rounded up
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
@@ -0,0 +1,56 @@
+package admission;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Rate limits one kind of request (e.g. game creation) with a token bucket per client.
+ * A request may cost several tokens (e.g. one per game created in bulk). Requests over the client's budget
+ * are rejected with 429 Too Many Requests and a Retry-After header, requests costing more than the whole
+ * burst with 429 and no Retry-After, since waiting will not help.
+ */
+public class ClientRateLimiter implements HandlerInterceptor {
+    private final String name;
+    private final String method;
+    private final ClientBuckets buckets;
+    private final Function<HttpServletRequest, String> clientOf;
+    private final ToIntFunction<HttpServletRequest> costOf;
+
+    public ClientRateLimiter(String name, String method, double tokensPerSecond, int burst,
+            Function<HttpServletRequest, String> clientOf, ToIntFunction<HttpServletRequest> costOf) {
+        this.name = name;
+        this.method = method;
+        this.buckets = new ClientBuckets(tokensPerSecond, burst);
+        this.clientOf = clientOf;
+        this.costOf = costOf;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        if (!method.equals(request.getMethod())) {
+            return true;
+        }
+
+        int cost = costOf.applyAsInt(request);
+        int burst = buckets.getBurst();
+        if (cost > burst) {
+            AdmissionControl.reject(response, HttpStatus.TOO_MANY_REQUESTS, -1,
+                    "This " + name + " request costs " + cost + " tokens, more than the burst of " + burst);
+            return false;
+        }
+        long waitNanos = buckets.tryAcquire(clientOf.apply(request), System.nanoTime(), cost);
+        if (waitNanos == 0) {
+            return true;
+        }
+        AdmissionControl.reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos,
+                "Too many " + name + " requests");
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package admission;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the number of API requests being handled at once across all clients.
+ * Requests over the cap are rejected straight away with 503 Service Unavailable and a Retry-After header,
+ * rather than queueing behind work the server cannot keep up with.
+ * Streamed (async) responses keep their slot until the stream has completed.
+ */
+public class ConcurrencyLimiter implements AsyncHandlerInterceptor {
+    private static final String ADMITTED_ATTRIBUTE = ConcurrencyLimiter.class.getName() + ".admitted";
+    private static final String ASYNC_INTERCEPTOR_KEY = ConcurrencyLimiter.class.getName();
+    private static final long RETRY_AFTER_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AsyncCompletion asyncCompletion = new AsyncCompletion();
+
+    public ConcurrencyLimiter(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        // The dispatch that finishes a streamed response was already admitted as the original request
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            AdmissionControl.reject(response, HttpStatus.SERVICE_UNAVAILABLE, RETRY_AFTER_NANOS, "Server is busy");
+            return false;
+        }
+        request.setAttribute(ADMITTED_ATTRIBUTE, new AtomicBoolean(true));
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.registerCallableInterceptor(ASYNC_INTERCEPTOR_KEY, asyncCompletion);
+        asyncManager.registerDeferredResultInterceptor(ASYNC_INTERCEPTOR_KEY, asyncCompletion);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler, Exception ex) {
+        release(request);
+    }
+
+    // Called instead of afterCompletion when the handler went async, the slot is released by AsyncCompletion
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response, @NonNull Object handler) {
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Releases the request's slot once, whichever completion callback gets here first
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(ADMITTED_ATTRIBUTE) instanceof AtomicBoolean admitted
+                && admitted.compareAndSet(true, false)) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    // Runs when an async request has completed, timed out or failed
+    private class AsyncCompletion implements CallableProcessingInterceptor, DeferredResultProcessingInterceptor {
+        @Override
+        public <T> void afterCompletion(@NonNull NativeWebRequest request, @NonNull Callable<T> task) {
+            releaseNative(request);
+        }
+
+        @Override
+        public <T> void afterCompletion(@NonNull NativeWebRequest request, @NonNull DeferredResult<T> result) {
+            releaseNative(request);
+        }
+
+        private void releaseNative(NativeWebRequest request) {
+            HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+            if (servletRequest != null) {
+                release(servletRequest);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket, refilled at a steady rate up to a burst size.
+ * Instead of a token count it keeps the time at which the bucket would next be full again
+ * (the "generic cell rate algorithm"), so taking a token is a single compare-and-set.
+ */
+class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(double tokensPerSecond, int burst, long now) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = nanosPerToken * Math.max(burst, 1);
+        this.fullAt = new AtomicLong(now);
+    }
+
+    // Takes cost tokens if there are that many; returns 0 on success, else the nanoseconds until they are available
+    long tryAcquire(long now, int cost) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken * cost;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // A full bucket behaves exactly like a new one, so it can be forgotten
+    boolean isFull(long now) {
+        return fullAt.get() - now <= 0;
+    }
+}
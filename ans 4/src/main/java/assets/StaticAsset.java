@@ -0,0 +1,47 @@
+package assets;
+
+/**
+ * One static file held in memory, with its precompressed variants and content hash.
+ * The gzip and brotli variants are null when there is none (brotli only comes from a prebuilt .br file).
+ */
+public final class StaticAsset {
+    private final String contentType;
+    private final String hash;
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final byte[] brotli;
+
+    StaticAsset(String contentType, String hash, byte[] identity, byte[] gzip, byte[] brotli) {
+        this.contentType = contentType;
+        this.hash = hash;
+        this.identity = identity;
+        this.gzip = gzip;
+        this.brotli = brotli;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // Hex digest of the uncompressed content, also used in versioned URLs (?v=hash)
+    public String getHash() {
+        return hash;
+    }
+
+    public byte[] getIdentity() {
+        return identity;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public byte[] getBrotli() {
+        return brotli;
+    }
+
+    // Strong validator for one encoding of the content, each encoding needs its own
+    public String getETag(String encoding) {
+        return encoding == null ? "\"" + hash + "\"" : "\"" + hash + "-" + encoding + "\"";
+    }
+}
@@ -0,0 +1,200 @@
+package assets;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The web UI's static files, loaded into memory at startup together with their content hashes and
+ * gzip variants, so requests for them never touch the disk. Files in the "public" folder override the
+ * ones packaged in the jar, as in WebConfig. The JDK has no brotli encoder, so brotli variants are only
+ * served where a precompressed "name.br" file sits next to the original.
+ * With assets.watch=true the folder is watched and everything is reloaded when it changes.
+ */
+@Component
+public class StaticAssetCache {
+    private static final Logger log = LoggerFactory.getLogger(StaticAssetCache.class);
+    private static final String CLASSPATH_LOCATION = "classpath:/public/";
+
+    private final Path directory;
+    private final boolean watch;
+    private volatile Map<String, StaticAsset> assets = Map.of();
+    private WatchService watchService;
+
+    public StaticAssetCache(@Value("${assets.directory:public}") String directory,
+            @Value("${assets.watch:false}") boolean watch) {
+        this.directory = Path.of(directory).toAbsolutePath();
+        this.watch = watch;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        reload();
+        if (watch && Files.isDirectory(directory)) {
+            watchService = FileSystems.getDefault().newWatchService();
+            registerDirectories();
+            Thread watcher = new Thread(this::watchForChanges, "static-asset-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        }
+    }
+
+    // The asset for a request path such as "/scripts/game.js", or null if there is none
+    public StaticAsset get(String path) {
+        return assets.get(path);
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    // Loads every file again and then swaps them in at once
+    public void reload() throws IOException {
+        Map<String, byte[]> files = new HashMap<>();
+        loadClasspathFiles(files);
+        loadDirectoryFiles(files);
+
+        Map<String, StaticAsset> loaded = new HashMap<>();
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+            String path = file.getKey();
+            if (path.endsWith(".br") || path.endsWith(".gz")) {
+                continue;
+            }
+            loaded.put(path, makeAsset(path, file.getValue(), files.get(path + ".br")));
+        }
+        assets = Map.copyOf(loaded);
+        log.info("Loaded {} static assets", loaded.size());
+    }
+
+    private void loadClasspathFiles(Map<String, byte[]> files) throws IOException {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        Resource root = resolver.getResource(CLASSPATH_LOCATION);
+        if (!root.exists()) {
+            return;
+        }
+        String rootUrl = root.getURL().toString();
+        for (Resource resource : resolver.getResources(CLASSPATH_LOCATION + "**")) {
+            String url = resource.getURL().toString();
+            if (resource.isReadable() && !url.endsWith("/") && url.startsWith(rootUrl)) {
+                try (InputStream in = resource.getInputStream()) {
+                    files.put("/" + url.substring(rootUrl.length()), in.readAllBytes());
+                }
+            }
+        }
+    }
+
+    private void loadDirectoryFiles(Map<String, byte[]> files) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                String relative = directory.relativize(file).toString().replace('\\', '/');
+                files.put("/" + relative, Files.readAllBytes(file));
+            }
+        }
+    }
+
+    private static StaticAsset makeAsset(String path, byte[] content, byte[] brotli) {
+        MediaType mediaType = MediaTypeFactory.getMediaType(path).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        byte[] gzip = isCompressible(mediaType) ? gzip(content) : null;
+        if (gzip != null && gzip.length >= content.length) {
+            gzip = null;
+        }
+        String contentType = mediaType.getType().equals("text") || mediaType.equals(MediaType.APPLICATION_JSON)
+                || mediaType.getSubtype().equals("javascript")
+                ? mediaType + ";charset=UTF-8"
+                : mediaType.toString();
+        return new StaticAsset(contentType, hash(content), content, gzip, brotli);
+    }
+
+    private static boolean isCompressible(MediaType mediaType) {
+        String subtype = mediaType.getSubtype();
+        return mediaType.getType().equals("text") || subtype.equals("javascript") || subtype.equals("json")
+                || subtype.endsWith("xml");
+    }
+
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    // First 128 bits of the SHA-256 digest, plenty to tell versions of a file apart
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void registerDirectories() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path dir : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            }
+        }
+    }
+
+    private void watchForChanges() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                // editors tend to write a file in several steps, let them finish first
+                Thread.sleep(100);
+                do {
+                    key.pollEvents();
+                    key.reset();
+                    key = watchService.poll();
+                } while (key != null);
+
+                // registering a folder again is harmless, and picks up new ones
+                registerDirectories();
+                reload();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // shutting down
+        } catch (IOException e) {
+            log.warn("Stopped watching {} for changes", directory, e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package assets;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Serves the web UI from the StaticAssetCache, before Spring MVC gets involved.
+ * Picks the smallest encoding the client accepts, answers matching If-None-Match with 304, and
+ * lets browsers cache: versioned URLs (?v=hash) for good, other files for assets.max-age seconds
+ * and HTML pages only after revalidating. Requests for anything not cached fall through to WebConfig.
+ */
+@Component
+public class StaticAssetFilter extends OncePerRequestFilter {
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+
+    private final StaticAssetCache cache;
+    private final String defaultCaching;
+
+    public StaticAssetFilter(StaticAssetCache cache, @Value("${assets.max-age:3600}") long maxAgeSeconds) {
+        this.cache = cache;
+        this.defaultCaching = "public, max-age=" + maxAgeSeconds;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+        String path = request.getRequestURI();
+        StaticAsset asset = cache.get(path.endsWith("/") ? path + "index.html" : path);
+        if (asset == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String encoding = chooseEncoding(asset, request.getHeader("Accept-Encoding"));
+        byte[] body = "br".equals(encoding) ? asset.getBrotli()
+                : "gzip".equals(encoding) ? asset.getGzip()
+                : asset.getIdentity();
+        String eTag = asset.getETag(encoding);
+
+        response.setHeader("ETag", eTag);
+        response.setHeader("Cache-Control", cachingFor(asset, request));
+        if (asset.getGzip() != null || asset.getBrotli() != null) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+        if (matches(request.getHeader("If-None-Match"), eTag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(asset.getContentType());
+        if (encoding != null) {
+            response.setHeader("Content-Encoding", encoding);
+        }
+        response.setContentLength(body.length);
+        if ("GET".equals(request.getMethod())) {
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private String cachingFor(StaticAsset asset, HttpServletRequest request) {
+        if (asset.getHash().equals(request.getParameter("v"))) {
+            return IMMUTABLE;
+        }
+        return asset.getContentType().startsWith("text/html") ? REVALIDATE : defaultCaching;
+    }
+
+    // Brotli, then gzip, then none; null means the uncompressed content
+    private static String chooseEncoding(StaticAsset asset, String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        if (asset.getBrotli() != null && accepts(acceptEncoding, "br")) {
+            return "br";
+        }
+        if (asset.getGzip() != null && accepts(acceptEncoding, "gzip")) {
+            return "gzip";
+        }
+        return null;
+    }
+
+    // True if the Accept-Encoding header lists the coding without q=0
+    private static boolean accepts(String acceptEncoding, String coding) {
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase(coding)) {
+                for (int i = 1; i < tokens.length; i++) {
+                    String parameter = tokens[i].trim();
+                    if (parameter.startsWith("q=") && isZero(parameter.substring(2))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZero(String quality) {
+        try {
+            return Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(eTag) || value.equals("W/" + eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,86 @@
+package cluster;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sends requests to other cluster members over HTTP.
+ * Used to forward API requests to the node owning a game and to hand games off
+ * when membership changes. Every request carries the cluster secret so members can tell each other
+ * apart from outside callers.
+ */
+@Component
+public class ClusterClient {
+    public static final String FORWARDED_HEADER = "X-Cluster-Forwarded";
+    // Address of the client that made a forwarded request
+    public static final String CLIENT_HEADER = "X-Cluster-Client";
+    public static final String SECRET_HEADER = "X-Cluster-Secret";
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+    // Headers that only describe one hop (RFC 9110 section 7.6.1) or that the HTTP client sets itself
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-connection",
+            "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade", "host",
+            "content-length", "expect");
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(TIMEOUT)
+            .build();
+    private final String secret;
+
+    public ClusterClient(@Value("${cluster.secret:}") String secret) {
+        this.secret = secret;
+    }
+
+    /**
+     * Sends a request to another member with the given end-to-end headers (e.g. Accept, If-None-Match)
+     * and returns its response. Hop-by-hop headers and X-Cluster-* headers in headers are left out.
+     */
+    public HttpResponse<byte[]> forward(String member, String method, String pathAndQuery,
+            Map<String, List<String>> headers, byte[] body, String from, String client)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://" + member + pathAndQuery))
+                .timeout(TIMEOUT)
+                .method(method, body.length > 0
+                        ? HttpRequest.BodyPublishers.ofByteArray(body)
+                        : HttpRequest.BodyPublishers.noBody());
+        headers.forEach((name, values) -> {
+            if (isEndToEnd(name) && !name.regionMatches(true, 0, "X-Cluster-", 0, 10)) {
+                values.forEach(value -> request.header(name, value));
+            }
+        });
+        request.header(FORWARDED_HEADER, from);
+        request.header(SECRET_HEADER, secret);
+        if (client != null) {
+            request.header(CLIENT_HEADER, client);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // Pushes an encoded game to its new owner, returns true if the owner took it
+    public boolean transferGame(String member, int gameNumber, byte[] encodedGame, String from) {
+        try {
+            HttpResponse<byte[]> response = forward(member, "POST", "/api/cluster/games/" + gameNumber,
+                    Map.of("Content-Type", List.of("application/octet-stream")), encodedGame, from, null);
+            return response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // False for headers that must not be passed on by a forwarding member, in either direction
+    public static boolean isEndToEnd(String header) {
+        return !header.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(header.toLowerCase(Locale.ROOT));
+    }
+}
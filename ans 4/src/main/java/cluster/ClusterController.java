@@ -0,0 +1,52 @@
+package cluster;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import runtime.GameSession;
+import runtime.GameSessionCodec;
+import runtime.ShardedGameRegistry;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Internal endpoints used by cluster members to inspect membership and hand games to each other.
+ * Games are only adopted from callers presenting the cluster secret.
+ */
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+    private final ClusterMembership membership;
+    private final ShardedGameRegistry registry;
+
+    public ClusterController(ClusterMembership membership, ShardedGameRegistry registry) {
+        this.membership = membership;
+        this.registry = registry;
+    }
+
+    @GetMapping("/members")
+    public ResponseEntity<Set<String>> getMembers() {
+        return ResponseEntity.ok(membership.getRing().getMembers());
+    }
+
+    @PostMapping(value = "/games/{gameNumber}", consumes = "application/octet-stream")
+    public ResponseEntity<Void> adoptGame(@PathVariable int gameNumber, @RequestBody byte[] encodedGame,
+            @RequestHeader(value = ClusterClient.SECRET_HEADER, required = false) String secret) {
+        if (!membership.isTrustedPeer(secret)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            GameSession session = GameSessionCodec.decode(encodedGame);
+            if (session.getGameNumber() != gameNumber) {
+                return ResponseEntity.badRequest().build();
+            }
+            if (!registry.adoptGame(session)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT).build();
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package cluster;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import runtime.GameSessionCodec;
+import runtime.ShardedGameRegistry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks which instances make up the cluster and which of them owns each game.
+ * Members are listed one "host:port" per line in a shared file that is re-read periodically;
+ * when the list changes, games this instance no longer owns are handed off to their new owner.
+ */
+@Component
+public class ClusterMembership {
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembership.class);
+    private final boolean enabled;
+    private final String self;
+    private final Path membersFile;
+    private final long refreshMillis;
+    private final byte[] secret;
+    private final int nodeId;
+    private final int maxNodes;
+    private final ShardedGameRegistry registry;
+    private final ClusterClient client;
+    private volatile ConsistentHashRing ring = new ConsistentHashRing(List.of());
+    private ScheduledExecutorService refresher;
+
+    public ClusterMembership(@Value("${cluster.enabled:false}") boolean enabled,
+            @Value("${cluster.self:localhost:${server.port:8080}}") String self,
+            @Value("${cluster.members-file:cluster-members.txt}") String membersFile,
+            @Value("${cluster.refresh-millis:1000}") long refreshMillis,
+            @Value("${cluster.secret:}") String secret,
+            @Value("${cluster.node-id:-1}") int nodeId,
+            @Value("${cluster.max-nodes:64}") int maxNodes,
+            ShardedGameRegistry registry, ClusterClient client) {
+        this.enabled = enabled;
+        this.self = self;
+        this.membersFile = Path.of(membersFile);
+        this.refreshMillis = refreshMillis;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.nodeId = nodeId;
+        this.maxNodes = maxNodes;
+        this.registry = registry;
+        this.client = client;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (secret.length == 0) {
+            throw new IllegalStateException("cluster.secret must be set when cluster.enabled=true");
+        }
+        if (maxNodes < 1 || nodeId < 0 || nodeId >= maxNodes) {
+            throw new IllegalStateException("cluster.node-id must be unique and between 0 and cluster.max-nodes - 1");
+        }
+        registry.setGameNumbering(nodeId, maxNodes);
+        refresh();
+        registry.setOwnership(this::isLocal);
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-membership");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getSelf() {
+        return self;
+    }
+
+    public ConsistentHashRing getRing() {
+        return ring;
+    }
+
+    // True if a request carrying this X-Cluster-Secret header came from another member
+    public boolean isTrustedPeer(String presentedSecret) {
+        return enabled && secret.length > 0 && presentedSecret != null
+                && MessageDigest.isEqual(secret, presentedSecret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // True if the request was forwarded by another member, so its X-Cluster-Client header can be believed
+    public boolean isForwardedByPeer(HttpServletRequest request) {
+        return request.getHeader(ClusterClient.FORWARDED_HEADER) != null
+                && isTrustedPeer(request.getHeader(ClusterClient.SECRET_HEADER));
+    }
+
+    public boolean isMember() {
+        return ring.contains(self);
+    }
+
+    public String ownerOf(int gameNumber) {
+        return ring.ownerOf(gameNumber);
+    }
+
+    public boolean isLocal(int gameNumber) {
+        String owner = ring.ownerOf(gameNumber);
+        return owner == null || owner.equals(self);
+    }
+
+    // Re-reads the members file and hands off games if ownership moved
+    void refresh() {
+        List<String> members;
+        try {
+            members = readMembers();
+        } catch (IOException e) {
+            log.warn("Unable to read cluster members from {}: {}", membersFile, e.getMessage());
+            return;
+        }
+        if (members.equals(new ArrayList<>(ring.getMembers()))) {
+            return;
+        }
+
+        ring = new ConsistentHashRing(members);
+        log.info("Cluster membership changed to {}", members);
+        handOffGames();
+    }
+
+    private List<String> readMembers() throws IOException {
+        List<String> members = new ArrayList<>();
+        for (String line : Files.readAllLines(membersFile)) {
+            String member = line.trim();
+            if (!member.isEmpty() && !member.startsWith("#") && !members.contains(member)) {
+                members.add(member);
+            }
+        }
+        return members;
+    }
+
+    private void handOffGames() {
+        Map<Integer, byte[]> released = registry.releaseGames(this::isLocal);
+        for (Map.Entry<Integer, byte[]> entry : released.entrySet()) {
+            int gameNumber = entry.getKey();
+            String owner = ownerOf(gameNumber);
+            if (client.transferGame(owner, gameNumber, entry.getValue(), self)) {
+                continue;
+            }
+
+            // New owner is unreachable, keep serving the game here rather than losing it
+            log.warn("Unable to hand off game {} to {}", gameNumber, owner);
+            try {
+                if (!registry.adoptGame(GameSessionCodec.decode(entry.getValue()))) {
+                    log.error("Unable to restore game {}, the number is already in use", gameNumber);
+                }
+            } catch (IOException e) {
+                log.error("Unable to restore game {}", gameNumber, e);
+            }
+        }
+        if (!released.isEmpty()) {
+            log.info("Handed off {} games", released.size());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+}
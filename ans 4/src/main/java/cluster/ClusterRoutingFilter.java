@@ -0,0 +1,105 @@
+package cluster;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Forwards per-game API requests to the cluster member that owns the game.
+ * Requests that another member already forwarded once are always handled locally, so members
+ * with briefly different views of the membership never bounce a request around. The forwarded
+ * header only counts when it comes with the cluster secret, outside callers cannot use it to skip routing.
+ * Request and response headers other than hop-by-hop ones are passed through, so conditional requests
+ * (If-None-Match / ETag) and paging (X-Next-Cursor) work the same through any member.
+ * Multiplayer games (/api/multiplayer/**) are not routed, they stay on the instance that created them.
+ * Requests that are not about one game (game listing, stats, leaderboard) are answered by the member that
+ * receives them from the games it owns.
+ */
+@Component
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+    private static final Pattern GAME_PATH = Pattern.compile("^/api/games/(\\d+)(/.*)?$");
+    private final ClusterMembership membership;
+    private final ClusterClient client;
+
+    public ClusterRoutingFilter(ClusterMembership membership, ClusterClient client) {
+        this.membership = membership;
+        this.client = client;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+        if (!membership.isEnabled() || membership.isForwardedByPeer(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String owner = findOwner(request);
+        if (owner == null || owner.equals(membership.getSelf())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        forward(owner, request, response);
+    }
+
+    // Works out which member should serve the request, or null if it is not game specific
+    private String findOwner(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        Matcher matcher = GAME_PATH.matcher(path);
+        if (matcher.matches()) {
+            try {
+                return membership.ownerOf(Integer.parseInt(matcher.group(1)));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        // Instances outside the ring own no game numbers, so let a member create the games
+        boolean isCreation = "/api/games".equals(path) || "/api/games/bulk".equals(path);
+        if (isCreation && "POST".equals(request.getMethod()) && !membership.isMember()) {
+            return membership.ownerOf((int) System.nanoTime());
+        }
+        return null;
+    }
+
+    private void forward(String owner, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String pathAndQuery = request.getRequestURI()
+                + (request.getQueryString() != null ? "?" + request.getQueryString() : "");
+        byte[] body = request.getInputStream().readAllBytes();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : Collections.list(request.getHeaderNames())) {
+            headers.put(name, Collections.list(request.getHeaders(name)));
+        }
+
+        try {
+            HttpResponse<byte[]> forwarded = client.forward(owner, request.getMethod(), pathAndQuery,
+                    headers, body, membership.getSelf(), request.getRemoteAddr());
+            response.setStatus(forwarded.statusCode());
+            forwarded.headers().map().forEach((name, values) -> {
+                if (ClusterClient.isEndToEnd(name)) {
+                    values.forEach(value -> response.addHeader(name, value));
+                }
+            });
+            response.getOutputStream().write(forwarded.body());
+        } catch (IOException e) {
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "Owner " + owner + " is unreachable");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+    }
+}
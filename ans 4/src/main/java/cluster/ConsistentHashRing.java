@@ -0,0 +1,60 @@
+package cluster;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Consistent-hash ring that maps game numbers onto cluster members.
+ * Every member is placed on the ring many times (virtual nodes) so the game-number space
+ * is split evenly, and adding or removing a member only moves the games next to it.
+ */
+public class ConsistentHashRing {
+    private static final int VIRTUAL_NODES = 128;
+    private final TreeMap<Integer, String> ring = new TreeMap<>();
+    private final Set<String> members;
+
+    public ConsistentHashRing(Collection<String> members) {
+        this.members = Collections.unmodifiableSet(new LinkedHashSet<>(members));
+        for (String member : this.members) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(mix(member.hashCode() ^ (i * 0x9E3779B9)), member);
+            }
+        }
+    }
+
+    // Returns the member owning the game, or null if the ring is empty
+    public String ownerOf(int gameNumber) {
+        if (ring.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Integer, String> entry = ring.ceilingEntry(mix(gameNumber));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    public boolean contains(String member) {
+        return members.contains(member);
+    }
+
+    public boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    // Murmur3 finalizer, spreads sequential game numbers around the ring
+    private static int mix(int value) {
+        int hash = value;
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
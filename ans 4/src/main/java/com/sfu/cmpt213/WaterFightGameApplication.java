@@ -1,15 +1,59 @@
 package com.sfu.cmpt213;
 
+import admission.AdmissionControl;
+import assets.StaticAssetCache;
+import assets.StaticAssetFilter;
+import cluster.ClusterClient;
+import cluster.ClusterController;
+import cluster.ClusterMembership;
+import cluster.ClusterRoutingFilter;
+import controller.ForkController;
+import controller.GameController;
+import controller.HealthController;
+import controller.MultiplayerController;
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.ComponentScan;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import protocol.BinaryGameServer;
+import realtime.RealTimeClock;
+import runtime.GameStatistics;
+import runtime.Leaderboard;
+import runtime.MultiplayerRegistry;
+import runtime.SandboxRegistry;
+import runtime.ShardedGameRegistry;
+import warmup.JitWarmup;
 
 /**
  * Main Spring Boot application class for the Blanket Fort Game.
  * Initializes and starts the REST API server for the water fight game.
+ * The application's beans are listed explicitly below instead of found by classpath scanning,
+ * which keeps startup fast; new components have to be added to the list.
  */
-@SpringBootApplication
-@ComponentScan(basePackages = { "com.sfu.cmpt213", "", "controller", "dto", "model" })
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@Import({
+        WebConfig.class,
+        GameController.class,
+        ForkController.class,
+        MultiplayerController.class,
+        HealthController.class,
+        ShardedGameRegistry.class,
+        GameStatistics.class,
+        Leaderboard.class,
+        SandboxRegistry.class,
+        MultiplayerRegistry.class,
+        RealTimeClock.class,
+        AdmissionControl.class,
+        StaticAssetCache.class,
+        StaticAssetFilter.class,
+        ClusterClient.class,
+        ClusterMembership.class,
+        ClusterRoutingFilter.class,
+        ClusterController.class,
+        BinaryGameServer.class,
+        JitWarmup.class
+})
 public class WaterFightGameApplication {
     public static void main(String[] args) {
         SpringApplication.run(WaterFightGameApplication.class, args);
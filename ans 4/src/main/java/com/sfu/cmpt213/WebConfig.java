@@ -1,9 +1,12 @@
 package com.sfu.cmpt213;
 
+import admission.AdmissionControl;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import runtime.GameApi;
 
 import java.io.File;
 
@@ -13,6 +16,12 @@ import java.io.File;
  */
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+    private final AdmissionControl admissionControl;
+
+    public WebConfig(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
         // Serve files from /public folder in project root
@@ -20,4 +29,17 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addResourceHandler("/**")
                 .addResourceLocations("file:" + publicPath + "/", "classpath:/public/");
     }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        if (!admissionControl.isEnabled()) {
+            return;
+        }
+        // Checked in this order: the global cap first, then the client's budget.
+        // Health probes skip the cap, an overloaded instance is still alive
+        registry.addInterceptor(admissionControl.getConcurrencyLimiter()).addPathPatterns("/api/**")
+                .excludePathPatterns("/api/health/**");
+        registry.addInterceptor(admissionControl.getCreationLimiter()).addPathPatterns(GameApi.CREATION_PATHS);
+        registry.addInterceptor(admissionControl.getShotLimiter()).addPathPatterns(GameApi.TURN_PATHS);
+    }
 }
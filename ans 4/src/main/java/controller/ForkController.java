@@ -0,0 +1,94 @@
+package controller;
+
+import dto.ApiBoardDTO;
+import dto.ApiForkDTO;
+import dto.ApiShotDTO;
+import dto.ApiShotRequestDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import runtime.GameSandbox;
+import runtime.GameSession;
+import runtime.SandboxRegistry;
+import runtime.ShardedGameRegistry;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * REST controller for game sandboxes: forks of a game that hypothetical shots can be tried on
+ * (by bots, hints or "what if" analysis) and then thrown away, leaving the real game untouched.
+ * Sandboxes live under their game's path, so in a cluster they stay on the game's owner.
+ */
+@RestController
+@RequestMapping("/api/games/{gameNumber}/forks")
+@CrossOrigin(origins = "*")
+public class ForkController {
+    private final SandboxRegistry sandboxes;
+    private final ShardedGameRegistry registry;
+
+    public ForkController(SandboxRegistry sandboxes, ShardedGameRegistry registry) {
+        this.sandboxes = sandboxes;
+        this.registry = registry;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiForkDTO> forkGame(@PathVariable int gameNumber) {
+        return created(() -> sandboxes.forkGame(gameNumber));
+    }
+
+    @PostMapping("/{forkId}/forks")
+    public ResponseEntity<ApiForkDTO> forkSandbox(@PathVariable int gameNumber, @PathVariable int forkId) {
+        return created(() -> sandboxes.forkSandbox(gameNumber, forkId));
+    }
+
+    @GetMapping("/{forkId}")
+    public ResponseEntity<ApiForkDTO> getFork(@PathVariable int gameNumber, @PathVariable int forkId) {
+        return ResponseEntity.of(sandboxes.find(gameNumber, forkId).map(this::makeForkDTO));
+    }
+
+    // Shown like the real game's board, so the forts only show if the game is in cheat mode
+    @GetMapping("/{forkId}/board")
+    public ResponseEntity<ApiBoardDTO> getBoard(@PathVariable int gameNumber, @PathVariable int forkId) {
+        boolean cheatMode = registry.find(gameNumber).map(GameSession::isCheatMode).orElse(false);
+        return ResponseEntity.of(sandboxes.find(gameNumber, forkId)
+                .map(sandbox -> ApiBoardDTO.makeFromSnapshot(sandbox.getSnapshot(), cheatMode)));
+    }
+
+    @PostMapping("/{forkId}/shots")
+    public ResponseEntity<ApiShotDTO> processShot(@PathVariable int gameNumber, @PathVariable int forkId,
+            @RequestBody ApiShotRequestDTO shotRequest) {
+        Optional<GameSandbox> found = sandboxes.find(gameNumber, forkId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        GameSandbox sandbox = found.get();
+        boolean isRequestValid = shotRequest != null && shotRequest.shot != null && !shotRequest.shot.isEmpty();
+        if (!isRequestValid || sandbox.isGameOver()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ApiShotDTO.makeFromShotScore(sandbox.processPlayerShot(shotRequest.shot)));
+    }
+
+    @DeleteMapping("/{forkId}")
+    public ResponseEntity<Void> discard(@PathVariable int gameNumber, @PathVariable int forkId) {
+        return sandboxes.discard(gameNumber, forkId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private ResponseEntity<ApiForkDTO> created(Supplier<Optional<GameSandbox>> fork) {
+        try {
+            return fork.get()
+                    .map(sandbox -> ResponseEntity.status(HttpStatus.CREATED).body(makeForkDTO(sandbox)))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    private ApiForkDTO makeForkDTO(GameSandbox sandbox) {
+        return ApiForkDTO.makeFromSnapshot(sandbox.getForkId(), sandbox.getGameNumber(), sandbox.getSnapshot());
+    }
+}
@@ -1,16 +1,17 @@
 package controller;
 
 import dto.*;
-import model.GameEngine;
-import model.ShotScore;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import runtime.GameApi;
+import runtime.GameStatistics;
+import runtime.Leaderboard;
+import runtime.ShardedGameRegistry;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * REST controller for the Blanket Fort Game API.
@@ -18,187 +19,164 @@ import java.util.Map;
  * states.
  * Provides endpoints for creating games, making moves, viewing boards, and
  * managing game state.
+ * Validation and responses are in GameApi, shared with the embedded server; this class maps them onto Spring MVC.
  */
 @RestController
 @RequestMapping("/api")
 @CrossOrigin(origins = "*")
 public class GameController {
-    private final List<GameEngine> games = new ArrayList<>();
-    private final Map<Integer, Integer> gameShotCounts = new HashMap<>();
-    private final Map<Integer, List<Integer>> lastOpponentScores = new HashMap<>();
-    private final Map<Integer, Boolean> cheatModes = new HashMap<>();
-    private static final int DEFAULT_NUM_OPPONENTS = 5;
+    private final GameApi api;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+    private static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+    private static final CacheControl FINISHED_GAME_CACHING =
+            CacheControl.maxAge(GameApi.FINISHED_GAME_MAX_AGE_SECONDS, TimeUnit.SECONDS);
+
+    public GameController(ShardedGameRegistry registry, GameStatistics statistics, Leaderboard leaderboard) {
+        this.api = new GameApi(registry, statistics, leaderboard, true);
+    }
 
     @GetMapping("/about")
     public ResponseEntity<String> getAbout() {
-        return ResponseEntity.ok("Yadav Singh");
-    }
-
-    @GetMapping("/games")
-    public ResponseEntity<List<ApiGameDTO>> getAllGames() {
-        List<ApiGameDTO> gameList = new ArrayList<>();
-        for (int i = 0; i < games.size(); i++) {
-            GameEngine game = games.get(i);
-            int numShots = gameShotCounts.getOrDefault(i, 0);
-            List<Integer> lastScores = lastOpponentScores.getOrDefault(i, new ArrayList<>());
-            ApiGameDTO dto = ApiGameDTO.makeFromGame(game, i, numShots, lastScores);
-            gameList.add(dto);
-        }
-        return ResponseEntity.ok(gameList);
+        return ResponseEntity.ok(GameApi.ABOUT);
     }
 
-    @PostMapping("/games")
-    public ResponseEntity<ApiGameDTO> createGame() {
-        int opponents = DEFAULT_NUM_OPPONENTS;
-
-        try {
-            GameEngine game = new GameEngine(opponents);
-            int gameNumber = games.size();
-            games.add(game);
-            gameShotCounts.put(gameNumber, 0);
-            lastOpponentScores.put(gameNumber, new ArrayList<>());
-            cheatModes.put(gameNumber, false);
-
-            ApiGameDTO dto = ApiGameDTO.makeFromGame(game, gameNumber, 0, new ArrayList<>());
-            return ResponseEntity.status(HttpStatus.CREATED).body(dto);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    /**
+     * Lists games in game number order, optionally filtered by state and paged with a cursor.
+     * When a limit is given and more games may follow, the cursor for the next page is sent in
+     * the X-Next-Cursor header. Without a limit every matching game is returned.
+     */
+    @GetMapping(value = "/games", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getAllGames(@RequestParam(required = false) Integer cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String state) {
+        GameApi.Result<GameApi.GamePage> result = api.listGames(cursor, limit, state);
+        if (result.body() == null) {
+            return ResponseEntity.status(result.status()).build();
         }
-    }
 
-    @GetMapping("/games/{gameNumber}")
-    public ResponseEntity<ApiGameDTO> getGame(@PathVariable int gameNumber) {
-        if (gameNumber < 0 || gameNumber >= games.size()) {
-            return ResponseEntity.notFound().build();
+        GameApi.GamePage page = result.body();
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(result.status())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
         }
-
-        GameEngine game = games.get(gameNumber);
-        int numShots = gameShotCounts.getOrDefault(gameNumber, 0);
-        List<Integer> lastScores = lastOpponentScores.getOrDefault(gameNumber, new ArrayList<>());
-        ApiGameDTO dto = ApiGameDTO.makeFromGame(game, gameNumber, numShots, lastScores);
-        return ResponseEntity.ok(dto);
+        return response.body(page.json());
     }
 
-    @GetMapping("/games/{gameNumber}/board")
-    public ResponseEntity<ApiBoardDTO> getBoard(@PathVariable int gameNumber) {
-        if (gameNumber < 0 || gameNumber >= games.size()) {
-            return ResponseEntity.notFound().build();
+    // Same listing as getAllGames, streamed as one JSON game per line (NDJSON)
+    @GetMapping(value = "/games", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllGames(@RequestParam(required = false) Integer cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String state) {
+        GameApi.Result<GameApi.GameStream> result = api.streamGames(cursor, limit, state);
+        if (result.body() == null) {
+            return ResponseEntity.status(result.status()).build();
         }
+        return ResponseEntity.status(result.status()).contentType(NDJSON).body(result.body()::writeTo);
+    }
 
-        GameEngine game = games.get(gameNumber);
-        boolean cheatMode = cheatModes.getOrDefault(gameNumber, false);
-        ApiBoardDTO dto = ApiBoardDTO.makeFromGame(game.getMap(), cheatMode);
-        return ResponseEntity.ok(dto);
+    @PostMapping("/games")
+    public ResponseEntity<ApiGameDTO> createGame(@RequestParam(required = false) String mode,
+            @RequestParam(required = false) Integer boardSize) {
+        return toResponse(api.createGame(mode, boardSize));
     }
 
-    @PostMapping("/games/{gameNumber}/cheatstate")
-    public ResponseEntity<Void> setCheatState(@PathVariable int gameNumber, @RequestBody String cheatCommand) {
-        if (gameNumber < 0 || gameNumber >= games.size()) {
-            return ResponseEntity.notFound().build();
-        }
+    @PostMapping("/games/bulk")
+    public ResponseEntity<ApiBulkGamesDTO> createGames(@RequestParam int count,
+            @RequestParam(required = false) Long seed) {
+        return toResponse(api.createGames(count, seed));
+    }
 
-        String trimmed = cheatCommand != null ? cheatCommand.trim() : "";
-        // Remove surrounding quotes if present
-        if (trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
-            trimmed = trimmed.substring(1, trimmed.length() - 1);
-        }
+    @GetMapping("/games/{gameNumber}")
+    public ResponseEntity<byte[]> getGame(@PathVariable int gameNumber) {
+        return cachedResponse(api.getGame(gameNumber));
+    }
+
+    @GetMapping("/games/{gameNumber}/board")
+    public ResponseEntity<byte[]> getBoard(@PathVariable int gameNumber) {
+        return cachedResponse(api.getBoard(gameNumber));
+    }
 
-        if ("SHOW_ALL".equals(trimmed)) {
-            cheatModes.put(gameNumber, true);
-            return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    @GetMapping("/games/{gameNumber}/board/region")
+    public ResponseEntity<byte[]> getBoardRegion(@PathVariable int gameNumber,
+            @RequestParam int row, @RequestParam int col,
+            @RequestParam int height, @RequestParam int width) {
+        GameApi.Result<byte[]> result = api.getBoardRegion(gameNumber, row, col, height, width);
+        if (result.body() == null) {
+            return ResponseEntity.status(result.status()).build();
         }
+        return ResponseEntity.status(result.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .body(result.body());
+    }
 
-        return ResponseEntity.badRequest().build();
+    @PostMapping("/games/{gameNumber}/cheatstate")
+    public ResponseEntity<Void> setCheatState(@PathVariable int gameNumber, @RequestBody String cheatCommand) {
+        return toResponse(api.setCheatState(gameNumber, cheatCommand));
     }
 
     @PostMapping("/games/{gameNumber}/moves")
     public ResponseEntity<Void> processMove(@PathVariable int gameNumber,
             @RequestBody ApiLocationDTO location) {
-        if (gameNumber < 0 || gameNumber >= games.size()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        if (location == null || location.row < 0 || location.row >= 10 ||
-                location.col < 0 || location.col >= 10) {
-            return ResponseEntity.badRequest().build();
-        }
-
-        GameEngine game = games.get(gameNumber);
-
-        // Check if game is over
-        if (game.isGameOver()) {
-            return ResponseEntity.badRequest().build();
-        }
-
-        // Convert row/col to coordinate string (e.g., row=1, col=4 -> "B5")
-        String coordinate = convertRowColToCoordinate(location.row, location.col);
-
-        // Process the shot
-        ShotScore shotScore = game.processPlayerShot(coordinate);
-
-        // Update shot count and store last opponent scores
-        int currentShots = gameShotCounts.getOrDefault(gameNumber, 0);
-        gameShotCounts.put(gameNumber, currentShots + 1);
-        lastOpponentScores.put(gameNumber, new ArrayList<>(shotScore.getOpponentScores()));
-
-        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
-    }
-
-    private String convertRowColToCoordinate(int row, int col) {
-        char letter = (char) ('A' + row);
-        int number = col + 1;
-        return letter + String.valueOf(number);
+        return toResponse(api.processMove(gameNumber, location));
     }
 
     @GetMapping("/games/{gameNumber}/opponents")
-    public ResponseEntity<List<ApiOpponentDTO>> getOpponents(@PathVariable int gameNumber) {
-        if (gameNumber < 0 || gameNumber >= games.size()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        GameEngine game = games.get(gameNumber);
-        List<ApiOpponentDTO> dtoList = ApiOpponentDTO.makeFromOpponents(game.getOpponents());
-        return ResponseEntity.ok(dtoList);
+    public ResponseEntity<byte[]> getOpponents(@PathVariable int gameNumber) {
+        return cachedResponse(api.getOpponents(gameNumber));
     }
 
     @GetMapping("/games/{gameNumber}/scoreboard")
-    public ResponseEntity<ApiScoreBoardDTO> getScoreboard(@PathVariable int gameNumber) {
-        if (gameNumber < 0 || gameNumber >= games.size()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        GameEngine game = games.get(gameNumber);
-        ApiScoreBoardDTO dto = ApiScoreBoardDTO.makeFromScoreBoard(game.getScoreBoard());
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<byte[]> getScoreboard(@PathVariable int gameNumber) {
+        return cachedResponse(api.getScoreboard(gameNumber));
     }
 
     @PostMapping("/games/{gameNumber}/shots")
     public ResponseEntity<ApiShotDTO> processShot(@PathVariable int gameNumber,
             @RequestBody ApiShotRequestDTO shotRequest) {
-        if (gameNumber < 0 || gameNumber >= games.size()) {
-            return ResponseEntity.notFound().build();
-        }
+        return toResponse(api.processShot(gameNumber, shotRequest));
+    }
 
-        if (shotRequest == null || shotRequest.shot == null || shotRequest.shot.isEmpty()) {
-            return ResponseEntity.badRequest().build();
-        }
+    @GetMapping("/stats")
+    public ResponseEntity<ApiStatsDTO> getStats() {
+        return toResponse(api.getStats());
+    }
 
-        GameEngine game = games.get(gameNumber);
+    @GetMapping("/leaderboard")
+    public ResponseEntity<ApiLeaderboardDTO> getLeaderboard() {
+        return toResponse(api.getLeaderboard());
+    }
 
-        // Check if game is over
-        if (game.isGameOver()) {
-            return ResponseEntity.badRequest().build();
-        }
+    @GetMapping("/games/{gameNumber}/forecast")
+    public ResponseEntity<ApiForecastDTO> getForecast(@PathVariable int gameNumber) {
+        return toResponse(api.getForecast(gameNumber));
+    }
 
-        // Process the shot
-        ShotScore shotScore = game.processPlayerShot(shotRequest.shot);
+    @PostMapping("/games/{gameNumber}/fastforward")
+    public ResponseEntity<ApiGameDTO> fastForward(@PathVariable int gameNumber,
+            @RequestParam(required = false) Integer turns) {
+        return toResponse(api.fastForward(gameNumber, turns));
+    }
 
-        // Update shot count
-        int currentShots = gameShotCounts.getOrDefault(gameNumber, 0);
-        gameShotCounts.put(gameNumber, currentShots + 1);
-        lastOpponentScores.put(gameNumber, new ArrayList<>(shotScore.getOpponentScores()));
+    /**
+     * A cached read response with its ETag, so a client that already has it gets a 304
+     * (Spring compares If-None-Match), and finished games may be cached for a minute.
+     */
+    private static ResponseEntity<byte[]> cachedResponse(GameApi.Result<GameApi.CachedResponse> result) {
+        GameApi.CachedResponse response = result.body();
+        if (response == null) {
+            return ResponseEntity.status(result.status()).build();
+        }
+        return ResponseEntity.status(result.status())
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(response.isFinal() ? FINISHED_GAME_CACHING : CacheControl.noCache())
+                .eTag(response.eTag())
+                .body(response.json());
+    }
 
-        ApiShotDTO dto = ApiShotDTO.makeFromShotScore(shotScore);
-        return ResponseEntity.ok(dto);
+    private static <T> ResponseEntity<T> toResponse(GameApi.Result<T> result) {
+        return ResponseEntity.status(result.status()).body(result.body());
     }
 }
@@ -0,0 +1,116 @@
+package controller;
+
+import dto.ApiBoardDTO;
+import dto.ApiBoardRegionDTO;
+import dto.ApiGameDTO;
+import dto.ApiMultiplayerShotRequestDTO;
+import dto.ApiPlayerDTO;
+import dto.ApiShotDTO;
+import model.GameSnapshot;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import runtime.MultiplayerRegistry;
+import runtime.MultiplayerSession;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST controller for cooperative multiplayer games, where any number of named players fire at
+ * the same opponents at once. Games are numbered separately from single player games.
+ */
+@RestController
+@RequestMapping("/api/multiplayer")
+@CrossOrigin(origins = "*")
+public class MultiplayerController {
+    private static final int DEFAULT_NUM_OPPONENTS = 5;
+    private static final int MAX_REGION_CELLS = 256 * 256;
+    private static final int MAX_PLAYER_NAME_LENGTH = 64;
+    private final MultiplayerRegistry registry;
+
+    public MultiplayerController(MultiplayerRegistry registry) {
+        this.registry = registry;
+    }
+
+    @PostMapping("/games")
+    public ResponseEntity<ApiGameDTO> createGame() {
+        try {
+            MultiplayerSession session = registry.createGame(DEFAULT_NUM_OPPONENTS);
+            return ResponseEntity.status(HttpStatus.CREATED).body(makeGameDTO(session));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/games/{gameId}")
+    public ResponseEntity<ApiGameDTO> getGame(@PathVariable int gameId) {
+        return ResponseEntity.of(registry.find(gameId).map(this::makeGameDTO));
+    }
+
+    @GetMapping("/games/{gameId}/board")
+    public ResponseEntity<ApiBoardDTO> getBoard(@PathVariable int gameId) {
+        return ResponseEntity.of(registry.find(gameId)
+                .map(session -> ApiBoardDTO.makeFromSnapshot(session.getGame().getSnapshot(), false)));
+    }
+
+    // Same rules as the single player region query: cut off at the board's edges, at most 65536 cells
+    @GetMapping("/games/{gameId}/board/region")
+    public ResponseEntity<ApiBoardRegionDTO> getBoardRegion(@PathVariable int gameId,
+            @RequestParam int row, @RequestParam int col,
+            @RequestParam int height, @RequestParam int width) {
+        Optional<MultiplayerSession> found = registry.find(gameId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        GameSnapshot snapshot = found.get().getGame().getSnapshot();
+        int boardSize = snapshot.getBoardSize();
+        if (row < 0 || col < 0 || row >= boardSize || col >= boardSize || height <= 0 || width <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        int clippedHeight = Math.min(height, boardSize - row);
+        int clippedWidth = Math.min(width, boardSize - col);
+        if ((long) clippedHeight * clippedWidth > MAX_REGION_CELLS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(ApiBoardRegionDTO.makeFromSnapshot(snapshot, false,
+                row, col, clippedHeight, clippedWidth));
+    }
+
+    @GetMapping("/games/{gameId}/players")
+    public ResponseEntity<List<ApiPlayerDTO>> getPlayers(@PathVariable int gameId) {
+        return ResponseEntity.of(registry.find(gameId).map(ApiPlayerDTO::makeFromSession));
+    }
+
+    // Applied straight away on the request thread, shots from different players run in parallel;
+    // a new player joining a game that already has multiplayer.max-players gets 409
+    @PostMapping("/games/{gameId}/shots")
+    public ResponseEntity<ApiShotDTO> processShot(@PathVariable int gameId,
+            @RequestBody ApiMultiplayerShotRequestDTO shotRequest) {
+        Optional<MultiplayerSession> found = registry.find(gameId);
+        if (found.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        MultiplayerSession session = found.get();
+        boolean isRequestValid = shotRequest != null && shotRequest.shot != null && !shotRequest.shot.isEmpty()
+                && shotRequest.player != null && !shotRequest.player.isEmpty()
+                && shotRequest.player.length() <= MAX_PLAYER_NAME_LENGTH;
+        if (!isRequestValid || session.getGame().isGameOver()) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(ApiShotDTO.makeFromShotScore(
+                    session.processPlayerShot(shotRequest.player, shotRequest.shot)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    private ApiGameDTO makeGameDTO(MultiplayerSession session) {
+        return ApiGameDTO.makeFromSnapshot(session.getGame().getSnapshot(), session.getGameId());
+    }
+}
@@ -1,6 +1,7 @@
 package dto;
 
 import model.Cell;
+import model.GameSnapshot;
 import model.Map;
 
 /**
@@ -59,6 +60,36 @@ public class ApiBoardDTO {
 
         return dto;
     }
+
+    public static ApiBoardDTO makeFromSnapshot(GameSnapshot snapshot, boolean cheatMode) {
+        ApiBoardDTO dto = new ApiBoardDTO();
+        int boardSize = snapshot.getBoardSize();
+        dto.boardWidth = boardSize;
+        dto.boardHeight = boardSize;
+        dto.cellStates = new String[boardSize][boardSize];
+
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                Cell.CellState cellState = snapshot.getCellState(row, col);
+                String state;
+
+                if (cellState == Cell.CellState.HIT) {
+                    state = "hit";
+                } else if (cellState == Cell.CellState.MISS) {
+                    state = "miss";
+                } else if (cheatMode) {
+                    // In cheat mode, show unexplored cells too
+                    state = snapshot.isFortCell(row, col) ? "fort" : "field";
+                } else {
+                    state = "fog";
+                }
+
+                dto.cellStates[row][col] = state;
+            }
+        }
+
+        return dto;
+    }
 }
 
 // lol lmao
\ No newline at end of file
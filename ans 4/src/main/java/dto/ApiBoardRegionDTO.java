@@ -0,0 +1,52 @@
+package dto;
+
+import model.Cell;
+import model.GameSnapshot;
+
+/**
+ * Data Transfer Object for a rectangle of the game board, for clients that only show part of a large board.
+ * cellStates[r][c] is the state of the cell at (row + r, col + c), with the same values as ApiBoardDTO.
+ */
+public class ApiBoardRegionDTO {
+    public int boardWidth;
+    public int boardHeight;
+    public int row;
+    public int col;
+    public int height;
+    public int width;
+    public String[][] cellStates;
+
+    // The region must lie on the board
+    public static ApiBoardRegionDTO makeFromSnapshot(GameSnapshot snapshot, boolean cheatMode,
+            int row, int col, int height, int width) {
+        ApiBoardRegionDTO dto = new ApiBoardRegionDTO();
+        dto.boardWidth = snapshot.getBoardSize();
+        dto.boardHeight = snapshot.getBoardSize();
+        dto.row = row;
+        dto.col = col;
+        dto.height = height;
+        dto.width = width;
+        dto.cellStates = new String[height][width];
+
+        for (int r = 0; r < height; r++) {
+            for (int c = 0; c < width; c++) {
+                Cell.CellState cellState = snapshot.getCellState(row + r, col + c);
+                String state;
+
+                if (cellState == Cell.CellState.HIT) {
+                    state = "hit";
+                } else if (cellState == Cell.CellState.MISS) {
+                    state = "miss";
+                } else if (cheatMode) {
+                    state = snapshot.isFortCell(row + r, col + c) ? "fort" : "field";
+                } else {
+                    state = "fog";
+                }
+
+                dto.cellStates[r][c] = state;
+            }
+        }
+
+        return dto;
+    }
+}
@@ -0,0 +1,21 @@
+package dto;
+
+import runtime.GameSession;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object for games created together: their game numbers, and the seed each one's
+ * forts were placed from (the same seed places them the same way again).
+ */
+public class ApiBulkGamesDTO {
+    public int[] gameNumbers;
+    public long[] seeds;
+
+    public static ApiBulkGamesDTO makeFromSessions(List<GameSession> sessions, long[] seeds) {
+        ApiBulkGamesDTO dto = new ApiBulkGamesDTO();
+        dto.gameNumbers = sessions.stream().mapToInt(GameSession::getGameNumber).toArray();
+        dto.seeds = seeds;
+        return dto;
+    }
+}
@@ -0,0 +1,22 @@
+package dto;
+
+import model.GameSnapshot;
+
+/**
+ * Data Transfer Object for the opponents' fire forecast.
+ * Contains the points the opponents score each turn at the current fort damage,
+ * and how many more missed turns it takes them to win (-1 if they never will).
+ */
+public class ApiForecastDTO {
+    public int opponentPointsPerTurn;
+    public int pointsNeededToWin;
+    public int turnsUntilOpponentsWin;
+
+    public static ApiForecastDTO makeFromSnapshot(GameSnapshot snapshot) {
+        ApiForecastDTO dto = new ApiForecastDTO();
+        dto.opponentPointsPerTurn = snapshot.getOpponentPointsPerTurn();
+        dto.pointsNeededToWin = snapshot.getPointsNeededToWin();
+        dto.turnsUntilOpponentsWin = snapshot.getTurnsUntilOpponentsWin();
+        return dto;
+    }
+}
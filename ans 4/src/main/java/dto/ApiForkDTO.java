@@ -0,0 +1,19 @@
+package dto;
+
+import model.GameSnapshot;
+
+/**
+ * Data Transfer Object for a sandbox forked from a game.
+ * Contains the fork's id and the state of its game in the same form as ApiGameDTO.
+ */
+public class ApiForkDTO {
+    public int forkId;
+    public ApiGameDTO game;
+
+    public static ApiForkDTO makeFromSnapshot(int forkId, int gameNumber, GameSnapshot snapshot) {
+        ApiForkDTO dto = new ApiForkDTO();
+        dto.forkId = forkId;
+        dto.game = ApiGameDTO.makeFromSnapshot(snapshot, gameNumber);
+        return dto;
+    }
+}
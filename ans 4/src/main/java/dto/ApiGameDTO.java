@@ -1,6 +1,7 @@
 package dto;
 
 import model.GameEngine;
+import model.GameSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,5 +42,15 @@ public class ApiGameDTO {
         
         return dto;
     }
-}
 
+    public static ApiGameDTO makeFromSnapshot(GameSnapshot snapshot, int gameNumber) {
+        ApiGameDTO dto = new ApiGameDTO();
+        dto.gameNumber = gameNumber;
+        dto.isGameWon = snapshot.getGameState() == GameEngine.GameState.PLAYER_WON;
+        dto.isGameLost = snapshot.getGameState() == GameEngine.GameState.OPPONENTS_WON;
+        dto.opponentPoints = snapshot.getTotalScore();
+        dto.numActiveOpponentForts = snapshot.getNumActiveOpponentForts();
+        dto.lastOpponentPoints = snapshot.getLastOpponentScores();
+        return dto;
+    }
+}
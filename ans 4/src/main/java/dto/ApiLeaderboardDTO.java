@@ -0,0 +1,30 @@
+package dto;
+
+import runtime.Leaderboard;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object for the leaderboard.
+ * Contains the best won games for each ranking, best first.
+ */
+public class ApiLeaderboardDTO {
+    public List<ApiLeaderboardEntryDTO> fewestShots;
+    public List<ApiLeaderboardEntryDTO> lowestOpponentPoints;
+
+    public static ApiLeaderboardDTO makeFromStandings(Leaderboard.Standings standings) {
+        ApiLeaderboardDTO dto = new ApiLeaderboardDTO();
+        dto.fewestShots = makeEntries(standings.get(Leaderboard.Ranking.FEWEST_SHOTS));
+        dto.lowestOpponentPoints = makeEntries(standings.get(Leaderboard.Ranking.LOWEST_OPPONENT_POINTS));
+        return dto;
+    }
+
+    private static List<ApiLeaderboardEntryDTO> makeEntries(List<Leaderboard.Entry> entries) {
+        List<ApiLeaderboardEntryDTO> dtoList = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            dtoList.add(ApiLeaderboardEntryDTO.makeFromEntry(entries.get(i), i + 1));
+        }
+        return dtoList;
+    }
+}
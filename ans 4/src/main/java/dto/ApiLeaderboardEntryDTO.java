@@ -0,0 +1,23 @@
+package dto;
+
+import runtime.Leaderboard;
+
+/**
+ * Data Transfer Object for one game on the leaderboard.
+ * Contains its rank, game number, the shots the player needed and the opponents' points at victory.
+ */
+public class ApiLeaderboardEntryDTO {
+    public int rank;
+    public int gameNumber;
+    public int shotsFired;
+    public int opponentPoints;
+
+    public static ApiLeaderboardEntryDTO makeFromEntry(Leaderboard.Entry entry, int rank) {
+        ApiLeaderboardEntryDTO dto = new ApiLeaderboardEntryDTO();
+        dto.rank = rank;
+        dto.gameNumber = entry.getGameNumber();
+        dto.shotsFired = entry.getShotsFired();
+        dto.opponentPoints = entry.getOpponentPoints();
+        return dto;
+    }
+}
@@ -0,0 +1,10 @@
+package dto;
+
+/**
+ * Data Transfer Object for a shot in a multiplayer game.
+ * Contains the name of the player firing and the coordinate string (e.g., "B5").
+ */
+public class ApiMultiplayerShotRequestDTO {
+    public String player;
+    public String shot;
+}
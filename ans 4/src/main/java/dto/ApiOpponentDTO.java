@@ -1,5 +1,6 @@
 package dto;
 
+import model.GameSnapshot;
 import model.Opponent;
 
 import java.util.ArrayList;
@@ -19,7 +20,7 @@ public class ApiOpponentDTO {
     public static ApiOpponentDTO makeFromOpponent(Opponent opponent) {
         ApiOpponentDTO dto = new ApiOpponentDTO();
         dto.opponentId = opponent.getOpponentId();
-        dto.fortId = opponent.getFort().getFortId();
+        dto.fortId = opponent.getFortId();
         dto.undamagedCellCount = opponent.getUndamagedCellCount();
         dto.totalCellCount = opponent.getTotalCellCount();
         dto.isDestroyed = opponent.isDestroyed();
@@ -33,6 +34,21 @@ public class ApiOpponentDTO {
         }
         return dtoList;
     }
+
+    public static List<ApiOpponentDTO> makeFromSnapshot(GameSnapshot snapshot) {
+        List<ApiOpponentDTO> dtoList = new ArrayList<>();
+        for (int i = 0; i < snapshot.getNumOpponents(); i++) {
+            GameSnapshot.OpponentSnapshot opponent = snapshot.getOpponent(i);
+            ApiOpponentDTO dto = new ApiOpponentDTO();
+            dto.opponentId = opponent.getOpponentId();
+            dto.fortId = opponent.getFortId();
+            dto.undamagedCellCount = opponent.getUndamagedCellCount();
+            dto.totalCellCount = opponent.getTotalCellCount();
+            dto.isDestroyed = opponent.isDestroyed();
+            dtoList.add(dto);
+        }
+        return dtoList;
+    }
 }
 
 
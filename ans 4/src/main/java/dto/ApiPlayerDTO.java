@@ -0,0 +1,36 @@
+package dto;
+
+import runtime.MultiplayerSession;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Data Transfer Object for one player of a multiplayer game.
+ * Contains the player's name, shots fired and the hits their shots were first to make.
+ */
+public class ApiPlayerDTO {
+    public String player;
+    public long shotsFired;
+    public long hits;
+
+    public static ApiPlayerDTO makeFromStats(MultiplayerSession.PlayerStats stats) {
+        ApiPlayerDTO dto = new ApiPlayerDTO();
+        dto.player = stats.getName();
+        dto.shotsFired = stats.getShotsFired();
+        dto.hits = stats.getHits();
+        return dto;
+    }
+
+    // Most hits first
+    public static List<ApiPlayerDTO> makeFromSession(MultiplayerSession session) {
+        List<ApiPlayerDTO> dtoList = new ArrayList<>();
+        for (MultiplayerSession.PlayerStats stats : session.getPlayers()) {
+            dtoList.add(makeFromStats(stats));
+        }
+        dtoList.sort(Comparator.comparingLong((ApiPlayerDTO dto) -> dto.hits).reversed()
+                .thenComparing(dto -> dto.player));
+        return dtoList;
+    }
+}
@@ -1,5 +1,6 @@
 package dto;
 
+import model.GameSnapshot;
 import model.ScoreBoard;
 
 /**
@@ -20,6 +21,15 @@ public class ApiScoreBoardDTO {
         dto.turnCount = scoreBoard.getTurnCount();
         return dto;
     }
+
+    public static ApiScoreBoardDTO makeFromSnapshot(GameSnapshot snapshot) {
+        ApiScoreBoardDTO dto = new ApiScoreBoardDTO();
+        dto.totalScore = snapshot.getTotalScore();
+        dto.winningScore = snapshot.getWinningScore();
+        dto.pointsNeededToWin = snapshot.getPointsNeededToWin();
+        dto.turnCount = snapshot.getTurnCount();
+        return dto;
+    }
 }
 
 
@@ -0,0 +1,40 @@
+package dto;
+
+import runtime.GameStatistics;
+
+/**
+ * Data Transfer Object for the statistics over all games on this server.
+ */
+public class ApiStatsDTO {
+    public long gamesCreated;
+    public long gamesInProgress;
+    public long gamesWon;
+    public long gamesLost;
+    public long shotsFired;
+    public long hits;
+    public double averageShotsToWin;
+    public long gamesResident;
+    public long gamesHibernated;
+    public long hibernatedBytes;
+    public long rehydrations;
+    public double averageRehydrationMicros;
+    public double maxRehydrationMicros;
+
+    public static ApiStatsDTO makeFromStatistics(GameStatistics statistics) {
+        ApiStatsDTO dto = new ApiStatsDTO();
+        dto.gamesCreated = statistics.getGamesCreated();
+        dto.gamesInProgress = statistics.getGamesInProgress();
+        dto.gamesWon = statistics.getGamesWon();
+        dto.gamesLost = statistics.getGamesLost();
+        dto.shotsFired = statistics.getShotsFired();
+        dto.hits = statistics.getHits();
+        dto.averageShotsToWin = statistics.getAverageShotsToWin();
+        dto.gamesHibernated = statistics.getGamesHibernated();
+        dto.gamesResident = dto.gamesInProgress + dto.gamesWon + dto.gamesLost - dto.gamesHibernated;
+        dto.hibernatedBytes = statistics.getHibernatedBytes();
+        dto.rehydrations = statistics.getRehydrations();
+        dto.averageRehydrationMicros = statistics.getAverageRehydrationMicros();
+        dto.maxRehydrationMicros = statistics.getMaxRehydrationMicros();
+        return dto;
+    }
+}
@@ -0,0 +1,386 @@
+package dto;
+
+import model.Cell;
+import model.GameEngine;
+import model.GameSnapshot;
+import model.TileIndex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Writes the JSON for the hot game responses straight from a GameSnapshot.
+ * Produces exactly the bytes Jackson produces for ApiGameDTO, ApiBoardDTO, ApiOpponentDTO and
+ * ApiScoreBoardDTO, without building the DTOs (or the board's String[][]) first.
+ * Any other DTO can be written with writeDto, which needs no Jackson on the classpath but is not fast.
+ * Board cells are written a tile at a time: tiles whose cells all look the same (see TileIndex) are written
+ * without reading their cells, and large boards are written in parallel, one band of tile rows per task.
+ * A writer is not thread safe; it can be reused after calling reset().
+ */
+public class GameJsonWriter {
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] FOG = ascii("\"fog\"");
+    private static final byte[] HIT = ascii("\"hit\"");
+    private static final byte[] MISS = ascii("\"miss\"");
+    private static final byte[] FORT = ascii("\"fort\"");
+    private static final byte[] FIELD = ascii("\"field\"");
+    private static final byte[] HEX_DIGITS = ascii("0123456789ABCDEF");
+    // Boards at least this wide are written in parallel, one band of tile rows per task
+    private static final int PARALLEL_BOARD_SIZE = 8 * TileIndex.TILE_SIZE;
+
+    private byte[] buffer;
+    private int length;
+
+    public GameJsonWriter() {
+        this(256);
+    }
+
+    public GameJsonWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+        this.length = 0;
+    }
+
+    // Same output as Jackson for ApiGameDTO.makeFromSnapshot(snapshot, gameNumber)
+    public GameJsonWriter writeGame(GameSnapshot snapshot, int gameNumber) {
+        writeRaw("{\"gameNumber\":").writeInt(gameNumber);
+        writeRaw(",\"isGameWon\":").writeBoolean(snapshot.getGameState() == GameEngine.GameState.PLAYER_WON);
+        writeRaw(",\"isGameLost\":").writeBoolean(snapshot.getGameState() == GameEngine.GameState.OPPONENTS_WON);
+        writeRaw(",\"opponentPoints\":").writeInt(snapshot.getTotalScore());
+        writeRaw(",\"numActiveOpponentForts\":").writeInt(snapshot.getNumActiveOpponentForts());
+        writeRaw(",\"lastOpponentPoints\":[");
+        int[] lastScores = snapshot.getLastOpponentScores();
+        for (int i = 0; i < lastScores.length; i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeInt(lastScores[i]);
+        }
+        return writeRaw("]}");
+    }
+
+    // Same output as Jackson for ApiBoardDTO.makeFromSnapshot(snapshot, cheatMode)
+    public GameJsonWriter writeBoard(GameSnapshot snapshot, boolean cheatMode) {
+        int boardSize = snapshot.getBoardSize();
+        ensureCapacity(boardSize * boardSize * 8 + 64);
+        writeRaw("{\"boardWidth\":").writeInt(boardSize);
+        writeRaw(",\"boardHeight\":").writeInt(boardSize);
+        writeRaw(",\"cellStates\":[");
+        if (boardSize < PARALLEL_BOARD_SIZE || Runtime.getRuntime().availableProcessors() == 1) {
+            writeRows(snapshot, cheatMode, 0, boardSize, 0, boardSize);
+            return writeRaw("]}");
+        }
+
+        List<GameJsonWriter> bands = IntStream.range(0, snapshot.getTileIndex().getTilesPerSide())
+                .parallel()
+                .mapToObj(band -> {
+                    int fromRow = band * TileIndex.TILE_SIZE;
+                    int toRow = Math.min(fromRow + TileIndex.TILE_SIZE, boardSize);
+                    GameJsonWriter json = new GameJsonWriter((toRow - fromRow) * boardSize * 8 + 16);
+                    return json.writeRows(snapshot, cheatMode, fromRow, toRow, 0, boardSize);
+                })
+                .toList();
+        for (int band = 0; band < bands.size(); band++) {
+            if (band > 0) {
+                writeByte(',');
+            }
+            GameJsonWriter json = bands.get(band);
+            ensureCapacity(json.length);
+            System.arraycopy(json.buffer, 0, buffer, length, json.length);
+            length += json.length;
+        }
+        return writeRaw("]}");
+    }
+
+    /**
+     * Same output as Jackson for ApiBoardRegionDTO.makeFromSnapshot(snapshot, cheatMode, row, col, height, width).
+     * The region must lie on the board.
+     */
+    public GameJsonWriter writeBoardRegion(GameSnapshot snapshot, boolean cheatMode,
+            int row, int col, int height, int width) {
+        ensureCapacity(height * width * 8 + 128);
+        writeRaw("{\"boardWidth\":").writeInt(snapshot.getBoardSize());
+        writeRaw(",\"boardHeight\":").writeInt(snapshot.getBoardSize());
+        writeRaw(",\"row\":").writeInt(row);
+        writeRaw(",\"col\":").writeInt(col);
+        writeRaw(",\"height\":").writeInt(height);
+        writeRaw(",\"width\":").writeInt(width);
+        writeRaw(",\"cellStates\":[");
+        writeRows(snapshot, cheatMode, row, row + height, col, width);
+        return writeRaw("]}");
+    }
+
+    // Writes rows [fromRow, toRow) of the columns [col, col + width) as comma separated JSON arrays
+    private GameJsonWriter writeRows(GameSnapshot snapshot, boolean cheatMode, int fromRow, int toRow,
+            int col, int width) {
+        TileIndex tiles = snapshot.getTileIndex();
+        int endCol = col + width;
+        for (int row = fromRow; row < toRow; row++) {
+            if (row > fromRow) {
+                writeByte(',');
+            }
+            writeByte('[');
+            int tileRow = row / TileIndex.TILE_SIZE;
+            for (int tileStart = col; tileStart < endCol; ) {
+                int tileCol = tileStart / TileIndex.TILE_SIZE;
+                int tileEnd = Math.min((tileCol + 1) * TileIndex.TILE_SIZE, endCol);
+                byte[] uniform = uniformCellState(tiles, tileRow, tileCol, cheatMode);
+                for (int c = tileStart; c < tileEnd; c++) {
+                    if (c > col) {
+                        writeByte(',');
+                    }
+                    writeBytes(uniform != null ? uniform : cellState(snapshot, row, c, cheatMode));
+                }
+                tileStart = tileEnd;
+            }
+            writeByte(']');
+        }
+        return this;
+    }
+
+    // The state every cell of the tile shows, or null when they differ
+    private static byte[] uniformCellState(TileIndex tiles, int tileRow, int tileCol, boolean cheatMode) {
+        int cells = tiles.getCellCount(tileRow, tileCol);
+        int shot = tiles.getShotCells(tileRow, tileCol);
+        int forts = tiles.getFortCells(tileRow, tileCol);
+        if (shot == 0) {
+            if (!cheatMode) {
+                return FOG;
+            }
+            return forts == 0 ? FIELD : forts == cells ? FORT : null;
+        }
+        if (shot == cells) {
+            return forts == 0 ? MISS : forts == cells ? HIT : null;
+        }
+        return null;
+    }
+
+    // Same output as Jackson for ApiOpponentDTO.makeFromSnapshot(snapshot)
+    public GameJsonWriter writeOpponents(GameSnapshot snapshot) {
+        writeByte('[');
+        for (int i = 0; i < snapshot.getNumOpponents(); i++) {
+            GameSnapshot.OpponentSnapshot opponent = snapshot.getOpponent(i);
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeRaw("{\"opponentId\":").writeString(opponent.getOpponentId());
+            writeRaw(",\"fortId\":").writeString(opponent.getFortId());
+            writeRaw(",\"undamagedCellCount\":").writeInt(opponent.getUndamagedCellCount());
+            writeRaw(",\"totalCellCount\":").writeInt(opponent.getTotalCellCount());
+            writeRaw(",\"isDestroyed\":").writeBoolean(opponent.isDestroyed());
+            writeByte('}');
+        }
+        return writeRaw("]");
+    }
+
+    // Same output as Jackson for ApiScoreBoardDTO.makeFromSnapshot(snapshot)
+    public GameJsonWriter writeScoreBoard(GameSnapshot snapshot) {
+        writeRaw("{\"totalScore\":").writeInt(snapshot.getTotalScore());
+        writeRaw(",\"winningScore\":").writeInt(snapshot.getWinningScore());
+        writeRaw(",\"pointsNeededToWin\":").writeInt(snapshot.getPointsNeededToWin());
+        writeRaw(",\"turnCount\":").writeInt(snapshot.getTurnCount());
+        return writeRaw("}");
+    }
+
+    /**
+     * Same output as Jackson for a DTO of this package, or a list or array of them: public fields in declaration
+     * order, holding numbers, booleans, strings, arrays, lists and other DTOs. Found by reflection, so it is
+     * meant for the rarely used responses of servers running without Jackson.
+     */
+    public GameJsonWriter writeDto(Object value) {
+        if (value == null) {
+            return writeRaw("null");
+        } else if (value instanceof String text) {
+            return writeString(text);
+        } else if (value instanceof Boolean bool) {
+            return writeBoolean(bool);
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            // Jackson quotes NaN and the infinities
+            return Double.isFinite(number) ? writeRaw(value.toString()) : writeString(value.toString());
+        } else if (value instanceof Number) {
+            return writeRaw(value.toString());
+        } else if (value instanceof Iterable<?> items) {
+            writeByte('[');
+            boolean isFirst = true;
+            for (Object item : items) {
+                if (!isFirst) {
+                    writeByte(',');
+                }
+                writeDto(item);
+                isFirst = false;
+            }
+            return writeByte(']');
+        } else if (value.getClass().isArray()) {
+            writeByte('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                if (i > 0) {
+                    writeByte(',');
+                }
+                writeDto(Array.get(value, i));
+            }
+            return writeByte(']');
+        }
+
+        writeByte('{');
+        boolean isFirst = true;
+        for (Field field : value.getClass().getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) || Modifier.isTransient(field.getModifiers())) {
+                continue;
+            }
+            if (!isFirst) {
+                writeByte(',');
+            }
+            writeString(field.getName()).writeByte(':');
+            try {
+                writeDto(field.get(value));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Unable to read " + field, e);
+            }
+            isFirst = false;
+        }
+        return writeByte('}');
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buffer, 0, length);
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public GameJsonWriter reset() {
+        length = 0;
+        return this;
+    }
+
+    // Writes a separator or other JSON punctuation between values written by the methods above
+    public GameJsonWriter writeRaw(String ascii) {
+        int count = ascii.length();
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            buffer[length++] = (byte) ascii.charAt(i);
+        }
+        return this;
+    }
+
+    public GameJsonWriter writeInt(int value) {
+        if (value == Integer.MIN_VALUE) {
+            return writeRaw(Integer.toString(value));
+        }
+        ensureCapacity(11);
+        if (value < 0) {
+            buffer[length++] = '-';
+            value = -value;
+        }
+        int start = length;
+        do {
+            buffer[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+
+        // digits were written backwards
+        for (int i = start, j = length - 1; i < j; i++, j--) {
+            byte digit = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = digit;
+        }
+        return this;
+    }
+
+    public GameJsonWriter writeBoolean(boolean value) {
+        return writeBytes(value ? TRUE : FALSE);
+    }
+
+    // Writes a quoted string, escaped the same way Jackson escapes it; null is written as null
+    public GameJsonWriter writeString(String value) {
+        if (value == null) {
+            return writeRaw("null");
+        }
+        writeByte('"');
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // encode the whole non-ASCII run at once so surrogate pairs stay together
+                int end = i + 1;
+                while (end < value.length() && value.charAt(end) >= 0x80) {
+                    end++;
+                }
+                writeBytes(value.substring(i, end).getBytes(StandardCharsets.UTF_8));
+                i = end;
+                continue;
+            }
+            if (c == '"' || c == '\\') {
+                writeByte('\\').writeByte(c);
+            } else if (c < 0x20) {
+                writeControlEscape(c);
+            } else {
+                writeByte(c);
+            }
+            i++;
+        }
+        return writeByte('"');
+    }
+
+    private void writeControlEscape(char c) {
+        switch (c) {
+            case '\b' -> writeRaw("\\b");
+            case '\t' -> writeRaw("\\t");
+            case '\n' -> writeRaw("\\n");
+            case '\f' -> writeRaw("\\f");
+            case '\r' -> writeRaw("\\r");
+            default -> {
+                writeRaw("\\u00");
+                writeByte(HEX_DIGITS[c >> 4]).writeByte(HEX_DIGITS[c & 0xF]);
+            }
+        }
+    }
+
+    private static byte[] cellState(GameSnapshot snapshot, int row, int col, boolean cheatMode) {
+        Cell.CellState state = snapshot.getCellState(row, col);
+        if (state == Cell.CellState.HIT) {
+            return HIT;
+        } else if (state == Cell.CellState.MISS) {
+            return MISS;
+        } else if (cheatMode) {
+            return snapshot.isFortCell(row, col) ? FORT : FIELD;
+        }
+        return FOG;
+    }
+
+    private GameJsonWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) value;
+        return this;
+    }
+
+    private GameJsonWriter writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, length, bytes.length);
+        length += bytes.length;
+        return this;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
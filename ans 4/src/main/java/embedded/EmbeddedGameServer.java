@@ -0,0 +1,91 @@
+package embedded;
+
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpServer;
+import runtime.GameStatistics;
+import runtime.Leaderboard;
+import runtime.ShardedGameRegistry;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the game API (see GameApiHandler) on the JDK's built-in HTTP server, without Spring, Tomcat or Jackson,
+ * for small edge deployments. It needs nothing but this project's classes:
+ * java -cp target/classes embedded.EmbeddedGameServer [port] [threads] [shards]
+ * Games live in the same ShardedGameRegistry as in the Spring Boot app, configured with its default settings.
+ * Game creation and shots are rate limited per client like in the Spring Boot app; the limits are read from
+ * the system properties of the same names (e.g. -Dadmission.shots.per-second=100), -Dadmission.enabled=false
+ * turns them off. Not included: the web UI, multiplayer, sandboxes, cluster mode, the in-flight request cap
+ * (the fixed thread pool bounds it instead) and real-time games.
+ */
+public class EmbeddedGameServer {
+    private static final long HIBERNATION_IDLE_SECONDS = 1800;
+    private static final long HIBERNATION_SWEEP_SECONDS = 60;
+    private static final int LEADERBOARD_SIZE = 10;
+    // Read once, when the first HttpServer is created. Without TCP_NODELAY the separately written headers and
+    // body of a response wait on the client's delayed ACK, adding about 40 ms to every request
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final ShardedGameRegistry registry;
+    private final ExecutorService executor;
+    private final HttpServer server;
+
+    // threads handle requests, waiting while a shard runs their game's update; 0 shards means one per core
+    public EmbeddedGameServer(int port, int numThreads, int numShards) throws IOException {
+        GameStatistics statistics = new GameStatistics();
+        Leaderboard leaderboard = new Leaderboard(LEADERBOARD_SIZE);
+        this.registry = new ShardedGameRegistry(numShards, HIBERNATION_IDLE_SECONDS, HIBERNATION_SWEEP_SECONDS,
+                List.of(statistics, leaderboard));
+        this.executor = Executors.newFixedThreadPool(numThreads);
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        HttpContext api = server.createContext("/api", new GameApiHandler(registry, statistics, leaderboard));
+        if (Boolean.parseBoolean(System.getProperty("admission.enabled", "true"))) {
+            api.getFilters().add(new RateLimitFilter(
+                    doubleProperty("admission.create.per-second", 2),
+                    Integer.getInteger("admission.create.burst", 20),
+                    Integer.getInteger("admission.create.cells-per-token", 65536),
+                    doubleProperty("admission.shots.per-second", 50),
+                    Integer.getInteger("admission.shots.burst", 100)));
+        }
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        registry.shutdown();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int numThreads = args.length > 1 ? Integer.parseInt(args[1]) : 4 * Runtime.getRuntime().availableProcessors();
+        int numShards = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        EmbeddedGameServer server = new EmbeddedGameServer(port, numThreads, numShards);
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.printf("Game API listening on port %d (%d threads), started in %d ms%n",
+                server.getPort(), numThreads, ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+}
@@ -0,0 +1,311 @@
+package embedded;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import dto.ApiLocationDTO;
+import dto.ApiShotRequestDTO;
+import dto.GameJsonWriter;
+import runtime.GameApi;
+import runtime.GameStatistics;
+import runtime.Leaderboard;
+import runtime.ShardedGameRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Serves the /api endpoints of controller.GameController on the JDK's HttpServer, with the same paths,
+ * parameters, status codes and JSON bodies; both answer requests through runtime.GameApi. Error responses
+ * have no body, and real-time games are refused since there is no RealTimeClock to drive them.
+ */
+final class GameApiHandler implements HttpHandler {
+    private static final String GAMES_PATH = "/api/games/";
+    private static final String JSON = "application/json";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String TEXT = "text/plain;charset=UTF-8";
+    private static final String NO_CACHE = "no-cache";
+    private static final String FINISHED_GAME_CACHING = "max-age=" + GameApi.FINISHED_GAME_MAX_AGE_SECONDS;
+
+    private final GameApi api;
+
+    GameApiHandler(ShardedGameRegistry registry, GameStatistics statistics, Leaderboard leaderboard) {
+        this.api = new GameApi(registry, statistics, leaderboard, false);
+    }
+
+    // A status code and optional body; streamed responses write their own
+    private record Response(int status, String contentType, String cacheControl, String nextCursor, String eTag,
+            byte[] body) {
+        static Response status(int status) {
+            return new Response(status, null, null, null, null, null);
+        }
+
+        // A DTO result written as JSON, or just its status when it has no body
+        static Response json(GameApi.Result<?> result) {
+            return result.body() == null ? status(result.status())
+                    : new Response(result.status(), JSON, null, null, null,
+                            new GameJsonWriter().writeDto(result.body()).toByteArray());
+        }
+
+        // A read response with its ETag (see send for If-None-Match)
+        static Response cached(GameApi.Result<GameApi.CachedResponse> result) {
+            GameApi.CachedResponse response = result.body();
+            return response == null ? status(result.status())
+                    : new Response(result.status(), JSON, response.isFinal() ? FINISHED_GAME_CACHING : NO_CACHE,
+                            null, response.eTag(), response.json());
+        }
+    }
+
+    // Thrown for requests Spring would reject before reaching the controller, answered with 400
+    private static final class BadRequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        BadRequestException(String message) {
+            super(message);
+        }
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                response = route(exchange);
+            } catch (BadRequestException e) {
+                response = Response.status(400);
+            } catch (RuntimeException e) {
+                response = Response.status(500);
+            }
+            if (response != null) {
+                send(exchange, response);
+            }
+        }
+    }
+
+    // Returns null when the response has already been streamed
+    private Response route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getRawPath();
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+
+        switch (path) {
+            case "/api/about":
+                return isGet(method) ? new Response(200, TEXT, null, null, null, ascii(GameApi.ABOUT))
+                        : Response.status(405);
+            case "/api/games":
+                if ("POST".equals(method)) {
+                    return Response.json(api.createGame(query.get("mode"), optionalInt(query, "boardSize")));
+                } else if (!isGet(method)) {
+                    return Response.status(405);
+                }
+                String accept = exchange.getRequestHeaders().getFirst("Accept");
+                return accept != null && accept.contains(NDJSON) ? streamAllGames(exchange, query) : getAllGames(query);
+            case "/api/stats":
+                return isGet(method) ? Response.json(api.getStats()) : Response.status(405);
+            case "/api/leaderboard":
+                return isGet(method) ? Response.json(api.getLeaderboard()) : Response.status(405);
+            default:
+                break;
+        }
+        if ("/api/games/bulk".equals(path) && "POST".equals(method)) {
+            return Response.json(api.createGames(requiredInt(query, "count"), optionalLong(query, "seed")));
+        }
+        if (!path.startsWith(GAMES_PATH)) {
+            return Response.status(404);
+        }
+
+        // /api/games/{gameNumber} and the paths below it
+        String rest = path.substring(GAMES_PATH.length());
+        int slash = rest.indexOf('/');
+        String number = slash < 0 ? rest : rest.substring(0, slash);
+        String endpoint = slash < 0 ? "" : rest.substring(slash);
+
+        String expectedMethod = switch (endpoint) {
+            case "", "/board", "/board/region", "/opponents", "/scoreboard", "/forecast" -> "GET";
+            case "/cheatstate", "/moves", "/shots", "/fastforward" -> "POST";
+            default -> null;
+        };
+        if (expectedMethod == null) {
+            return Response.status(404);
+        } else if (!expectedMethod.equals(method)) {
+            return Response.status(405);
+        }
+
+        int gameNumber = parseInt(number);
+        return switch (endpoint) {
+            case "" -> Response.cached(api.getGame(gameNumber));
+            case "/board" -> Response.cached(api.getBoard(gameNumber));
+            case "/board/region" -> getBoardRegion(gameNumber, query);
+            case "/opponents" -> Response.cached(api.getOpponents(gameNumber));
+            case "/scoreboard" -> Response.cached(api.getScoreboard(gameNumber));
+            case "/forecast" -> Response.json(api.getForecast(gameNumber));
+            case "/cheatstate" -> Response.json(api.setCheatState(gameNumber, readBody(exchange)));
+            case "/moves" -> Response.json(api.processMove(gameNumber, readLocation(readBody(exchange))));
+            case "/shots" -> Response.json(api.processShot(gameNumber, readShotRequest(readBody(exchange))));
+            default -> Response.json(api.fastForward(gameNumber, optionalInt(query, "turns")));
+        };
+    }
+
+    private Response getAllGames(Map<String, String> query) {
+        GameApi.Result<GameApi.GamePage> result = api.listGames(optionalInt(query, "cursor"),
+                optionalInt(query, "limit"), query.get("state"));
+        GameApi.GamePage page = result.body();
+        return page == null ? Response.status(result.status())
+                : new Response(result.status(), JSON, null, page.nextCursor(), null, page.json());
+    }
+
+    // Same listing as NDJSON, written with chunked encoding a page at a time
+    private Response streamAllGames(HttpExchange exchange, Map<String, String> query) throws IOException {
+        GameApi.Result<GameApi.GameStream> result = api.streamGames(optionalInt(query, "cursor"),
+                optionalInt(query, "limit"), query.get("state"));
+        if (result.body() == null) {
+            return Response.status(result.status());
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", NDJSON);
+        exchange.sendResponseHeaders(result.status(), 0);
+        result.body().writeTo(exchange.getResponseBody());
+        return null;
+    }
+
+    private Response getBoardRegion(int gameNumber, Map<String, String> query) {
+        GameApi.Result<byte[]> result = api.getBoardRegion(gameNumber, requiredInt(query, "row"),
+                requiredInt(query, "col"), requiredInt(query, "height"), requiredInt(query, "width"));
+        return result.body() == null ? Response.status(result.status())
+                : new Response(result.status(), JSON, NO_CACHE, null, null, result.body());
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        if (response.contentType() != null) {
+            headers.set("Content-Type", response.contentType());
+        }
+        if (response.cacheControl() != null) {
+            headers.set("Cache-Control", response.cacheControl());
+        }
+        if (response.nextCursor() != null) {
+            headers.set("X-Next-Cursor", response.nextCursor());
+        }
+        if (response.eTag() != null) {
+            headers.set("ETag", response.eTag());
+            // Spring answers 304 the same way, comparing the whole If-None-Match header
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+            if (response.status() == 200 && ifNoneMatch != null
+                    && (ifNoneMatch.equals("*") || ifNoneMatch.contains(response.eTag()))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        exchange.sendResponseHeaders(response.status(), response.body().length);
+        exchange.getResponseBody().write(response.body());
+    }
+
+    private static boolean isGet(String method) {
+        return "GET".equals(method);
+    }
+
+    // Like a @RequestBody: an empty body is rejected
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            if (body.isEmpty()) {
+                throw new BadRequestException("Request body is missing");
+            }
+            return body;
+        }
+    }
+
+    private static Map<String, Object> readObject(String body) {
+        try {
+            return JsonRequestReader.readObject(body);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    private static ApiLocationDTO readLocation(String body) {
+        Map<String, Object> fields = readObject(body);
+        ApiLocationDTO location = new ApiLocationDTO();
+        location.row = toInt(fields.get("row"));
+        location.col = toInt(fields.get("col"));
+        return location;
+    }
+
+    private static ApiShotRequestDTO readShotRequest(String body) {
+        Object shot = readObject(body).get("shot");
+        ApiShotRequestDTO request = new ApiShotRequestDTO();
+        request.shot = shot == null ? null : shot.toString();
+        return request;
+    }
+
+    // Numbers, numeric strings and null (as 0) are accepted for int fields, as Jackson does
+    private static int toInt(Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof Long number && number == number.intValue()) {
+            return number.intValue();
+        } else if (value instanceof Double number && Math.abs(number) <= Integer.MAX_VALUE) {
+            return number.intValue();
+        } else if (value instanceof String text) {
+            return parseInt(text.trim());
+        }
+        throw new BadRequestException("Not an int: " + value);
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+            String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+            // the first value wins, as with @RequestParam
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+
+    private static Integer optionalInt(Map<String, String> query, String name) {
+        String value = query.get(name);
+        return value == null || value.isEmpty() ? null : parseInt(value);
+    }
+
+    private static Long optionalLong(Map<String, String> query, String name) {
+        String value = query.get(name);
+        try {
+            return value == null || value.isEmpty() ? null : Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Not a long: " + value);
+        }
+    }
+
+    private static int requiredInt(Map<String, String> query, String name) {
+        Integer value = optionalInt(query, name);
+        if (value == null) {
+            throw new BadRequestException(name + " is required");
+        }
+        return value;
+    }
+
+    private static int parseInt(String text) {
+        try {
+            return Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Not an int: " + text);
+        }
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,151 @@
+package embedded;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the small request bodies of the game API: one flat JSON object of strings, numbers, booleans and nulls,
+ * such as {"shot":"B5"} or {"row":1,"col":4}. Nested objects and arrays are rejected.
+ * Strings come back as String, numbers as Long or Double, and null as null.
+ */
+final class JsonRequestReader {
+    private final String text;
+    private int pos;
+
+    private JsonRequestReader(String text) {
+        this.text = text;
+    }
+
+    // The object's fields by name; throws IllegalArgumentException if the body is not such an object
+    static Map<String, Object> readObject(String text) {
+        JsonRequestReader reader = new JsonRequestReader(text);
+        Map<String, Object> fields = reader.object();
+        reader.skipWhitespace();
+        if (reader.pos != text.length()) {
+            throw reader.error("Unexpected content after the object");
+        }
+        return fields;
+    }
+
+    private Map<String, Object> object() {
+        Map<String, Object> fields = new HashMap<>();
+        expect('{');
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return fields;
+        }
+        while (true) {
+            skipWhitespace();
+            String name = string();
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            fields.put(name, value());
+            skipWhitespace();
+            char next = next();
+            if (next == '}') {
+                return fields;
+            } else if (next != ',') {
+                throw error("Expected , or }");
+            }
+        }
+    }
+
+    private Object value() {
+        char c = peek();
+        if (c == '"') {
+            return string();
+        } else if (c == '-' || (c >= '0' && c <= '9')) {
+            return number();
+        } else if (text.startsWith("true", pos)) {
+            pos += 4;
+            return Boolean.TRUE;
+        } else if (text.startsWith("false", pos)) {
+            pos += 5;
+            return Boolean.FALSE;
+        } else if (text.startsWith("null", pos)) {
+            pos += 4;
+            return null;
+        }
+        throw error("Unsupported value");
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            char c = next();
+            if (c == '"') {
+                return value.toString();
+            } else if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            char escaped = next();
+            switch (escaped) {
+                case '"', '\\', '/' -> value.append(escaped);
+                case 'b' -> value.append('\b');
+                case 'f' -> value.append('\f');
+                case 'n' -> value.append('\n');
+                case 'r' -> value.append('\r');
+                case 't' -> value.append('\t');
+                case 'u' -> {
+                    if (pos + 4 > text.length()) {
+                        throw error("Truncated escape");
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid escape");
+                    }
+                    pos += 4;
+                }
+                default -> throw error("Invalid escape");
+            }
+        }
+    }
+
+    private Number number() {
+        int start = pos;
+        while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) {
+            pos++;
+        }
+        String digits = text.substring(start, pos);
+        try {
+            boolean isIntegral = digits.indexOf('.') < 0 && digits.indexOf('e') < 0 && digits.indexOf('E') < 0;
+            return isIntegral ? (Number) Long.parseLong(digits) : (Number) Double.parseDouble(digits);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number");
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private void expect(char wanted) {
+        if (next() != wanted) {
+            throw error("Expected " + wanted);
+        }
+    }
+
+    private char peek() {
+        if (pos >= text.length()) {
+            throw error("Unexpected end");
+        }
+        return text.charAt(pos);
+    }
+
+    private char next() {
+        char c = peek();
+        pos++;
+        return c;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
@@ -0,0 +1,111 @@
+package embedded;
+
+import admission.ClientBuckets;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import runtime.GameApi;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The per-client budgets of admission.AdmissionControl for the embedded server: game creation (one token per
+ * game, more for large boards) and turns (shots, moves and fast-forwards), on the same GameApi paths and with
+ * the same defaults and Retry-After answers. Requests costing more than the whole burst get 429 without
+ * Retry-After. Clients are told apart by their remote address.
+ */
+final class RateLimitFilter extends Filter {
+    private final ClientBuckets creationBuckets;
+    private final ClientBuckets shotBuckets;
+    private final int cellsPerCreationToken;
+
+    RateLimitFilter(double createsPerSecond, int createBurst, int cellsPerCreationToken,
+            double shotsPerSecond, int shotBurst) {
+        this.creationBuckets = new ClientBuckets(createsPerSecond, createBurst);
+        this.shotBuckets = new ClientBuckets(shotsPerSecond, shotBurst);
+        this.cellsPerCreationToken = Math.max(cellsPerCreationToken, 1);
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            chain.doFilter(exchange);
+            return;
+        }
+
+        String path = exchange.getRequestURI().getRawPath();
+        ClientBuckets buckets;
+        int cost;
+        if (matchesAny(GameApi.CREATION_PATHS, path)) {
+            Map<String, String> query = GameApiHandler.parseQuery(exchange.getRequestURI().getRawQuery());
+            buckets = creationBuckets;
+            cost = GameApi.creationCost(intParameter(query, "count", 1),
+                    intParameter(query, "boardSize", model.Map.DEFAULT_BOARD_SIZE), cellsPerCreationToken);
+        } else if (matchesAny(GameApi.TURN_PATHS, path)) {
+            Map<String, String> query = GameApiHandler.parseQuery(exchange.getRequestURI().getRawQuery());
+            buckets = shotBuckets;
+            cost = GameApi.turnCost(path, query.get("turns"), shotBuckets.getBurst());
+        } else {
+            chain.doFilter(exchange);
+            return;
+        }
+
+        if (cost > buckets.getBurst()) {
+            reject(exchange, -1);
+            return;
+        }
+        String client = exchange.getRemoteAddress().getAddress().getHostAddress();
+        long waitNanos = buckets.tryAcquire(client, System.nanoTime(), cost);
+        if (waitNanos == 0) {
+            chain.doFilter(exchange);
+        } else {
+            reject(exchange, waitNanos);
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Per-client rate limits for game creation and shots";
+    }
+
+    // A negative waitNanos leaves out Retry-After, for requests that will never be admitted
+    private static void reject(HttpExchange exchange, long waitNanos) throws IOException {
+        try (exchange) {
+            if (waitNanos >= 0) {
+                exchange.getResponseHeaders().set("Retry-After",
+                        String.valueOf(ClientBuckets.retryAfterSeconds(waitNanos)));
+            }
+            exchange.sendResponseHeaders(429, -1);
+        }
+    }
+
+    // Matches the path against patterns in which * stands for exactly one non-empty path segment
+    static boolean matchesAny(List<String> patterns, String path) {
+        String[] segments = path.split("/", -1);
+        for (String pattern : patterns) {
+            String[] expected = pattern.split("/", -1);
+            boolean matches = expected.length == segments.length;
+            for (int i = 0; matches && i < expected.length; i++) {
+                matches = "*".equals(expected[i]) ? !segments[i].isEmpty() : expected[i].equals(segments[i]);
+            }
+            if (matches) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Malformed values are charged as the default and then rejected by GameApiHandler
+    private static int intParameter(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
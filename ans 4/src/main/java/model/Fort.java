@@ -1,8 +1,8 @@
 package model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Represents a single opponent fort on the game board.
@@ -13,12 +13,17 @@ public class Fort {
     private final String fortId;
     private final List<Cell> cells;
     private final List<Cell> undamagedCells; // brians note
+    // read-only views handed out by the getters, created once so reading never allocates
+    private final List<Cell> cellsView;
+    private final List<Cell> undamagedCellsView;
 
 
     public Fort(String fortId) {
         this.fortId = fortId;
         this.cells = new ArrayList<>();
         this.undamagedCells = new ArrayList<>();
+        this.cellsView = Collections.unmodifiableList(cells);
+        this.undamagedCellsView = Collections.unmodifiableList(undamagedCells);
     }
 
 
@@ -33,15 +38,34 @@ public class Fort {
         cell.setFortId(fortId);
     }
 
+    // Marks a cell as damaged without touching the cell itself, used when restoring saved games
+    void markDamaged(Cell cell) {
+        undamagedCells.remove(cell);
+    }
+
+    public boolean isCellDamaged(Cell cell) {
+        return cells.contains(cell) && !undamagedCells.contains(cell);
+    }
+
+    // Read-only live view of the fort's cells, callers that need a copy must make one
     public List<Cell> getCells() {
-        return cells.stream()
-                .collect(Collectors.toList());
+        return cellsView;
     }
 
 
+    // Read-only live view of the cells not yet hit
     public List<Cell> getUndamagedCells() {
-        return undamagedCells.stream()
-                .collect(Collectors.toList());
+        return undamagedCellsView;
+    }
+
+
+    public int getCellRow(int index) {
+        return cells.get(index).getRow();
+    }
+
+
+    public int getCellCol(int index) {
+        return cells.get(index).getCol();
     }
 
 
@@ -73,8 +97,11 @@ public class Fort {
 
 
     private int calculatePoints() {
-        int undamagedCount = getUndamagedCellCount();
+        return pointsFor(getUndamagedCellCount());
+    }
 
+    // Points a fort with this many undamaged cells scores each turn
+    static int pointsFor(int undamagedCount) {
         // Points based on undamaged cells (5=20, 4=20, 3=5, 2=2, 1=1, 0=0)
         switch (undamagedCount) {
             case 5:
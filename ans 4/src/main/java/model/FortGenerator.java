@@ -58,11 +58,12 @@ public class FortGenerator {
             for (int[] dir : directions) {
                 int newRow = cell.getRow() + dir[0];
                 int newCol = cell.getCol() + dir[1];
-                Cell candidate = new Cell(newRow, newCol);
 
-                // Check if this candidate is valid
-                if (!existingCells.contains(candidate)) {
-                    candidates.add(candidate);
+                // Check if this candidate is valid (Cell has no equals, so compare positions)
+                boolean isTaken = existingCells.stream()
+                        .anyMatch(existing -> existing.getRow() == newRow && existing.getCol() == newCol);
+                if (!isTaken) {
+                    candidates.add(new Cell(newRow, newCol));
                 }
             }
         }
@@ -1,5 +1,7 @@
 package model;
 
+import profiling.FortPlacementEvent;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
@@ -15,6 +17,7 @@ public class FortPlacer {
     private final FortGenerator generator;
     private final FortValidator validator;
     private final Random randomNumGen;
+    private int numPlacementAttempts;
 
     public FortPlacer() {
         this.generator = new FortGenerator();
@@ -22,6 +25,14 @@ public class FortPlacer {
         this.randomNumGen = new Random();
     }
 
+    // Places forts the same way every time for the same seed
+    public FortPlacer(long seed) {
+        Random seeds = new Random(seed);
+        this.generator = new FortGenerator(seeds.nextLong());
+        this.validator = new FortValidator();
+        this.randomNumGen = new Random(seeds.nextLong());
+    }
+
     // Places N forts on the map and set their ID, returns a list of Forts for the map
     public List<Fort> placeForts(Map map, int numOfForts) throws Exception {
         List<Fort> placedForts = new ArrayList<>();
@@ -39,12 +50,33 @@ public class FortPlacer {
         return placedForts;
     }
 
+    // Random positions tried so far, over all forts this placer has placed
+    public int getNumPlacementAttempts() {
+        return numPlacementAttempts;
+    }
+
     // attempts to place one fort on the map
     private Fort placeFort(Map map, String fortId, List<Fort> existingForts) {
+        FortPlacementEvent event = new FortPlacementEvent();
+        event.begin();
+        Fort fort = tryPlaceFort(map, fortId, existingForts, event);
+        if (event.shouldCommit()) {
+            event.fortId = fortId;
+            event.placed = fort != null;
+            event.commit();
+        }
+        return fort;
+    }
+
+    private Fort tryPlaceFort(Map map, String fortId, List<Fort> existingForts, FortPlacementEvent event) {
         int numOfAttempts = 0;
+        // existing forts don't change while this one is placed, so convert them once
+        List<List<Cell>> existingFortCells = convertFortsToLists(existingForts);
 
         while (numOfAttempts < MAX_PLACEMENT_ATTEMPTS) {
             numOfAttempts++;
+            numPlacementAttempts++;
+            event.attempts = numOfAttempts;
             // 1. using FortGenerator class to generate a fort in a random shape (shapeTemplate)
             List<Cell> shapeTemplate = generator.generateFortShape(fortId);
 
@@ -56,11 +88,10 @@ public class FortPlacer {
             List<Cell> actualMapCells = translateToMapCells(shapeTemplate, startRow, startCol, map);
 
             if (actualMapCells == null) {
+                event.outOfBounds++;
                 continue; // cell that we tried to place on map is out of bounds
             }
 
-
-            List<List<Cell>> existingFortCells = convertFortsToLists(existingForts);
             boolean isValid = validator.isValidPlacement(actualMapCells, existingFortCells, map.getBoardSize());
 
             if (!isValid) {
@@ -99,6 +130,7 @@ public class FortPlacer {
     }
 
     // Stream that takes a List<Fort> and converts it into a List<List<Cell>> for FortValidator
+    // (the lists are the forts' read-only views, no cells are copied)
     private List<List<Cell>> convertFortsToLists(List<Fort> forts) {
         return forts.stream()
                 .map(fort -> fort.getCells())
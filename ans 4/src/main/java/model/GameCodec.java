@@ -0,0 +1,164 @@
+package model;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Encodes a GameEngine into a compact byte array and rebuilds it again.
+ * Stores the fort layout, each fort's damaged cells, every cell's state, the score history,
+ * the game state, whether it is real-time and the shot counters, which is everything needed to continue
+ * the game somewhere else.
+ * Decoding checks every size, index and enum value, since encoded games also arrive from other nodes;
+ * malformed input fails with an IOException.
+ */
+public class GameCodec {
+    private static final int FORMAT_VERSION = 2; // 2 added the real-time flag
+    // Score runs allocated up front, more are added as they are read so a bogus count cannot exhaust memory
+    private static final int INITIAL_RUNS = 64;
+
+    private GameCodec() {
+    }
+
+    public static byte[] encode(GameEngine game) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            write(game, out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode game", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static GameEngine decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            return read(in);
+        }
+    }
+
+    public static void write(GameEngine game, DataOutputStream out) throws IOException {
+        Map map = game.getMap();
+        int boardSize = map.getBoardSize();
+        out.writeByte(FORMAT_VERSION);
+        out.writeShort(boardSize);
+
+        // 1. fort layout, with a damaged flag for every fort cell
+        List<Fort> forts = game.getForts();
+        out.writeByte(forts.size());
+        for (Fort fort : forts) {
+            out.writeUTF(fort.getFortId());
+            out.writeByte(fort.getTotalCellCount());
+            for (Cell cell : fort.getCells()) {
+                out.writeShort(cell.getRow());
+                out.writeShort(cell.getCol());
+                out.writeBoolean(fort.isCellDamaged(cell));
+            }
+        }
+
+        // 2. state of every cell, row by row
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                out.writeByte(map.getCellByRowCol(row, col).getState().ordinal());
+            }
+        }
+
+        // 3. score and game state
+        ScoreBoard scoreBoard = game.getScoreBoard();
+        out.writeInt(scoreBoard.getTotalScore());
+        out.writeInt(scoreBoard.getRunCount());
+        for (int run = 0; run < scoreBoard.getRunCount(); run++) {
+            out.writeInt(scoreBoard.getRunPoints(run));
+            out.writeInt(scoreBoard.getRunLength(run));
+        }
+        out.writeByte(game.getGameState().ordinal());
+        out.writeBoolean(game.isRealTime());
+
+        // 4. shots fired and what the opponents scored on the last turn
+        out.writeInt(game.getNumShotsFired());
+        List<Integer> lastScores = game.getLastOpponentScores();
+        out.writeByte(lastScores.size());
+        for (int points : lastScores) {
+            out.writeInt(points);
+        }
+    }
+
+    public static GameEngine read(DataInputStream in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version < 1 || version > FORMAT_VERSION) {
+            throw new IOException("Unsupported game format version " + version);
+        }
+        int boardSize = checkRange(in.readUnsignedShort(), 1, Map.MAX_BOARD_SIZE, "board size");
+        Map map = new Map(boardSize);
+
+        int numForts = in.readUnsignedByte();
+        List<Fort> forts = new ArrayList<>();
+        for (int i = 0; i < numForts; i++) {
+            Fort fort = new Fort(in.readUTF());
+            int numCells = in.readUnsignedByte();
+            List<Cell> damagedCells = new ArrayList<>();
+            for (int j = 0; j < numCells; j++) {
+                int row = checkRange(in.readUnsignedShort(), 0, boardSize - 1, "fort cell row");
+                int col = checkRange(in.readUnsignedShort(), 0, boardSize - 1, "fort cell column");
+                Cell cell = map.getCellByRowCol(row, col);
+                if (cell.isPartOfFort()) {
+                    throw new IOException("Cell " + Map.toCoordinates(row, col) + " is in more than one fort");
+                }
+                fort.addCell(cell);
+                if (in.readBoolean()) {
+                    damagedCells.add(cell);
+                }
+            }
+            for (Cell cell : damagedCells) {
+                fort.markDamaged(cell);
+            }
+            forts.add(fort);
+        }
+
+        Cell.CellState[] cellStates = Cell.CellState.values();
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                int state = checkRange(in.readUnsignedByte(), 0, cellStates.length - 1, "cell state");
+                map.getCellByRowCol(row, col).setState(cellStates[state]);
+            }
+        }
+
+        ScoreBoard scoreBoard = new ScoreBoard();
+        int totalScore = in.readInt();
+        int numRuns = checkRange(in.readInt(), 0, Integer.MAX_VALUE, "number of score runs");
+        int[] runPoints = new int[Math.min(numRuns, INITIAL_RUNS)];
+        int[] runLengths = new int[runPoints.length];
+        for (int run = 0; run < numRuns; run++) {
+            if (run == runPoints.length) {
+                runPoints = Arrays.copyOf(runPoints, run * 2);
+                runLengths = Arrays.copyOf(runLengths, run * 2);
+            }
+            runPoints[run] = in.readInt();
+            runLengths[run] = in.readInt();
+        }
+        scoreBoard.restore(totalScore, Arrays.copyOf(runPoints, numRuns), Arrays.copyOf(runLengths, numRuns));
+
+        GameEngine.GameState[] gameStates = GameEngine.GameState.values();
+        GameEngine.GameState gameState = gameStates[checkRange(in.readUnsignedByte(), 0, gameStates.length - 1, "game state")];
+        boolean isRealTime = version >= 2 && in.readBoolean();
+
+        int numShotsFired = checkRange(in.readInt(), 0, Integer.MAX_VALUE, "number of shots fired");
+        int numLastScores = in.readUnsignedByte();
+        List<Integer> lastScores = new ArrayList<>(numLastScores);
+        for (int i = 0; i < numLastScores; i++) {
+            lastScores.add(in.readInt());
+        }
+        return new GameEngine(map, forts, scoreBoard, gameState, numShotsFired, lastScores, isRealTime);
+    }
+
+    private static int checkRange(int value, int min, int max, String what) throws IOException {
+        if (value < min || value > max) {
+            throw new IOException("Invalid " + what + ": " + value);
+        }
+        return value;
+    }
+}
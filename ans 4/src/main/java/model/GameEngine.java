@@ -1,5 +1,8 @@
 package model;
 
+import profiling.GameCreationEvent;
+import profiling.ShotEvent;
+
 import java.util.List;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
@@ -14,6 +17,13 @@ public class GameEngine {
     private final ScoreBoard scoreBoard;
     private final List<Opponent> opponents;
     private GameState gameState;
+    private int numShotsFired;
+    private List<Integer> lastOpponentScores;
+    private final short[] fortLayout; // per cell: index of its fort + 1, or 0; never changes
+    private volatile GameSnapshot snapshot;
+    private long version; // of the published snapshot, bumped on every change
+    private boolean isRealTime;
+    private GameListener listener = GameListener.NONE;
 
     // status of game
     public enum GameState {
@@ -25,19 +35,66 @@ public class GameEngine {
     // Creates a new game with N opponents, if all forts cannot be placed, an
     // exception is thrown
     public GameEngine(int numOfOpponents) throws Exception {
-        this.map = new Map();
+        this(numOfOpponents, new Map(), new FortPlacer());
+    }
+
+    // Creates a new game whose forts are placed the same way every time for the same seed
+    public GameEngine(int numOfOpponents, long seed) throws Exception {
+        this(numOfOpponents, new Map(), new FortPlacer(seed));
+    }
+
+    // Creates a new game on the given empty map, e.g. one larger than the standard board
+    public GameEngine(int numOfOpponents, Map map) throws Exception {
+        this(numOfOpponents, map, new FortPlacer());
+    }
+
+    private GameEngine(int numOfOpponents, Map map, FortPlacer placer) throws Exception {
+        this.map = map;
         this.scoreBoard = new ScoreBoard();
 
         // Place forts on map using a FortPlacer object
-        FortPlacer placer = new FortPlacer();
-        this.fortsOnMap = placer.placeForts(map, numOfOpponents);
+        GameCreationEvent event = new GameCreationEvent();
+        event.begin();
+        boolean isPlaced = false;
+        try {
+            this.fortsOnMap = placer.placeForts(map, numOfOpponents);
+            isPlaced = true;
+        } finally {
+            if (event.shouldCommit()) {
+                event.numOpponents = numOfOpponents;
+                event.placementAttempts = placer.getNumPlacementAttempts();
+                event.succeeded = isPlaced;
+                event.commit();
+            }
+        }
 
         // Create list of opponents
         this.opponents = createOpponents(fortsOnMap);
+        this.fortLayout = layoutForts(map.getBoardSize(), fortsOnMap);
 
         // GameState is IN_PROGRESS when all forts can be placed on map and game has
         // been created
         this.gameState = GameState.IN_PROGRESS;
+        this.numShotsFired = 0;
+        this.lastOpponentScores = new ArrayList<>();
+        this.version = 0;
+        this.snapshot = GameSnapshot.of(this, version);
+    }
+
+    // Rebuilds a game from previously saved state (see GameCodec)
+    GameEngine(Map map, List<Fort> fortsOnMap, ScoreBoard scoreBoard, GameState gameState,
+            int numShotsFired, List<Integer> lastOpponentScores, boolean isRealTime) {
+        this.map = map;
+        this.scoreBoard = scoreBoard;
+        this.fortsOnMap = fortsOnMap;
+        this.opponents = createOpponents(fortsOnMap);
+        this.fortLayout = layoutForts(map.getBoardSize(), fortsOnMap);
+        this.gameState = gameState;
+        this.numShotsFired = numShotsFired;
+        this.lastOpponentScores = new ArrayList<>(lastOpponentScores);
+        this.isRealTime = isRealTime;
+        this.version = numShotsFired;
+        this.snapshot = GameSnapshot.of(this, version);
     }
 
     // Create a list of opponents, where each opponent has a fort and an opponentId
@@ -50,23 +107,44 @@ public class GameEngine {
         return opponents;
     }
 
+    private static short[] layoutForts(int boardSize, List<Fort> fortsOnMap) {
+        short[] layout = new short[boardSize * boardSize];
+        for (int i = 0; i < fortsOnMap.size(); i++) {
+            Fort fort = fortsOnMap.get(i);
+            for (int cell = 0; cell < fort.getTotalCellCount(); cell++) {
+                layout[fort.getCellRow(cell) * boardSize + fort.getCellCol(cell)] = (short) (i + 1);
+            }
+        }
+        return layout;
+    }
+
     /**
      * - Player actions -
      * Processes a player's shot at the coordinates given
      * Returns the score caused by the shot (shot can be hit or miss)
      */
     public ShotScore processPlayerShot(String shotCoordinates) {
+        ShotEvent event = new ShotEvent();
+        event.start(shotCoordinates);
+
         // 1. validate coordinates of shot - make sure it's a cell on the map
 
         // if coordinates are not on map, fail early fail fast
-        if (!map.isCellCoordinatesValid(shotCoordinates)) {
+        int cellIndex = map.parseCellIndex(shotCoordinates);
+        if (cellIndex < 0) {
             // report a miss
             // keep ShotScore the same
-            return new ShotScore(false, false, new ArrayList<>(), gameState);
+            event.parseNanos = event.lap();
+            ShotScore shotScore = new ShotScore(false, false, new ArrayList<>(), gameState);
+            endTurn(shotScore, -1);
+            listener.shotFired(this, shotScore);
+            commitShotEvent(event, shotScore);
+            return shotScore;
         }
 
-        // 2. Get cell
-        Cell cell = map.getCellByCoordinates(shotCoordinates);
+        // 2. Get cell, from the index parsed above
+        Cell cell = map.getCellByIndex(cellIndex);
+        event.parseNanos = event.lap();
 
         // 3. Check if the cell has already been shot
         boolean wasAlreadyShot = cell.hasBeenShot();
@@ -74,44 +152,190 @@ public class GameEngine {
         // 4. Determine if it is part of a fort
         boolean isHit = cell.isPartOfFort();
 
-        // 5. mark cell and tell fort one of its cells have been hit
+        // 5. tell fort one of its cells have been hit, then mark cell
         if (isHit) {
-            cell.markAsHit();
-
-            // If first time, tell the Opponent's fort that it's cell was soaked
+            // If first time, tell the Opponent's fort that it's cell was soaked.
+            // This has to happen before the cell is marked, the fort only counts damage on unmarked cells
             if (!wasAlreadyShot) {
                 String fortId = cell.getFortId();
                 for (Opponent opponent : opponents) {
-                    if (opponent.getFort().getFortId().equals(fortId)) {
+                    if (opponent.getFortId().equals(fortId)) {
                         opponent.handleFortHit(cell);
                         break;
                     }
                 }
             }
+            event.hitAttributionNanos = event.lap();
+            cell.markAsHit();
         } else {
             cell.markAsMiss();
         }
-        // 6. Opponents fire back
-        List<Integer> opponentScores = processOpponentShots();
+        event.cellUpdateNanos = event.lap();
+
+        // 6. Opponents fire back, unless they fire on their own clock
+        List<Integer> opponentScores = isRealTime ? new ArrayList<>() : processOpponentShots();
+        event.opponentShotsNanos = event.lap();
 
         // 7. Check win/loss
         updateGameState();
+        event.gameStateNanos = event.lap();
+
+        // 8. Publish the new state and return results
+        ShotScore shotScore = new ShotScore(isHit, wasAlreadyShot, opponentScores, gameState);
+        endTurn(shotScore, cellIndex);
+        listener.shotFired(this, shotScore);
+        commitShotEvent(event, shotScore);
+        return shotScore;
+    }
 
-        // 8. Return results
-        return new ShotScore(isHit, wasAlreadyShot, opponentScores, gameState);
+    // Records the shot for Flight Recorder, if it is recording shots that took this long
+    private static void commitShotEvent(ShotEvent event, ShotScore shotScore) {
+        event.publishNanos = event.lap();
+        if (event.shouldCommit()) {
+            event.hit = shotScore.isHit();
+            event.commit();
+        }
+    }
+
+    // Records the finished turn and publishes a fresh snapshot for readers; changedCell is the index of the
+    // cell the turn shot at, or -1
+    private void endTurn(ShotScore shotScore, int changedCell) {
+        numShotsFired++;
+        if (!isRealTime) {
+            // in real time the last scores stay those of the last volley
+            lastOpponentScores = new ArrayList<>(shotScore.getOpponentScores());
+        }
+        publish(changedCell);
+    }
+
+    private void publish(int changedCell) {
+        GameState previousState = snapshot.getGameState();
+        snapshot = snapshot.next(this, ++version, changedCell);
+        if (gameState != previousState) {
+            listener.gameStateChanged(this, previousState);
+        }
+    }
+
+    /**
+     * - Real-time mode -
+     * The opponents fire on their own clock (see realtime.RealTimeClock) instead of after every player shot.
+     */
+    public void enableRealTime() {
+        isRealTime = true;
+    }
+
+    public boolean isRealTime() {
+        return isRealTime;
+    }
+
+    /**
+     * The opponents whose bits are set in opponentMask (bit i for opponent i) fire together, as one turn
+     * on the scoreboard, without a player shot. Opponents whose forts are destroyed do not fire.
+     * Returns the points scored, nothing once the game is over.
+     */
+    public List<Integer> fireOpponents(int opponentMask) {
+        List<Integer> scores = new ArrayList<>();
+        if (isGameOver()) {
+            return scores;
+        }
+        for (int i = 0; i < opponents.size(); i++) {
+            Opponent opponent = opponents.get(i);
+            int score = (opponentMask & (1 << i)) != 0 && opponent.canFire() ? opponent.fireWaterGun() : 0;
+            if (score > 0) {
+                scores.add(score);
+            }
+        }
+        if (scores.isEmpty()) {
+            return scores;
+        }
+
+        scoreBoard.addOpponentScores(scores);
+        updateGameState();
+        lastOpponentScores = new ArrayList<>(scores);
+        publish(-1);
+        return scores;
     }
 
     private List<Integer> processOpponentShots() {
+        List<Integer> scores = collectOpponentScores();
+
+        // Add scores to the scoreboard
+        scoreBoard.addOpponentScores(scores);
+
+        return scores;
+    }
+
+    private List<Integer> collectOpponentScores() {
         // Use stream to collect scores from each opponent
-        List<Integer> scores = opponents.stream()
+        return opponents.stream()
                 .map(opponent -> opponent.canFire() ? opponent.fireWaterGun() : 0)
                 .filter(score -> score > 0)
                 .collect(Collectors.toList());
+    }
 
-        // Add scores to the scoreboard
-        scoreBoard.addOpponentScores(scores);
+    /**
+     * - Fast forward -
+     * Between hits the opponents score the same total every turn, so the turns until they win
+     * can be worked out directly instead of playing them one by one.
+     */
+    public int getOpponentPointsPerTurn() {
+        int total = 0;
+        for (Opponent opponent : opponents) {
+            if (opponent.canFire()) {
+                total += opponent.fireWaterGun();
+            }
+        }
+        return total;
+    }
 
-        return scores;
+    // Turns (player misses) until the opponents reach the winning score; 0 if over, -1 if never
+    public int getTurnsUntilOpponentsWin() {
+        if (isGameOver()) {
+            return 0;
+        }
+        return turnsToReach(scoreBoard.getPointsNeededToWin(), getOpponentPointsPerTurn());
+    }
+
+    static int turnsToReach(int pointsNeeded, int pointsPerTurn) {
+        if (pointsNeeded <= 0) {
+            return 0;
+        }
+        if (pointsPerTurn <= 0) {
+            return -1;
+        }
+        return (pointsNeeded + pointsPerTurn - 1) / pointsPerTurn;
+    }
+
+    /**
+     * Plays up to maxTurns turns in which the player misses, in constant time.
+     * Stops early on the turn the opponents win. Each skipped turn counts as a shot fired,
+     * and the listener hears of all of them in one shotsFired call.
+     * Returns the result of the last turn played.
+     */
+    public ShotScore fastForward(int maxTurns) {
+        if (isGameOver() || maxTurns <= 0) {
+            return new ShotScore(false, false, new ArrayList<>(), gameState);
+        }
+
+        int turnsUntilWin = getTurnsUntilOpponentsWin();
+        int turns = turnsUntilWin < 0 ? maxTurns : Math.min(maxTurns, turnsUntilWin);
+
+        // Every turn the opponents fire exactly the same scores
+        List<Integer> opponentScores = collectOpponentScores();
+        scoreBoard.addRepeatedPoints(getOpponentPointsPerTurn(), turns);
+        updateGameState();
+
+        numShotsFired += turns - 1;
+        ShotScore shotScore = new ShotScore(false, false, opponentScores, gameState);
+        endTurn(shotScore, -1);
+        listener.shotsFired(this, turns, shotScore);
+        return shotScore;
+    }
+
+    // Plays missed turns until the opponents win, does nothing if they can no longer score
+    public ShotScore simulateUntilEnd() {
+        int turnsUntilWin = getTurnsUntilOpponentsWin();
+        return fastForward(turnsUntilWin < 0 ? 0 : turnsUntilWin);
     }
 
     private void updateGameState() {
@@ -136,6 +360,10 @@ public class GameEngine {
     }
 
     // below are trivial getter methods to allow TextUI to access game information
+    public List<Fort> getForts() {
+        return fortsOnMap;
+    }
+
     public Map getMap() {
         return map;
     }
@@ -152,6 +380,35 @@ public class GameEngine {
         return gameState;
     }
 
+    // Number of shots the player has fired, including ones at invalid coordinates
+    public int getNumShotsFired() {
+        return numShotsFired;
+    }
+
+    // Points the opponents scored the last time they fired (empty before the first turn)
+    public List<Integer> getLastOpponentScores() {
+        return lastOpponentScores;
+    }
+
+    // Only called from the thread that changes the game
+    public void setListener(GameListener listener) {
+        this.listener = listener == null ? GameListener.NONE : listener;
+    }
+
+    // Latest published state, safe to read from any thread
+    public GameSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    // Branches the game as of its latest snapshot in O(1), see GameFork; safe to call from any thread
+    public GameFork fork() {
+        return GameFork.of(snapshot);
+    }
+
+    short[] getFortLayout() {
+        return fortLayout;
+    }
+
     public boolean isGameOver() {
         return gameState != GameState.IN_PROGRESS;
     }
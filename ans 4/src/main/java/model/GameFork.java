@@ -0,0 +1,248 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A branch of a game for trying out hypothetical shots, e.g. for bots, hints or "what if" analysis.
+ * Forking costs O(1): a fork starts out sharing the board and forts of an immutable GameSnapshot (or of
+ * the fork it was made from) and copies a board row, or the fort damage counts, only the first time one
+ * of its shots changes them. Turns are played exactly as GameEngine plays them, but only the score
+ * totals are kept, not the per-turn history. Its snapshots share the fork's rows the same way, so taking
+ * one costs O(boardSize). A fork is not thread safe.
+ */
+public final class GameFork {
+    private static final byte HIT = (byte) Cell.CellState.HIT.ordinal();
+    private static final byte MISS = (byte) Cell.CellState.MISS.ordinal();
+    private static final Cell.CellState[] CELL_STATES = Cell.CellState.values();
+
+    private final int boardSize;
+    private final byte[][] baseRows; // never written, shared with the snapshot the first fork came from
+    private final short[] fortLayout;
+    private final GameSnapshot.OpponentSnapshot[] baseOpponents; // never written, shared like baseCells
+    private final int winningScore;
+
+    // Copy-on-write state: rows and undamaged are null until first changed, and are copied before
+    // writing while another fork or a snapshot may still be using them
+    private byte[][] rows;
+    private boolean[] ownedRows;
+    private boolean rowsShared;
+    private int[] undamaged;
+    private boolean undamagedShared;
+
+    private GameEngine.GameState gameState;
+    private int totalScore;
+    private int turnCount;
+    private int numShotsFired;
+    private int[] lastOpponentScores;
+    private long version;
+
+    private GameFork(GameSnapshot base) {
+        this.boardSize = base.getBoardSize();
+        this.baseRows = base.getRows();
+        this.fortLayout = base.getFortLayout();
+        this.baseOpponents = base.getOpponents();
+        this.winningScore = base.getWinningScore();
+        this.gameState = base.getGameState();
+        this.totalScore = base.getTotalScore();
+        this.turnCount = base.getTurnCount();
+        this.numShotsFired = base.getNumShotsFired();
+        this.lastOpponentScores = base.getLastOpponentScores();
+        this.version = base.getVersion();
+    }
+
+    private GameFork(GameFork parent) {
+        this.boardSize = parent.boardSize;
+        this.baseRows = parent.baseRows;
+        this.fortLayout = parent.fortLayout;
+        this.baseOpponents = parent.baseOpponents;
+        this.winningScore = parent.winningScore;
+        this.rows = parent.rows;
+        this.rowsShared = true;
+        this.undamaged = parent.undamaged;
+        this.undamagedShared = true;
+        this.gameState = parent.gameState;
+        this.totalScore = parent.totalScore;
+        this.turnCount = parent.turnCount;
+        this.numShotsFired = parent.numShotsFired;
+        this.lastOpponentScores = parent.lastOpponentScores;
+        this.version = parent.version;
+    }
+
+    // Branches a game as it was when the snapshot was taken
+    public static GameFork of(GameSnapshot snapshot) {
+        return new GameFork(snapshot);
+    }
+
+    // Branches this fork; from now on both copy whatever they change
+    public GameFork fork() {
+        rowsShared = true;
+        undamagedShared = true;
+        return new GameFork(this);
+    }
+
+    /**
+     * Plays one turn like GameEngine.processPlayerShot: the shot, the opponents' return fire and
+     * the win/loss check. Only this fork changes.
+     */
+    public ShotScore processPlayerShot(String shotCoordinates) {
+        int index = Map.parseCellIndex(shotCoordinates, boardSize);
+        if (index < 0) {
+            ShotScore shotScore = new ShotScore(false, false, new ArrayList<>(), gameState);
+            endTurn(new int[0]);
+            return shotScore;
+        }
+
+        int cell = cellAt(index);
+        boolean wasAlreadyShot = (cell & GameSnapshot.STATE_MASK) != Cell.CellState.UNKNOWN.ordinal();
+        int fort = fortLayout[index] - 1;
+        boolean isHit = fort >= 0;
+        if (isHit) {
+            if (!wasAlreadyShot && undamagedCount(fort) > 0) {
+                damageFort(fort);
+            }
+            setCell(index, (byte) (HIT | GameSnapshot.FORT_FLAG));
+        } else {
+            setCell(index, MISS);
+        }
+
+        // Opponents fire back, only the ones still standing score
+        int[] scores = new int[baseOpponents.length];
+        int numScores = 0;
+        int points = 0;
+        for (int i = 0; i < baseOpponents.length; i++) {
+            int score = Fort.pointsFor(undamagedCount(i));
+            if (score > 0) {
+                scores[numScores++] = score;
+                points += score;
+            }
+        }
+        if (points > 0) {
+            totalScore += points;
+            turnCount++;
+        }
+
+        updateGameState();
+        int[] opponentScores = Arrays.copyOf(scores, numScores);
+        endTurn(opponentScores);
+        return new ShotScore(isHit, wasAlreadyShot, toList(opponentScores), gameState);
+    }
+
+    private void endTurn(int[] opponentScores) {
+        numShotsFired++;
+        lastOpponentScores = opponentScores;
+        version++;
+    }
+
+    private void updateGameState() {
+        boolean allDestroyed = true;
+        for (int i = 0; i < baseOpponents.length && allDestroyed; i++) {
+            allDestroyed = undamagedCount(i) == 0;
+        }
+        if (allDestroyed) {
+            gameState = GameEngine.GameState.PLAYER_WON;
+        } else if (totalScore >= winningScore) {
+            gameState = GameEngine.GameState.OPPONENTS_WON;
+        }
+    }
+
+    private int cellAt(int index) {
+        int row = index / boardSize;
+        if (rows != null && rows[row] != null) {
+            return rows[row][index - row * boardSize];
+        }
+        return baseRows[row][index - row * boardSize];
+    }
+
+    private void setCell(int index, byte value) {
+        if (rows == null || rowsShared) {
+            rows = rows == null ? new byte[boardSize][] : rows.clone();
+            ownedRows = new boolean[boardSize];
+            rowsShared = false;
+        }
+
+        int row = index / boardSize;
+        if (!ownedRows[row]) {
+            rows[row] = rows[row] != null
+                    ? rows[row].clone()
+                    : baseRows[row].clone();
+            ownedRows[row] = true;
+        }
+        rows[row][index - row * boardSize] = value;
+    }
+
+    private int undamagedCount(int fort) {
+        return undamaged != null ? undamaged[fort] : baseOpponents[fort].getUndamagedCellCount();
+    }
+
+    private void damageFort(int fort) {
+        if (undamaged == null || undamagedShared) {
+            int[] counts = new int[baseOpponents.length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = undamagedCount(i);
+            }
+            undamaged = counts;
+            undamagedShared = false;
+        }
+        undamaged[fort]--;
+    }
+
+    private static List<Integer> toList(int[] values) {
+        List<Integer> list = new ArrayList<>(values.length);
+        for (int value : values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    /**
+     * The fork's current state as a snapshot, e.g. to build API responses from it. The snapshot shares
+     * the fork's rows, which the fork copies again before its next change to them.
+     */
+    public GameSnapshot getSnapshot() {
+        byte[][] cells = baseRows;
+        if (rows != null) {
+            cells = baseRows.clone();
+            for (int row = 0; row < boardSize; row++) {
+                if (rows[row] != null) {
+                    cells[row] = rows[row];
+                }
+            }
+            rowsShared = true;
+        }
+
+        GameSnapshot.OpponentSnapshot[] opponents = baseOpponents.clone();
+        if (undamaged != null) {
+            for (int i = 0; i < opponents.length; i++) {
+                opponents[i] = opponents[i].withUndamagedCellCount(undamaged[i]);
+            }
+        }
+        return new GameSnapshot(version, gameState, boardSize, cells, fortLayout, opponents,
+                totalScore, winningScore, turnCount, numShotsFired, lastOpponentScores.clone());
+    }
+
+    public GameEngine.GameState getGameState() {
+        return gameState;
+    }
+
+    public boolean isGameOver() {
+        return gameState != GameEngine.GameState.IN_PROGRESS;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    public int getNumShotsFired() {
+        return numShotsFired;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public Cell.CellState getCellState(int row, int col) {
+        return CELL_STATES[cellAt(row * boardSize + col) & GameSnapshot.STATE_MASK];
+    }
+}
@@ -0,0 +1,22 @@
+package model;
+
+/**
+ * Receives notifications about changes to a GameEngine, e.g. to keep statistics.
+ * Called on the thread that changes the game, after the game's new snapshot has been published.
+ */
+public interface GameListener {
+    GameListener NONE = new GameListener() {
+    };
+
+    // A player shot was processed (including shots at invalid coordinates)
+    default void shotFired(GameEngine game, ShotScore shotScore) {
+    }
+
+    // count missed turns were played at once by GameEngine.fastForward, shotScore is the last one's result
+    default void shotsFired(GameEngine game, int count, ShotScore shotScore) {
+    }
+
+    // The game went from previousState to game.getGameState()
+    default void gameStateChanged(GameEngine game, GameEngine.GameState previousState) {
+    }
+}
@@ -0,0 +1,286 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Immutable, compact copy of a game's state taken at the end of a turn.
+ * The GameEngine publishes a new snapshot after every turn, so readers on other threads
+ * always see a consistent board, opponent and score view without locking the game.
+ * Cells are kept one array per board row. A turn changes at most one cell, so the next snapshot copies
+ * only that row (and that row of the TileIndex) and shares every other row with this one; rows are
+ * never written once a snapshot has been published.
+ */
+public final class GameSnapshot {
+    static final int STATE_MASK = 0x3;
+    // values() copies the array on every call
+    private static final Cell.CellState[] CELL_STATES = Cell.CellState.values();
+    static final int FORT_FLAG = 0x4;
+
+    private final long version;
+    private final GameEngine.GameState gameState;
+    private final int boardSize;
+    private final byte[][] rows; // per cell: CellState ordinal, plus FORT_FLAG if part of a fort
+    private final short[] fortLayout; // shared by every snapshot of a game, see GameEngine
+    private final OpponentSnapshot[] opponents;
+    private final int numActiveOpponentForts;
+    private final int totalScore;
+    private final int winningScore;
+    private final int turnCount;
+    private final int numShotsFired;
+    private final int opponentPointsPerTurn;
+    private final int turnsUntilOpponentsWin;
+    private final int[] lastOpponentScores;
+    private volatile TileIndex tileIndex; // built on first use when not built with the cells
+
+    /**
+     * State of a single opponent and its fort at the time of the snapshot.
+     */
+    public static final class OpponentSnapshot {
+        private final String opponentId;
+        private final String fortId;
+        private final int undamagedCellCount;
+        private final int totalCellCount;
+        private final boolean isDestroyed;
+
+        private OpponentSnapshot(Opponent opponent) {
+            this.opponentId = opponent.getOpponentId();
+            this.fortId = opponent.getFortId();
+            this.undamagedCellCount = opponent.getUndamagedCellCount();
+            this.totalCellCount = opponent.getTotalCellCount();
+            this.isDestroyed = opponent.isDestroyed();
+        }
+
+        // The same opponent with a different number of undamaged cells
+        OpponentSnapshot withUndamagedCellCount(int undamagedCellCount) {
+            return new OpponentSnapshot(opponentId, fortId, undamagedCellCount, totalCellCount);
+        }
+
+        private OpponentSnapshot(String opponentId, String fortId, int undamagedCellCount, int totalCellCount) {
+            this.opponentId = opponentId;
+            this.fortId = fortId;
+            this.undamagedCellCount = undamagedCellCount;
+            this.totalCellCount = totalCellCount;
+            this.isDestroyed = undamagedCellCount == 0;
+        }
+
+        public String getOpponentId() {
+            return opponentId;
+        }
+
+        public String getFortId() {
+            return fortId;
+        }
+
+        public int getUndamagedCellCount() {
+            return undamagedCellCount;
+        }
+
+        public int getTotalCellCount() {
+            return totalCellCount;
+        }
+
+        public boolean isDestroyed() {
+            return isDestroyed;
+        }
+    }
+
+    private GameSnapshot(GameEngine game, long version, GameSnapshot previous, int changedCell) {
+        Map map = game.getMap();
+        this.version = version;
+        this.gameState = game.getGameState();
+        this.boardSize = map.getBoardSize();
+        this.fortLayout = game.getFortLayout();
+
+        if (previous == null) {
+            this.rows = new byte[boardSize][boardSize];
+            for (int row = 0; row < boardSize; row++) {
+                for (int col = 0; col < boardSize; col++) {
+                    rows[row][col] = encode(map.getCellByRowCol(row, col));
+                }
+            }
+            this.tileIndex = TileIndex.of(boardSize, rows);
+        } else {
+            byte[][] nextRows = previous.rows;
+            TileIndex nextIndex = previous.getTileIndex();
+            int row = changedCell / boardSize;
+            int col = changedCell - row * boardSize;
+            byte encoded = changedCell < 0 ? 0 : encode(map.getCellByIndex(changedCell));
+            if (changedCell >= 0 && nextRows[row][col] != encoded) {
+                nextRows = nextRows.clone();
+                nextRows[row] = nextRows[row].clone();
+                if ((nextRows[row][col] & STATE_MASK) == Cell.CellState.UNKNOWN.ordinal()) {
+                    nextIndex = nextIndex.withShotCell(row, col);
+                }
+                nextRows[row][col] = encoded;
+            }
+            this.rows = nextRows;
+            this.tileIndex = nextIndex;
+        }
+
+        List<Opponent> gameOpponents = game.getOpponents();
+        this.opponents = new OpponentSnapshot[gameOpponents.size()];
+        int active = 0;
+        for (int i = 0; i < opponents.length; i++) {
+            opponents[i] = new OpponentSnapshot(gameOpponents.get(i));
+            if (!opponents[i].isDestroyed()) {
+                active++;
+            }
+        }
+        this.numActiveOpponentForts = active;
+
+        ScoreBoard scoreBoard = game.getScoreBoard();
+        this.totalScore = scoreBoard.getTotalScore();
+        this.winningScore = scoreBoard.getWinningScore();
+        this.turnCount = scoreBoard.getTurnCount();
+        this.numShotsFired = game.getNumShotsFired();
+        this.opponentPointsPerTurn = game.getOpponentPointsPerTurn();
+        this.turnsUntilOpponentsWin = game.getTurnsUntilOpponentsWin();
+        this.lastOpponentScores = game.getLastOpponentScores().stream()
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static byte encode(Cell cell) {
+        return (byte) (cell.getState().ordinal() | (cell.isPartOfFort() ? FORT_FLAG : 0));
+    }
+
+    // Builds a snapshot of a forked game (see GameFork), the points per turn are worked out from the forts.
+    // The rows are kept, so they must never be written again
+    GameSnapshot(long version, GameEngine.GameState gameState, int boardSize, byte[][] rows, short[] fortLayout,
+            OpponentSnapshot[] opponents, int totalScore, int winningScore, int turnCount, int numShotsFired,
+            int[] lastOpponentScores) {
+        this.version = version;
+        this.gameState = gameState;
+        this.boardSize = boardSize;
+        this.rows = rows;
+        this.fortLayout = fortLayout;
+        this.opponents = opponents;
+        this.totalScore = totalScore;
+        this.winningScore = winningScore;
+        this.turnCount = turnCount;
+        this.numShotsFired = numShotsFired;
+        this.lastOpponentScores = lastOpponentScores;
+
+        int active = 0;
+        int pointsPerTurn = 0;
+        for (OpponentSnapshot opponent : opponents) {
+            if (!opponent.isDestroyed()) {
+                active++;
+                pointsPerTurn += Fort.pointsFor(opponent.getUndamagedCellCount());
+            }
+        }
+        this.numActiveOpponentForts = active;
+        this.opponentPointsPerTurn = pointsPerTurn;
+        this.turnsUntilOpponentsWin = isGameOver()
+                ? 0
+                : GameEngine.turnsToReach(getPointsNeededToWin(), pointsPerTurn);
+    }
+
+    // Takes a snapshot of the game as it is right now, must be called by the thread that owns the game
+    static GameSnapshot of(GameEngine game, long version) {
+        return new GameSnapshot(game, version, null, -1);
+    }
+
+    /**
+     * The game's snapshot after a turn that changed at most the cell at index changedCell (-1 for none),
+     * sharing all other rows with this snapshot so a turn costs O(boardSize) instead of O(boardSize^2).
+     * Must be called by the thread that owns the game.
+     */
+    GameSnapshot next(GameEngine game, long version, int changedCell) {
+        return new GameSnapshot(game, version, this, changedCell);
+    }
+
+    // Increases by one every time the game changes
+    public long getVersion() {
+        return version;
+    }
+
+    public GameEngine.GameState getGameState() {
+        return gameState;
+    }
+
+    public boolean isGameOver() {
+        return gameState != GameEngine.GameState.IN_PROGRESS;
+    }
+
+    public int getBoardSize() {
+        return boardSize;
+    }
+
+    public Cell.CellState getCellState(int row, int col) {
+        return CELL_STATES[rows[row][col] & STATE_MASK];
+    }
+
+    public boolean isFortCell(int row, int col) {
+        return (rows[row][col] & FORT_FLAG) != 0;
+    }
+
+    // Shot and fort counts per tile of the board
+    public TileIndex getTileIndex() {
+        TileIndex index = tileIndex;
+        if (index == null) {
+            // racing readers may each build one, they are all the same
+            index = TileIndex.of(boardSize, rows);
+            tileIndex = index;
+        }
+        return index;
+    }
+
+    public int getNumOpponents() {
+        return opponents.length;
+    }
+
+    public OpponentSnapshot getOpponent(int index) {
+        return opponents[index];
+    }
+
+    public int getNumActiveOpponentForts() {
+        return numActiveOpponentForts;
+    }
+
+    public int getTotalScore() {
+        return totalScore;
+    }
+
+    public int getWinningScore() {
+        return winningScore;
+    }
+
+    public int getPointsNeededToWin() {
+        return Math.max(0, winningScore - totalScore);
+    }
+
+    public int getTurnCount() {
+        return turnCount;
+    }
+
+    public int getNumShotsFired() {
+        return numShotsFired;
+    }
+
+    public int getOpponentPointsPerTurn() {
+        return opponentPointsPerTurn;
+    }
+
+    // Turns (player misses) until the opponents win; 0 if the game is over, -1 if they never will
+    public int getTurnsUntilOpponentsWin() {
+        return turnsUntilOpponentsWin;
+    }
+
+    public int[] getLastOpponentScores() {
+        return lastOpponentScores.clone();
+    }
+
+    // The encoded rows of cells and fort layout are shared with forks, which never write to them
+    byte[][] getRows() {
+        return rows;
+    }
+
+    short[] getFortLayout() {
+        return fortLayout;
+    }
+
+    OpponentSnapshot[] getOpponents() {
+        return opponents;
+    }
+}
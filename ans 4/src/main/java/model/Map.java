@@ -1,20 +1,46 @@
 package model;
 
+import java.util.Arrays;
+
 /**
  * Represents the game board as a 2D grid of cells.
  * Manages cell access by row/column indices or coordinate strings (e.g., "B5").
  * Provides validation for cell coordinates and positions.
+ * Rows past "Z" continue as "AA", "AB", ... so boards larger than 26 rows can still be addressed.
  */
 public class Map {
-    private static final int BOARD_SIZE = 10; // (10x10) board size (indices: 0-9)
+    public static final int DEFAULT_BOARD_SIZE = 10; // (10x10) board size (indices: 0-9)
+    public static final int MAX_BOARD_SIZE = 1024;
+    private static final int MAX_COORDINATE_LENGTH = 16;
+    private static final int LETTERS = 26;
+
+    // Precomputed cell index for every "letter + number" coordinate on a standard board,
+    // indexed by (letter - 'A') * 128 + number; -1 where the coordinate is off the board
+    private static final int[] STANDARD_LOOKUP = new int[LETTERS * 128];
+
+    static {
+        Arrays.fill(STANDARD_LOOKUP, -1);
+        for (int row = 0; row < DEFAULT_BOARD_SIZE; row++) {
+            for (int col = 0; col < DEFAULT_BOARD_SIZE; col++) {
+                STANDARD_LOOKUP[row * 128 + col + 1] = row * DEFAULT_BOARD_SIZE + col;
+            }
+        }
+    }
+
+    private final int boardSize;
     private final Cell[][] map;
 
     public Map() {
+        this(DEFAULT_BOARD_SIZE);
+    }
+
+    public Map(int boardSize) {
+        this.boardSize = boardSize;
         // generates 2D array (map) that can hold cells
-        this.map = new Cell[BOARD_SIZE][BOARD_SIZE];
+        this.map = new Cell[boardSize][boardSize];
         // generate cells and store in map
-        for (int row = 0; row < BOARD_SIZE; row++) {
-            for (int col = 0; col < BOARD_SIZE; col++) {
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
                 map[row][col] = new Cell(row, col);
             }
         }
@@ -24,30 +50,108 @@ public class Map {
         return map[row][col];
     }
 
+    // index is row * boardSize + col, as returned by parseCellIndex
+    public Cell getCellByIndex(int index) {
+        return map[index / boardSize][index % boardSize];
+    }
+
     public Cell getCellByCoordinates(String coordinates) {
         // parse "B5" -> get Cell (1, 4)
-        int row = parseRow(coordinates);
-        int col = parseCol(coordinates);
-
-        return getCellByRowCol(row, col);
+        int index = parseCellIndex(coordinates);
+        if (index < 0) {
+            throw new IllegalArgumentException("Invalid coordinates: " + coordinates);
+        }
+        return getCellByIndex(index);
     }
 
     public boolean isCellRowColValid(int row, int col) {
-        return (row >= 0 && row < BOARD_SIZE) && (col >= 0 && col < BOARD_SIZE);
+        return (row >= 0 && row < boardSize) && (col >= 0 && col < boardSize);
     }
 
     public boolean isCellCoordinatesValid(String coordinates) {
-        // valid coordinates are length 2 (e.g. C3) or 3 (B10)
-        if (coordinates == null || coordinates.length() < 2 || coordinates.length() > 3) {
-            return false;
+        return parseCellIndex(coordinates) >= 0;
+    }
+
+    /**
+     * Decodes coordinates such as "B5" or "AB123" (letters are case insensitive) in a single pass,
+     * without allocating or throwing.
+     * Returns the cell index (row * boardSize + col), or -1 if the coordinates are not on this board.
+     */
+    public int parseCellIndex(CharSequence coordinates) {
+        return parseCellIndex(coordinates, boardSize);
+    }
+
+    // Same as parseCellIndex, for a board of the given size
+    public static int parseCellIndex(CharSequence coordinates, int boardSize) {
+        if (coordinates == null) {
+            return -1;
+        }
+        int length = coordinates.length();
+        if (length < 2 || length > MAX_COORDINATE_LENGTH) {
+            return -1;
+        }
+
+        // fast path: one letter and a one or two digit number on a standard board
+        if (boardSize == DEFAULT_BOARD_SIZE && length <= 3) {
+            int letter = (coordinates.charAt(0) | 0x20) - 'a';
+            int number = digitAt(coordinates, 1);
+            if (length == 3 && number >= 0) {
+                int second = digitAt(coordinates, 2);
+                number = second < 0 ? -1 : number * 10 + second;
+            }
+            if (letter < 0 || letter >= LETTERS || number < 0) {
+                return -1;
+            }
+            return STANDARD_LOOKUP[letter * 128 + number];
+        }
+
+        // rows: letters in bijective base 26 (A=0 ... Z=25, AA=26 ...)
+        int pos = 0;
+        int row = 0;
+        while (pos < length) {
+            int letter = (coordinates.charAt(pos) | 0x20) - 'a';
+            if (letter < 0 || letter >= LETTERS) {
+                break;
+            }
+            row = row * LETTERS + letter + 1;
+            pos++;
+            if (row > boardSize) {
+                return -1;
+            }
         }
-        try {
-            int row = parseRow(coordinates);
-            int col = parseCol(coordinates);
-            return isCellRowColValid(row, col);
-        } catch (Exception e) {
-            return false;
+        if (pos == 0 || pos == length) {
+            return -1;
         }
+
+        // columns: 1 based decimal number
+        int col = 0;
+        while (pos < length) {
+            int digit = digitAt(coordinates, pos);
+            if (digit < 0) {
+                return -1;
+            }
+            col = col * 10 + digit;
+            pos++;
+            if (col > boardSize) {
+                return -1;
+            }
+        }
+
+        row -= 1;
+        col -= 1;
+        if (row >= boardSize || col < 0 || col >= boardSize) {
+            return -1;
+        }
+        return row * boardSize + col;
+    }
+
+    // Formats a row and column back into coordinates, e.g. row=1, col=4 -> "B5"
+    public static String toCoordinates(int row, int col) {
+        StringBuilder letters = new StringBuilder();
+        for (int remaining = row + 1; remaining > 0; remaining = (remaining - 1) / LETTERS) {
+            letters.append((char) ('A' + (remaining - 1) % LETTERS));
+        }
+        return letters.reverse().append(col + 1).toString();
     }
 
     public Cell[][] getMap() {
@@ -55,24 +159,13 @@ public class Map {
     }
 
     public int getBoardSize() {
-        return BOARD_SIZE;
-    }
-
-    private int parseRow(String coordinate) {
-        char letter = coordinate.charAt(0);
-        // normalize by making it a capital letter
-        char upperLetter = Character.toUpperCase(letter);
-        // ascii value for 'A' is 65, subtraction results in correct letter number for row
-        return upperLetter - 'A';
+        return boardSize;
     }
 
-    private int parseCol(String coordinate) {
-        // makes a substring starting at index 1 of the string
-        String numberPart = coordinate.substring(1);
-        // subtract 1 to standardize index starting at 0
-        return (Integer.parseInt(numberPart) - 1);
+    private static int digitAt(CharSequence coordinates, int pos) {
+        int digit = coordinates.charAt(pos) - '0';
+        return digit >= 0 && digit <= 9 ? digit : -1;
     }
 
 }
 
-
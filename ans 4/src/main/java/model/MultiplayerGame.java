@@ -0,0 +1,150 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A game that several players fire at concurrently, without locks.
+ * Every cell's state is claimed with a compare-and-set, so exactly one shot turns a cell into a hit
+ * (or miss) and only that shot damages the fort; fort damage, the opponents' score and the game
+ * state are atomics too. Each shot is a turn of its own: the opponents fire back after every shot,
+ * as in GameEngine. When the last fort falls and the opponents reach the winning score at the same
+ * time, whichever is recorded first decides the game.
+ */
+public final class MultiplayerGame {
+    private static final int UNKNOWN = Cell.CellState.UNKNOWN.ordinal();
+    private static final int HIT = Cell.CellState.HIT.ordinal();
+    private static final int MISS = Cell.CellState.MISS.ordinal();
+    private static final Cell.CellState[] CELL_STATES = Cell.CellState.values();
+
+    private final int boardSize;
+    private final short[] fortLayout;
+    private final GameSnapshot.OpponentSnapshot[] opponents;
+    private final int winningScore;
+
+    private final AtomicIntegerArray cellStates;
+    private final AtomicIntegerArray undamaged;
+    private final AtomicInteger fortsStanding;
+    private final AtomicInteger totalScore;
+    private final AtomicInteger turnCount;
+    private final AtomicInteger numShotsFired;
+    private final AtomicReference<GameEngine.GameState> gameState;
+    private volatile int[] lastOpponentScores; // of the most recently finished shot, never changed once set
+
+    // Starts a multiplayer game from the state of a single player game
+    public MultiplayerGame(GameSnapshot start) {
+        this.boardSize = start.getBoardSize();
+        this.fortLayout = start.getFortLayout();
+        this.opponents = start.getOpponents();
+        this.winningScore = start.getWinningScore();
+
+        byte[][] rows = start.getRows();
+        this.cellStates = new AtomicIntegerArray(boardSize * boardSize);
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                cellStates.set(row * boardSize + col, rows[row][col] & GameSnapshot.STATE_MASK);
+            }
+        }
+        this.undamaged = new AtomicIntegerArray(opponents.length);
+        for (int i = 0; i < opponents.length; i++) {
+            undamaged.set(i, opponents[i].getUndamagedCellCount());
+        }
+        this.fortsStanding = new AtomicInteger(start.getNumActiveOpponentForts());
+        this.totalScore = new AtomicInteger(start.getTotalScore());
+        this.turnCount = new AtomicInteger(start.getTurnCount());
+        this.numShotsFired = new AtomicInteger(start.getNumShotsFired());
+        this.gameState = new AtomicReference<>(start.getGameState());
+        this.lastOpponentScores = start.getLastOpponentScores();
+    }
+
+    /**
+     * Fires one shot, safe to call from any number of threads at once.
+     * Returns the result like GameEngine.processPlayerShot; a shot at a cell another player claimed
+     * first counts as already shot. Once the game is over shots change nothing.
+     */
+    public ShotScore processPlayerShot(String shotCoordinates) {
+        GameEngine.GameState state = gameState.get();
+        if (state != GameEngine.GameState.IN_PROGRESS) {
+            return new ShotScore(false, false, new ArrayList<>(), state);
+        }
+
+        int index = Map.parseCellIndex(shotCoordinates, boardSize);
+        if (index < 0) {
+            lastOpponentScores = new int[0];
+            numShotsFired.incrementAndGet();
+            return new ShotScore(false, false, new ArrayList<>(), gameState.get());
+        }
+
+        // 1. claim the cell, only the shot that changes it from unknown counts
+        int fort = fortLayout[index] - 1;
+        boolean isHit = fort >= 0;
+        boolean wasAlreadyShot = !cellStates.compareAndSet(index, UNKNOWN, isHit ? HIT : MISS);
+
+        // 2. damage the fort, the claim above makes sure this happens once per cell
+        if (isHit && !wasAlreadyShot && undamaged.decrementAndGet(fort) == 0
+                && fortsStanding.decrementAndGet() == 0) {
+            gameState.compareAndSet(GameEngine.GameState.IN_PROGRESS, GameEngine.GameState.PLAYER_WON);
+        }
+
+        // 3. opponents fire back
+        List<Integer> opponentScores = new ArrayList<>(opponents.length);
+        int points = 0;
+        for (int i = 0; i < opponents.length; i++) {
+            int score = Fort.pointsFor(undamaged.get(i));
+            if (score > 0) {
+                opponentScores.add(score);
+                points += score;
+            }
+        }
+        if (points > 0) {
+            turnCount.incrementAndGet();
+            if (totalScore.addAndGet(points) >= winningScore) {
+                gameState.compareAndSet(GameEngine.GameState.IN_PROGRESS, GameEngine.GameState.OPPONENTS_WON);
+            }
+        }
+
+        lastOpponentScores = opponentScores.stream().mapToInt(Integer::intValue).toArray();
+        numShotsFired.incrementAndGet();
+        return new ShotScore(isHit, wasAlreadyShot, opponentScores, gameState.get());
+    }
+
+    public GameEngine.GameState getGameState() {
+        return gameState.get();
+    }
+
+    public boolean isGameOver() {
+        return gameState.get() != GameEngine.GameState.IN_PROGRESS;
+    }
+
+    public int getNumShotsFired() {
+        return numShotsFired.get();
+    }
+
+    public Cell.CellState getCellState(int row, int col) {
+        return CELL_STATES[cellStates.get(row * boardSize + col)];
+    }
+
+    /**
+     * Copies the current state into a snapshot, e.g. to build API responses from it.
+     * Shots landing while it is taken may be partly included.
+     */
+    public GameSnapshot getSnapshot() {
+        byte[][] cells = new byte[boardSize][boardSize];
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                int i = row * boardSize + col;
+                cells[row][col] = (byte) (cellStates.get(i) | (fortLayout[i] != 0 ? GameSnapshot.FORT_FLAG : 0));
+            }
+        }
+        GameSnapshot.OpponentSnapshot[] current = new GameSnapshot.OpponentSnapshot[opponents.length];
+        for (int i = 0; i < current.length; i++) {
+            current[i] = opponents[i].withUndamagedCellCount(undamaged.get(i));
+        }
+        int shots = numShotsFired.get();
+        return new GameSnapshot(shots, gameState.get(), boardSize, cells, fortLayout, current,
+                totalScore.get(), winningScore, turnCount.get(), shots, lastOpponentScores);
+    }
+}
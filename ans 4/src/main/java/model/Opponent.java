@@ -33,6 +33,11 @@ public class Opponent {
     }
 
 
+    public String getFortId() {
+        return fort.getFortId();
+    }
+
+
     public int fireWaterGun() {
         if (isDestroyed) {
             return 0; // Destroyed opponents don't fire
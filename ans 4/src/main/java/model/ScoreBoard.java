@@ -1,24 +1,78 @@
 package model;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
 
 /**
  * Tracks the opponent team's total score and win condition.
  * Manages scoring history, calculates statistics, and determines if opponents have won (score >= 2500).
  * Records points earned each turn from opponent water gun shots.
+ * The history is stored run-length encoded (points, number of turns in a row), so many identical
+ * turns can be recorded at once in constant time. The first turn of each run is kept alongside,
+ * so looking up one turn is a binary search over the runs.
  */
 public class ScoreBoard {
     private static final int WINNING_SCORE = 2500;
 
     private int totalScore;
-    private List<Integer> scoreHistory;
+    private int turnCount;
+    private int numRuns;
+    private int[] runPoints;
+    private int[] runLengths;
+    private int[] runStarts;
+    // read-only view over the runs, created once so reading the history never copies it
+    private final List<Integer> historyView = new AbstractList<>() {
+        @Override
+        public Integer get(int turn) {
+            return getScoreAt(turn);
+        }
+
+        @Override
+        public int size() {
+            return turnCount;
+        }
+
+        // Walks the runs in order instead of looking every turn up
+        @Override
+        public Iterator<Integer> iterator() {
+            return new Iterator<>() {
+                private int turn;
+                private int run;
+                private int turnInRun;
+
+                @Override
+                public boolean hasNext() {
+                    return turn < turnCount;
+                }
+
+                @Override
+                public Integer next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    while (turnInRun == runLengths[run]) {
+                        run++;
+                        turnInRun = 0;
+                    }
+                    turn++;
+                    turnInRun++;
+                    return runPoints[run];
+                }
+            };
+        }
+    };
 
 
     public ScoreBoard() {
         this.totalScore = 0;
-        this.scoreHistory = new ArrayList<>();
+        this.turnCount = 0;
+        this.numRuns = 0;
+        this.runPoints = new int[8];
+        this.runLengths = new int[8];
+        this.runStarts = new int[8];
     }
 
     public int getTotalScore() {
@@ -26,10 +80,7 @@ public class ScoreBoard {
     }
 
     public void addPoints(int points) {
-        if (points > 0) {
-            this.totalScore += points;
-            this.scoreHistory.add(points);
-        }
+        addRepeatedPoints(points, 1);
     }
 
 
@@ -39,35 +90,65 @@ public class ScoreBoard {
                 .mapToInt(Integer::intValue)
                 .sum();
 
-        if (totalPoints > 0) {
-            this.totalScore += totalPoints;
-            this.scoreHistory.add(totalPoints);
+        addRepeatedPoints(totalPoints, 1);
+    }
+
+    // Records the same points for several turns in a row, in constant time
+    public void addRepeatedPoints(int points, int turns) {
+        if (points <= 0 || turns <= 0) {
+            return;
+        }
+
+        this.totalScore += points * turns;
+        if (numRuns > 0 && runPoints[numRuns - 1] == points) {
+            runLengths[numRuns - 1] += turns;
+            this.turnCount += turns;
+            return;
+        }
+        if (numRuns == runPoints.length) {
+            runPoints = Arrays.copyOf(runPoints, numRuns * 2);
+            runLengths = Arrays.copyOf(runLengths, numRuns * 2);
+            runStarts = Arrays.copyOf(runStarts, numRuns * 2);
         }
+        runPoints[numRuns] = points;
+        runLengths[numRuns] = turns;
+        runStarts[numRuns] = turnCount;
+        numRuns++;
+        this.turnCount += turns;
     }
 
+    // Read-only live view of the points scored each turn
     public List<Integer> getScoreHistory() {
-        return scoreHistory.stream()
-                .collect(Collectors.toList());
+        return historyView;
+    }
+
+
+    // Points scored on the given turn (0 based), found in O(log runs)
+    public int getScoreAt(int turn) {
+        if (turn < 0 || turn >= turnCount) {
+            throw new IndexOutOfBoundsException("Turn " + turn + " of " + turnCount);
+        }
+        int run = Arrays.binarySearch(runStarts, 0, numRuns, turn);
+        // otherwise the turn lies inside the run before the insertion point
+        return runPoints[run >= 0 ? run : -run - 2];
     }
 
 
     public double getAverageScorePerTurn() {
-        if (scoreHistory.isEmpty()) {
+        if (turnCount == 0) {
             return 0.0;
         }
 
-        return scoreHistory.stream()
-                .mapToInt(Integer::intValue)
-                .average()
-                .orElse(0.0);
+        return (double) totalScore / turnCount;
     }
 
 
     public int getMaxScoreInTurn() {
-        return scoreHistory.stream()
-                .mapToInt(Integer::intValue)
-                .max()
-                .orElse(0);
+        int max = 0;
+        for (int i = 0; i < numRuns; i++) {
+            max = Math.max(max, runPoints[i]);
+        }
+        return max;
     }
 
 
@@ -86,21 +167,48 @@ public class ScoreBoard {
     }
 
     public int getTurnCount() {
-        return (int) scoreHistory.stream()
-                .count();
+        return turnCount;
     }
 
 
+    // Points of the last count turns, oldest first, as an unmodifiable copy read straight from the runs
     public List<Integer> getRecentScores(int count) {
-        return scoreHistory.stream()
-                .skip(Math.max(0, scoreHistory.size() - count))
-                .collect(Collectors.toList());
+        Integer[] recent = new Integer[Math.min(Math.max(count, 0), turnCount)];
+        int next = recent.length;
+        for (int run = numRuns - 1; run >= 0 && next > 0; run--) {
+            for (int turn = 0; turn < runLengths[run] && next > 0; turn++) {
+                recent[--next] = runPoints[run];
+            }
+        }
+        return List.of(recent);
+    }
+
+    // Number of runs of identical turns, used when saving the history (see GameCodec)
+    int getRunCount() {
+        return numRuns;
     }
 
+    int getRunPoints(int run) {
+        return runPoints[run];
+    }
+
+    int getRunLength(int run) {
+        return runLengths[run];
+    }
+
+    // Replaces the score with previously saved values, used when restoring saved games
+    void restore(int totalScore, int[] runPoints, int[] runLengths) {
+        reset();
+        for (int i = 0; i < runPoints.length; i++) {
+            addRepeatedPoints(runPoints[i], runLengths[i]);
+        }
+        this.totalScore = totalScore;
+    }
 
     public void reset() {
         this.totalScore = 0;
-        this.scoreHistory.clear();
+        this.turnCount = 0;
+        this.numRuns = 0;
     }
 
     public String getSummary() {
@@ -118,4 +226,3 @@ public class ScoreBoard {
     }
 }
 
-
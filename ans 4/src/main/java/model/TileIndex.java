@@ -0,0 +1,79 @@
+package model;
+
+/**
+ * Counts, for every TILE_SIZE x TILE_SIZE tile of a board snapshot, how many of its cells have been shot
+ * and how many belong to a fort. Readers use it to answer tiles that are all fog, all field and so on
+ * without looking at their cells. Tiles on the right and bottom edges may be smaller.
+ * Counts are kept per row of tiles, so the index of the next turn's snapshot copies only the tile row
+ * its shot changed and shares the others (see withShotCell).
+ */
+public final class TileIndex {
+    public static final int TILE_SIZE = 16;
+
+    private final int boardSize;
+    private final int tilesPerSide;
+    private final int[][] shotCells; // [tile row][tile col], rows shared between indexes and never written
+    private final int[][] fortCells; // shared by every index of a game, forts never move
+
+    TileIndex(int boardSize, int[][] shotCells, int[][] fortCells) {
+        this.boardSize = boardSize;
+        this.tilesPerSide = tilesPerSide(boardSize);
+        this.shotCells = shotCells;
+        this.fortCells = fortCells;
+    }
+
+    // Builds the index by scanning encoded snapshot cells, one array per board row (see GameSnapshot)
+    static TileIndex of(int boardSize, byte[][] rows) {
+        int tiles = tilesPerSide(boardSize);
+        int[][] shotCells = new int[tiles][tiles];
+        int[][] fortCells = new int[tiles][tiles];
+        for (int row = 0; row < boardSize; row++) {
+            int[] shotTiles = shotCells[row / TILE_SIZE];
+            int[] fortTiles = fortCells[row / TILE_SIZE];
+            byte[] cells = rows[row];
+            for (int col = 0; col < boardSize; col++) {
+                int cell = cells[col];
+                if ((cell & GameSnapshot.STATE_MASK) != Cell.CellState.UNKNOWN.ordinal()) {
+                    shotTiles[col / TILE_SIZE]++;
+                }
+                if ((cell & GameSnapshot.FORT_FLAG) != 0) {
+                    fortTiles[col / TILE_SIZE]++;
+                }
+            }
+        }
+        return new TileIndex(boardSize, shotCells, fortCells);
+    }
+
+    // This index with one more shot cell at (row, col), copying only that cell's row of tiles
+    TileIndex withShotCell(int row, int col) {
+        int[][] shots = shotCells.clone();
+        int tileRow = row / TILE_SIZE;
+        shots[tileRow] = shots[tileRow].clone();
+        shots[tileRow][col / TILE_SIZE]++;
+        return new TileIndex(boardSize, shots, fortCells);
+    }
+
+    static int tilesPerSide(int boardSize) {
+        return (boardSize + TILE_SIZE - 1) / TILE_SIZE;
+    }
+
+    public int getTilesPerSide() {
+        return tilesPerSide;
+    }
+
+    // Cells that have been hit or missed in the tile
+    public int getShotCells(int tileRow, int tileCol) {
+        return shotCells[tileRow][tileCol];
+    }
+
+    public int getFortCells(int tileRow, int tileCol) {
+        return fortCells[tileRow][tileCol];
+    }
+
+    // Cells in the tile, fewer than TILE_SIZE * TILE_SIZE on the board's edges
+    public int getCellCount(int tileRow, int tileCol) {
+        int height = Math.min(TILE_SIZE, boardSize - tileRow * TILE_SIZE);
+        int width = Math.min(TILE_SIZE, boardSize - tileCol * TILE_SIZE);
+        return height * width;
+    }
+}
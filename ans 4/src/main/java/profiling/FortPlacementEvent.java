@@ -0,0 +1,30 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for placing one fort at random positions until one is valid.
+ */
+@Name("waterfight.FortPlacement")
+@Label("Fort Placement")
+@Category({"Water Fight", "Game"})
+@Description("One fort placed by FortPlacer")
+@StackTrace(false)
+public class FortPlacementEvent extends jdk.jfr.Event {
+    @Label("Fort")
+    public String fortId;
+
+    @Label("Attempts")
+    public int attempts;
+
+    @Label("Out Of Bounds")
+    @Description("Attempts where the shape did not fit on the board")
+    public int outOfBounds;
+
+    @Label("Placed")
+    public boolean placed;
+}
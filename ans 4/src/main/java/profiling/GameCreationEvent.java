@@ -0,0 +1,27 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for creating a game, most of which is placing its forts.
+ */
+@Name("waterfight.GameCreation")
+@Label("Game Creation")
+@Category({"Water Fight", "Game"})
+@Description("A new game was set up, successfully or not")
+@StackTrace(false)
+public class GameCreationEvent extends jdk.jfr.Event {
+    @Label("Opponents")
+    public int numOpponents;
+
+    @Label("Placement Attempts")
+    @Description("Random positions tried over all forts")
+    public int placementAttempts;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
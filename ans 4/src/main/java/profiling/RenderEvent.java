@@ -0,0 +1,29 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for encoding an API response from a game snapshot, such as the board.
+ * Only responses that were not already cached for the snapshot are rendered.
+ */
+@Name("waterfight.Render")
+@Label("Render")
+@Category({"Water Fight", "API"})
+@Description("An API response encoded from a game snapshot")
+@StackTrace(false)
+public class RenderEvent extends jdk.jfr.Event {
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Game Number")
+    public int gameNumber;
+
+    @Label("Size")
+    @DataAmount
+    public int size;
+}
@@ -0,0 +1,72 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one player shot processed by a GameEngine, with the time spent in each phase.
+ * Phases are timed with lap(), which does nothing unless the event is enabled in the running recording.
+ */
+@Name("waterfight.Shot")
+@Label("Shot")
+@Category({"Water Fight", "Game"})
+@Description("A player shot, with the time spent in each phase of processing it")
+@StackTrace(false)
+public class ShotEvent extends jdk.jfr.Event {
+    @Label("Coordinates")
+    public String coordinates;
+
+    @Label("Hit")
+    public boolean hit;
+
+    @Label("Parse")
+    @Timespan(Timespan.NANOSECONDS)
+    public long parseNanos;
+
+    @Label("Cell Update")
+    @Timespan(Timespan.NANOSECONDS)
+    public long cellUpdateNanos;
+
+    @Label("Hit Attribution")
+    @Timespan(Timespan.NANOSECONDS)
+    public long hitAttributionNanos;
+
+    @Label("Opponent Shots")
+    @Timespan(Timespan.NANOSECONDS)
+    public long opponentShotsNanos;
+
+    @Label("Game State")
+    @Timespan(Timespan.NANOSECONDS)
+    public long gameStateNanos;
+
+    @Label("Publish")
+    @Description("Recording the turn, publishing the new snapshot and notifying listeners")
+    @Timespan(Timespan.NANOSECONDS)
+    public long publishNanos;
+
+    private transient long lastLap;
+
+    // Starts timing the event and its first phase
+    public void start(String coordinates) {
+        if (isEnabled()) {
+            this.coordinates = coordinates;
+            lastLap = System.nanoTime();
+            begin();
+        }
+    }
+
+    // Ends the current phase and starts the next, returns how long the phase took (0 when disabled)
+    public long lap() {
+        if (!isEnabled()) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - lastLap;
+        lastLap = now;
+        return elapsed;
+    }
+}
@@ -0,0 +1,219 @@
+package protocol;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import runtime.ShardedGameRegistry;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Optional TCP server speaking the binary game protocol (see BinaryProtocol).
+ * A single selector thread does all socket I/O; requests are handed to the game shards and
+ * their responses are queued back to the selector, so no thread ever blocks on a game.
+ * Games are shared with the REST API through the same ShardedGameRegistry.
+ * Unlike the REST API, this port has no admission control and no cluster routing: it only serves games
+ * this instance holds, so enable it only on trusted networks and single-instance deployments.
+ */
+@Component
+public class BinaryGameServer {
+    private static final Logger log = LoggerFactory.getLogger(BinaryGameServer.class);
+    private final boolean enabled;
+    private final int port;
+    private final BinaryRequestHandler handler;
+    private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+    private Selector selector;
+    private ServerSocketChannel serverChannel;
+    private Thread selectorThread;
+    private volatile boolean running;
+
+    public BinaryGameServer(@Value("${binary.server.enabled:false}") boolean enabled,
+            @Value("${binary.server.port:9090}") int port,
+            ShardedGameRegistry registry) {
+        this.enabled = enabled;
+        this.port = port;
+        this.handler = new BinaryRequestHandler(registry);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+
+        running = true;
+        selectorThread = new Thread(this::run, "binary-server");
+        selectorThread.setDaemon(true);
+        selectorThread.start();
+        log.info("Binary game protocol listening on port {}", port);
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                selector.select();
+                registerPendingWrites();
+
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Binary server selector failed", e);
+                }
+            }
+        }
+    }
+
+    private void handleKey(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                SocketChannel channel = serverChannel.accept();
+                if (channel != null) {
+                    channel.configureBlocking(false);
+                    channel.socket().setTcpNoDelay(true);
+                    SelectionKey connectionKey = channel.register(selector, SelectionKey.OP_READ);
+                    connectionKey.attach(new Connection(channel, connectionKey));
+                }
+                return;
+            }
+            Connection connection = (Connection) key.attachment();
+            if (key.isReadable()) {
+                connection.read();
+            }
+            if (key.isValid() && key.isWritable()) {
+                connection.write();
+            }
+        } catch (IOException e) {
+            key.cancel();
+            closeQuietly(key);
+        }
+    }
+
+    // Turns on write interest for connections whose responses arrived from the shards
+    private void registerPendingWrites() {
+        Connection connection;
+        while ((connection = pendingWrites.poll()) != null) {
+            if (connection.key.isValid()) {
+                connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // already closing
+        }
+    }
+
+    /**
+     * One client connection: buffers incoming bytes until a full frame arrives,
+     * and queues outgoing frames until the socket can take them.
+     */
+    private final class Connection {
+        private final SocketChannel channel;
+        private final SelectionKey key;
+        private ByteBuffer input = ByteBuffer.allocate(4096);
+        private final Queue<ByteBuffer> output = new ArrayDeque<>();
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+        }
+
+        void read() throws IOException {
+            if (channel.read(input) < 0) {
+                throw new IOException("Connection closed");
+            }
+            input.flip();
+            while (input.remaining() >= 4) {
+                int length = input.getInt(input.position());
+                if (length <= 0 || length > BinaryProtocol.MAX_FRAME_LENGTH) {
+                    throw new IOException("Bad frame length " + length);
+                }
+                if (input.remaining() < 4 + length) {
+                    ensureCapacity(4 + length);
+                    break;
+                }
+                input.position(input.position() + 4);
+                ByteBuffer frame = ByteBuffer.allocate(length);
+                frame.put(input.slice(input.position(), length)).flip();
+                input.position(input.position() + length);
+                handler.handle(frame).thenAccept(this::send);
+            }
+            input.compact();
+        }
+
+        private void ensureCapacity(int frameLength) {
+            if (input.capacity() < frameLength) {
+                ByteBuffer larger = ByteBuffer.allocate(frameLength);
+                larger.put(input);
+                larger.flip();
+                input = larger;
+            }
+        }
+
+        // Called from shard threads once a response is ready
+        void send(ByteBuffer response) {
+            synchronized (output) {
+                output.add(response);
+            }
+            pendingWrites.add(this);
+            selector.wakeup();
+        }
+
+        void write() throws IOException {
+            synchronized (output) {
+                while (!output.isEmpty()) {
+                    ByteBuffer next = output.peek();
+                    channel.write(next);
+                    if (next.hasRemaining()) {
+                        return;
+                    }
+                    output.remove();
+                }
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        selector.wakeup();
+        serverChannel.close();
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key);
+        }
+        selector.close();
+    }
+}
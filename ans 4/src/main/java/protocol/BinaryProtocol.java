@@ -0,0 +1,42 @@
+package protocol;
+
+/**
+ * Constants for the length-prefixed binary game protocol.
+ * All numbers are big-endian.
+ *
+ * Request:  int length, byte opcode, int requestId, payload
+ * Response: int length, int requestId, byte status, payload
+ *
+ * Payloads:
+ *   CREATE_GAME  request: -                                    response: int gameNumber
+ *   FIRE_SHOT    request: int gameNumber, coordinate           response: shot result
+ *   BATCH_SHOTS  request: int gameNumber, short count, count x coordinate
+ *                response: short count, count x shot result (stops once the game is over)
+ *   SNAPSHOT     request: int gameNumber                       response: game snapshot
+ *
+ * coordinate:  byte length, ASCII bytes (e.g. "B5")
+ * shot result: byte flags (1 = hit, 2 = already shot), byte gameState, byte count, count x int score
+ * snapshot:    byte gameState, int opponentPoints, int turnCount, int shotsFired, short boardSize,
+ *              boardSize^2 x byte cellState (0 fog, 1 hit, 2 miss),
+ *              byte numOpponents, per opponent: byte undamagedCells, byte totalCells, byte isDestroyed
+ */
+public final class BinaryProtocol {
+    public static final byte CREATE_GAME = 1;
+    public static final byte FIRE_SHOT = 2;
+    public static final byte BATCH_SHOTS = 3;
+    public static final byte SNAPSHOT = 4;
+
+    public static final byte STATUS_OK = 0;
+    public static final byte STATUS_NOT_FOUND = 1;
+    public static final byte STATUS_BAD_REQUEST = 2;
+    public static final byte STATUS_ERROR = 3;
+
+    public static final byte FLAG_HIT = 1;
+    public static final byte FLAG_ALREADY_SHOT = 2;
+
+    public static final int MAX_FRAME_LENGTH = 64 * 1024;
+    public static final int MAX_BATCH_SIZE = 1024;
+
+    private BinaryProtocol() {
+    }
+}
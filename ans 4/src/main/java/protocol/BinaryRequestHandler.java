@@ -0,0 +1,194 @@
+package protocol;
+
+import model.Cell;
+import model.GameEngine;
+import model.GameSnapshot;
+import model.ShotScore;
+import runtime.GameSession;
+import runtime.ShardedGameRegistry;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Decodes binary protocol requests and runs them against the shared game registry.
+ * Writes go to the owning shard, snapshot reads are served straight from the game's published snapshot.
+ * Nothing here waits on a shard, since the caller is the binary server's selector thread.
+ */
+public class BinaryRequestHandler {
+    private static final int DEFAULT_NUM_OPPONENTS = 5;
+    private final ShardedGameRegistry registry;
+
+    public BinaryRequestHandler(ShardedGameRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Handles one request frame (without its length prefix), completes with the full response frame
+    public CompletableFuture<ByteBuffer> handle(ByteBuffer request) {
+        int requestId = 0;
+        try {
+            byte opcode = request.get();
+            requestId = request.getInt();
+            int id = requestId;
+            return dispatch(opcode, request)
+                    .thenApply(reply -> reply.toFrame(id))
+                    .exceptionally(e -> Reply.status(BinaryProtocol.STATUS_ERROR).toFrame(id));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(Reply.status(BinaryProtocol.STATUS_BAD_REQUEST).toFrame(requestId));
+        }
+    }
+
+    private CompletableFuture<Reply> dispatch(byte opcode, ByteBuffer request) {
+        switch (opcode) {
+            case BinaryProtocol.CREATE_GAME:
+                return registry.createGameAsync(DEFAULT_NUM_OPPONENTS)
+                        .thenApply(session -> Reply.ok(4).putInt(session.getGameNumber()));
+            case BinaryProtocol.FIRE_SHOT: {
+                int gameNumber = request.getInt();
+                String coordinate = readCoordinate(request);
+                return orNotFound(registry.executeAsync(gameNumber, session -> fireShot(session, coordinate)));
+            }
+            case BinaryProtocol.BATCH_SHOTS: {
+                int gameNumber = request.getInt();
+                int count = request.getShort() & 0xFFFF;
+                if (count > BinaryProtocol.MAX_BATCH_SIZE) {
+                    throw new IllegalArgumentException("Batch too large: " + count);
+                }
+                List<String> coordinates = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    coordinates.add(readCoordinate(request));
+                }
+                return orNotFound(registry.executeAsync(gameNumber, session -> fireBatch(session, coordinates)));
+            }
+            case BinaryProtocol.SNAPSHOT:
+                // a hibernating game is woken on its shard, the selector thread does not wait for it
+                return orNotFound(registry.findAsync(request.getInt())
+                        .thenApply(session -> session.map(found -> encodeSnapshot(found.getGame().getSnapshot()))));
+            default:
+                throw new IllegalArgumentException("Unknown opcode " + opcode);
+        }
+    }
+
+    private static CompletableFuture<Reply> orNotFound(CompletableFuture<Optional<Reply>> pending) {
+        return pending.thenApply(reply -> reply.orElseGet(() -> Reply.status(BinaryProtocol.STATUS_NOT_FOUND)));
+    }
+
+    // Runs on the owning shard's thread
+    private static Reply fireShot(GameSession session, String coordinate) {
+        GameEngine game = session.getGame();
+        if (game.isGameOver()) {
+            return Reply.status(BinaryProtocol.STATUS_BAD_REQUEST);
+        }
+        ShotScore shotScore = game.processPlayerShot(coordinate);
+        Reply reply = Reply.ok(3 + 4 * shotScore.getOpponentScores().size());
+        writeShotResult(reply, shotScore);
+        return reply;
+    }
+
+    // Runs on the owning shard's thread
+    private static Reply fireBatch(GameSession session, List<String> coordinates) {
+        GameEngine game = session.getGame();
+        if (game.isGameOver()) {
+            return Reply.status(BinaryProtocol.STATUS_BAD_REQUEST);
+        }
+        List<ShotScore> results = new ArrayList<>(coordinates.size());
+        int size = 2;
+        for (String coordinate : coordinates) {
+            if (game.isGameOver()) {
+                break;
+            }
+            ShotScore shotScore = game.processPlayerShot(coordinate);
+            results.add(shotScore);
+            size += 3 + 4 * shotScore.getOpponentScores().size();
+        }
+
+        Reply reply = Reply.ok(size);
+        reply.buffer.putShort((short) results.size());
+        for (ShotScore shotScore : results) {
+            writeShotResult(reply, shotScore);
+        }
+        return reply;
+    }
+
+    private static void writeShotResult(Reply reply, ShotScore shotScore) {
+        int flags = (shotScore.isHit() ? BinaryProtocol.FLAG_HIT : 0)
+                | (shotScore.wasAlreadyShot() ? BinaryProtocol.FLAG_ALREADY_SHOT : 0);
+        reply.buffer.put((byte) flags);
+        reply.buffer.put((byte) shotScore.getGameState().ordinal());
+        reply.buffer.put((byte) shotScore.getOpponentScores().size());
+        for (int score : shotScore.getOpponentScores()) {
+            reply.buffer.putInt(score);
+        }
+    }
+
+    private static Reply encodeSnapshot(GameSnapshot snapshot) {
+        int boardSize = snapshot.getBoardSize();
+        Reply reply = Reply.ok(15 + boardSize * boardSize + 1 + 3 * snapshot.getNumOpponents());
+        ByteBuffer out = reply.buffer;
+        out.put((byte) snapshot.getGameState().ordinal());
+        out.putInt(snapshot.getTotalScore());
+        out.putInt(snapshot.getTurnCount());
+        out.putInt(snapshot.getNumShotsFired());
+        out.putShort((short) boardSize);
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                Cell.CellState state = snapshot.getCellState(row, col);
+                out.put((byte) state.ordinal());
+            }
+        }
+        out.put((byte) snapshot.getNumOpponents());
+        for (int i = 0; i < snapshot.getNumOpponents(); i++) {
+            GameSnapshot.OpponentSnapshot opponent = snapshot.getOpponent(i);
+            out.put((byte) opponent.getUndamagedCellCount());
+            out.put((byte) opponent.getTotalCellCount());
+            out.put((byte) (opponent.isDestroyed() ? 1 : 0));
+        }
+        return reply;
+    }
+
+    private static String readCoordinate(ByteBuffer request) {
+        int length = request.get() & 0xFF;
+        byte[] ascii = new byte[length];
+        request.get(ascii);
+        return new String(ascii, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A response payload being built, with room reserved for the frame header.
+     */
+    private static final class Reply {
+        private static final int HEADER_LENGTH = 4 + 4 + 1;
+        private final ByteBuffer buffer;
+
+        private Reply(byte status, int payloadLength) {
+            this.buffer = ByteBuffer.allocate(HEADER_LENGTH + payloadLength);
+            buffer.position(HEADER_LENGTH - 1);
+            buffer.put(status);
+        }
+
+        static Reply ok(int payloadLength) {
+            return new Reply(BinaryProtocol.STATUS_OK, payloadLength);
+        }
+
+        static Reply status(byte status) {
+            return new Reply(status, 0);
+        }
+
+        Reply putInt(int value) {
+            buffer.putInt(value);
+            return this;
+        }
+
+        ByteBuffer toFrame(int requestId) {
+            buffer.putInt(0, buffer.position() - 4);
+            buffer.putInt(4, requestId);
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
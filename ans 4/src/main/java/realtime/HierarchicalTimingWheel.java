@@ -0,0 +1,100 @@
+package realtime;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: schedules items for a future tick in constant time, and advancing one tick
+ * only touches the items that are due (plus, once per rotation of a level, the items in one of its slots).
+ * Level 0 has one slot per tick; each slot of level n spans a whole rotation of level n - 1, and its items
+ * cascade down a level when that rotation starts. The cost of a tick therefore depends on how much is due,
+ * not on how many items are scheduled. Not thread-safe: one thread schedules and advances.
+ */
+public class HierarchicalTimingWheel<T> {
+    private static final int SLOT_BITS = 8;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    // Items further out than the wheels reach are scheduled for the last tick they can hold
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    // A scheduled item; slots are singly linked lists of these
+    private static final class Entry<T> {
+        final long deadline;
+        final T item;
+        Entry<T> next;
+
+        Entry(long deadline, T item) {
+            this.deadline = deadline;
+            this.item = item;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private final Entry<T>[][] levels = (Entry<T>[][]) new Entry<?>[LEVELS][SLOTS];
+    private long currentTick;
+    private int size;
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    // Number of items scheduled and not yet due
+    public int size() {
+        return size;
+    }
+
+    // Schedules the item for the given tick, or the next tick if that has already passed
+    public void schedule(long deadlineTick, T item) {
+        long deadline = Math.min(Math.max(deadlineTick, currentTick + 1), currentTick + MAX_DELAY);
+        insert(new Entry<>(deadline, item));
+        size++;
+    }
+
+    // Schedules the item delayTicks after the current tick
+    public void scheduleAfter(long delayTicks, T item) {
+        schedule(currentTick + delayTicks, item);
+    }
+
+    /**
+     * Advances the wheel tick by tick up to toTick, handing every item that becomes due to the consumer,
+     * in deadline order. The consumer may schedule more items.
+     */
+    public void advanceTo(long toTick, Consumer<T> due) {
+        while (currentTick < toTick) {
+            currentTick++;
+
+            // at the start of a rotation, move the next slot of the level above down (and so on up)
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                int slot = (int) (currentTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+                Entry<T> entry = levels[level][slot];
+                levels[level][slot] = null;
+                while (entry != null) {
+                    Entry<T> next = entry.next;
+                    insert(entry);
+                    entry = next;
+                }
+            }
+
+            int slot = (int) currentTick & SLOT_MASK;
+            Entry<T> entry = levels[0][slot];
+            levels[0][slot] = null;
+            while (entry != null) {
+                size--;
+                due.accept(entry.item);
+                entry = entry.next;
+            }
+        }
+    }
+
+    // Puts the entry in the lowest level whose rotation reaches its deadline
+    private void insert(Entry<T> entry) {
+        long delay = entry.deadline - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) (entry.deadline >>> (SLOT_BITS * level)) & SLOT_MASK;
+        entry.next = levels[level][slot];
+        levels[level][slot] = entry;
+    }
+}
@@ -0,0 +1,173 @@
+package realtime;
+
+import jakarta.annotation.PreDestroy;
+import model.GameEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import runtime.GameSession;
+import runtime.SessionListener;
+import runtime.ShardedGameRegistry;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires the opponents of real-time games on their own intervals, whether or not the player shoots.
+ * Every opponent of every real-time game is one item in a single HierarchicalTimingWheel, advanced every tick
+ * by the clock thread. The opponents due in a tick are batched into one volley per game and one task per shard
+ * (see ShardedGameRegistry.executeBatch). At most max-volleys-per-tick opponents are handled per tick and the
+ * rest wait for the next one, so a tick costs the same however many games are running.
+ */
+@Component
+public class RealTimeClock implements SessionListener {
+    private static final Logger log = LoggerFactory.getLogger(RealTimeClock.class);
+
+    // One opponent's timer, scheduled again each time it fires
+    private static final class OpponentTimer {
+        final RealTimeGame game;
+        final int opponentIndex;
+        final long intervalTicks;
+
+        OpponentTimer(RealTimeGame game, int opponentIndex, long intervalTicks) {
+            this.game = game;
+            this.opponentIndex = opponentIndex;
+            this.intervalTicks = intervalTicks;
+        }
+    }
+
+    // The timers of one game; once stopped they are dropped the next time they come up
+    private static final class RealTimeGame {
+        final int gameNumber;
+        final OpponentTimer[] timers;
+        volatile boolean isStopped;
+
+        RealTimeGame(int gameNumber, int numOpponents, long intervalTicks, long spreadTicks) {
+            this.gameNumber = gameNumber;
+            this.timers = new OpponentTimer[numOpponents];
+            for (int i = 0; i < numOpponents; i++) {
+                timers[i] = new OpponentTimer(this, i, intervalTicks + i * spreadTicks);
+            }
+        }
+    }
+
+    private final ObjectProvider<ShardedGameRegistry> registry;
+    private final long tickNanos;
+    private final long intervalTicks;
+    private final long spreadTicks;
+    private final int maxVolleysPerTick;
+    private final long startNanos = System.nanoTime();
+
+    // Only used on the clock thread
+    private final HierarchicalTimingWheel<OpponentTimer> wheel = new HierarchicalTimingWheel<>();
+    private final ArrayDeque<OpponentTimer> due = new ArrayDeque<>();
+
+    // Handed from the shard threads to the clock thread
+    private final Queue<RealTimeGame> started = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, RealTimeGame> running = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService clock;
+
+    // The registry is looked up lazily, it needs this listener to be created first
+    public RealTimeClock(ObjectProvider<ShardedGameRegistry> registry,
+                         @Value("${realtime.tick-millis:10}") long tickMillis,
+                         @Value("${realtime.interval-millis:3000}") long intervalMillis,
+                         @Value("${realtime.interval-spread-millis:500}") long spreadMillis,
+                         @Value("${realtime.max-volleys-per-tick:10000}") int maxVolleysPerTick) {
+        this.registry = registry;
+        long tick = Math.max(tickMillis, 1);
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tick);
+        this.intervalTicks = Math.max(intervalMillis / tick, 1);
+        this.spreadTicks = Math.max(spreadMillis / tick, 0);
+        this.maxVolleysPerTick = Math.max(maxVolleysPerTick, 1);
+        this.clock = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "realtime-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        clock.scheduleAtFixedRate(this::tick, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    // Real-time games still in progress on this instance
+    public int getNumRunningGames() {
+        return running.size();
+    }
+
+    @Override
+    public void sessionCreated(GameSession session) {
+        sessionAdopted(session);
+    }
+
+    @Override
+    public void sessionAdopted(GameSession session) {
+        GameEngine game = session.getGame();
+        if (game.isRealTime() && !game.isGameOver()) {
+            RealTimeGame realTimeGame = new RealTimeGame(session.getGameNumber(), game.getOpponents().size(),
+                    intervalTicks, spreadTicks);
+            stop(running.put(session.getGameNumber(), realTimeGame));
+            started.add(realTimeGame);
+        }
+    }
+
+    @Override
+    public void sessionReleased(GameSession session) {
+        stop(running.remove(session.getGameNumber()));
+    }
+
+    @Override
+    public void gameStateChanged(GameSession session, GameEngine.GameState previousState) {
+        if (session.getGame().isGameOver()) {
+            stop(running.remove(session.getGameNumber()));
+        }
+    }
+
+    private static void stop(RealTimeGame game) {
+        if (game != null) {
+            game.isStopped = true;
+        }
+    }
+
+    // On the clock thread: starts new timers, collects the due ones and sends their volleys to the shards
+    private void tick() {
+        try {
+            for (RealTimeGame game = started.poll(); game != null; game = started.poll()) {
+                for (OpponentTimer timer : game.timers) {
+                    wheel.scheduleAfter(timer.intervalTicks, timer);
+                }
+            }
+            wheel.advanceTo((System.nanoTime() - startNanos) / tickNanos, due::add);
+
+            // bit i of a game's mask is set when its opponent i fires
+            Map<Integer, Integer> volleys = new HashMap<>();
+            for (int handled = 0; handled < maxVolleysPerTick && !due.isEmpty(); handled++) {
+                OpponentTimer timer = due.poll();
+                if (!timer.game.isStopped) {
+                    volleys.merge(timer.game.gameNumber, 1 << timer.opponentIndex, (a, b) -> a | b);
+                    wheel.scheduleAfter(timer.intervalTicks, timer);
+                }
+            }
+            if (!volleys.isEmpty()) {
+                registry.getObject().executeBatch(volleys, (session, mask) -> session.getGame().fireOpponents(mask))
+                        .exceptionally(e -> {
+                            log.error("Unable to fire real-time volleys", e);
+                            return null;
+                        });
+            }
+        } catch (RuntimeException e) {
+            log.error("Real-time clock tick failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clock.shutdown();
+    }
+}
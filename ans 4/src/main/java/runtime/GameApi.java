@@ -0,0 +1,440 @@
+package runtime;
+
+import dto.ApiBulkGamesDTO;
+import dto.ApiForecastDTO;
+import dto.ApiGameDTO;
+import dto.ApiLeaderboardDTO;
+import dto.ApiLocationDTO;
+import dto.ApiShotDTO;
+import dto.ApiShotRequestDTO;
+import dto.ApiStatsDTO;
+import dto.GameJsonWriter;
+import model.GameEngine;
+import model.GameSnapshot;
+import model.Map;
+import model.ShotScore;
+import profiling.RenderEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The game API's limits, validation and responses, shared by controller.GameController and the embedded
+ * server's GameApiHandler so both answer every request the same way. Each call returns the HTTP status and
+ * the DTO or encoded JSON to send; routing, parameter binding and headers are left to the front end.
+ */
+public class GameApi {
+    public static final String ABOUT = "Yadav Singh";
+    public static final int DEFAULT_NUM_OPPONENTS = 5;
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int MAX_BULK_COUNT = 10_000;
+    public static final int MAX_REGION_CELLS = 256 * 256;
+    public static final String TURN_BASED_MODE = "turns";
+    public static final String REAL_TIME_MODE = "realtime";
+    // Finished games do not change again, but their numbers can be reused after a restart or be moved to
+    // another node, so caches keep them briefly and then revalidate with the ETag
+    public static final long FINISHED_GAME_MAX_AGE_SECONDS = 60;
+    // Request paths admission control charges to a client's creation budget and to its shot budget,
+    // * standing for one path segment. Shared by both servers so they limit the same endpoints
+    public static final List<String> CREATION_PATHS = List.of(
+            "/api/games", "/api/games/bulk", "/api/games/*/forks", "/api/games/*/forks/*/forks",
+            "/api/multiplayer/games");
+    public static final List<String> TURN_PATHS = List.of(
+            "/api/games/*/shots", "/api/games/*/moves", "/api/games/*/fastforward",
+            "/api/games/*/forks/*/shots", "/api/multiplayer/games/*/shots");
+    private static final String FAST_FORWARD_SUFFIX = "/fastforward";
+    private static final int STREAM_PAGE_SIZE = 256;
+    // Random seeds stay below 2^48 so they are exact as JavaScript numbers
+    private static final long RANDOM_SEED_BOUND = 1L << 48;
+
+    private final ShardedGameRegistry registry;
+    private final GameStatistics statistics;
+    private final Leaderboard leaderboard;
+    private final boolean isRealTimeSupported;
+
+    // Without real-time support (nothing to fire the opponents) mode=realtime is rejected
+    public GameApi(ShardedGameRegistry registry, GameStatistics statistics, Leaderboard leaderboard,
+            boolean isRealTimeSupported) {
+        this.registry = registry;
+        this.statistics = statistics;
+        this.leaderboard = leaderboard;
+        this.isRealTimeSupported = isRealTimeSupported;
+    }
+
+    // An HTTP status code and the body to send with it, null for none
+    public record Result<T>(int status, T body) {
+        public static <T> Result<T> of(int status, T body) {
+            return new Result<>(status, body);
+        }
+
+        public static <T> Result<T> status(int status) {
+            return new Result<>(status, null);
+        }
+    }
+
+    // One page of the game listing as a JSON array; nextCursor is null when no more games can follow
+    public record GamePage(byte[] json, String nextCursor) {
+    }
+
+    // An encoded read response with its ETag; final responses will not change again
+    public record CachedResponse(byte[] json, String eTag, boolean isFinal) {
+    }
+
+    // Writes a streamed response body
+    @FunctionalInterface
+    public interface GameStream {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Lists games in game number order, optionally filtered by state and paged with a cursor.
+     * When a limit is given and the page is full, the page carries the cursor of the next one.
+     * Without a limit every matching game is returned.
+     */
+    public Result<GamePage> listGames(Integer cursor, Integer limit, String state) {
+        Optional<Predicate<GameSession>> filter = parseStateFilter(state);
+        boolean isLimitValid = limit == null || (limit > 0 && limit <= MAX_PAGE_SIZE);
+        if (filter.isEmpty() || !isLimitValid || (cursor != null && cursor < 0)) {
+            return Result.status(400);
+        }
+
+        int pageSize = limit == null ? Integer.MAX_VALUE : limit;
+        List<GameSession> page = registry.listGames(cursor == null ? 0 : cursor, pageSize, filter.get());
+        GameJsonWriter json = new GameJsonWriter();
+        json.writeRaw("[");
+        for (int i = 0; i < page.size(); i++) {
+            if (i > 0) {
+                json.writeRaw(",");
+            }
+            GameSession session = page.get(i);
+            json.writeGame(session.getGame().getSnapshot(), session.getGameNumber());
+        }
+        json.writeRaw("]");
+
+        String nextCursor = page.size() == pageSize
+                ? String.valueOf(page.get(page.size() - 1).getGameNumber() + 1)
+                : null;
+        return Result.of(200, new GamePage(json.toByteArray(), nextCursor));
+    }
+
+    /**
+     * Same listing as listGames, streamed as one JSON game per line (NDJSON) with no page size limit.
+     * Games are read and written a page at a time, so memory use does not grow with the number of games.
+     */
+    public Result<GameStream> streamGames(Integer cursor, Integer limit, String state) {
+        Optional<Predicate<GameSession>> filter = parseStateFilter(state);
+        if (filter.isEmpty() || (limit != null && limit <= 0) || (cursor != null && cursor < 0)) {
+            return Result.status(400);
+        }
+
+        int firstNumber = cursor == null ? 0 : cursor;
+        int maxGames = limit == null ? Integer.MAX_VALUE : limit;
+        return Result.of(200, out -> {
+            GameJsonWriter json = new GameJsonWriter(STREAM_PAGE_SIZE * 160);
+            int fromNumber = firstNumber;
+            int remaining = maxGames;
+            while (remaining > 0) {
+                int pageSize = Math.min(STREAM_PAGE_SIZE, remaining);
+                List<GameSession> page = registry.listGames(fromNumber, pageSize, filter.get());
+                json.reset();
+                for (GameSession session : page) {
+                    json.writeGame(session.getGame().getSnapshot(), session.getGameNumber()).writeRaw("\n");
+                }
+                json.writeTo(out);
+                out.flush();
+
+                if (page.size() < pageSize) {
+                    break;
+                }
+                fromNumber = page.get(page.size() - 1).getGameNumber() + 1;
+                remaining -= page.size();
+            }
+        });
+    }
+
+    // Accepts in_progress, won or lost (any case); no state means every game, anything else is invalid
+    private static Optional<Predicate<GameSession>> parseStateFilter(String state) {
+        if (state == null || state.isEmpty()) {
+            return Optional.of(session -> true);
+        }
+
+        GameEngine.GameState wanted;
+        switch (state.toLowerCase(Locale.ROOT)) {
+            case "in_progress" -> wanted = GameEngine.GameState.IN_PROGRESS;
+            case "won" -> wanted = GameEngine.GameState.PLAYER_WON;
+            case "lost" -> wanted = GameEngine.GameState.OPPONENTS_WON;
+            default -> {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(session -> session.getGame().getSnapshot().getGameState() == wanted);
+    }
+
+    // With mode=realtime the opponents fire on their own clock instead of after each shot;
+    // boardSize makes the board larger than the standard 10 x 10
+    public Result<ApiGameDTO> createGame(String mode, Integer boardSize) {
+        boolean isRealTime = isRealTimeSupported && REAL_TIME_MODE.equalsIgnoreCase(mode);
+        boolean isBoardSizeValid = boardSize == null
+                || (boardSize >= Map.DEFAULT_BOARD_SIZE && boardSize <= Map.MAX_BOARD_SIZE);
+        if ((mode != null && !isRealTime && !TURN_BASED_MODE.equalsIgnoreCase(mode)) || !isBoardSizeValid) {
+            return Result.status(400);
+        }
+
+        try {
+            GameSession session = registry.createGame(DEFAULT_NUM_OPPONENTS,
+                    boardSize == null ? Map.DEFAULT_BOARD_SIZE : boardSize, isRealTime);
+            return Result.of(201, makeGameDTO(session));
+        } catch (Exception e) {
+            return Result.status(500);
+        }
+    }
+
+    /**
+     * Creates count games at once, e.g. to set up a tournament or a load test.
+     * Game i's forts are placed from seed + i, from a random seed when none is given;
+     * the seeds actually used are returned with the game numbers.
+     */
+    public Result<ApiBulkGamesDTO> createGames(int count, Long seed) {
+        if (count <= 0 || count > MAX_BULK_COUNT) {
+            return Result.status(400);
+        }
+
+        long firstSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong(RANDOM_SEED_BOUND);
+        long[] seeds = new long[count];
+        for (int i = 0; i < count; i++) {
+            seeds[i] = firstSeed + i;
+        }
+        try {
+            List<GameSession> sessions = registry.createGames(DEFAULT_NUM_OPPONENTS, seeds);
+            return Result.of(201, ApiBulkGamesDTO.makeFromSessions(sessions, seeds));
+        } catch (Exception e) {
+            return Result.status(500);
+        }
+    }
+
+    public Result<CachedResponse> getGame(int gameNumber) {
+        return cachedResponse(gameNumber, session -> ResponseCache.Endpoint.GAME,
+                (session, snapshot, json) -> json.writeGame(snapshot, session.getGameNumber()));
+    }
+
+    public Result<CachedResponse> getBoard(int gameNumber) {
+        return cachedResponse(gameNumber,
+                session -> session.isCheatMode() ? ResponseCache.Endpoint.BOARD_CHEAT : ResponseCache.Endpoint.BOARD,
+                (session, snapshot, json) -> json.writeBoard(snapshot, session.isCheatMode()));
+    }
+
+    public Result<CachedResponse> getOpponents(int gameNumber) {
+        return cachedResponse(gameNumber, session -> ResponseCache.Endpoint.OPPONENTS,
+                (session, snapshot, json) -> json.writeOpponents(snapshot));
+    }
+
+    public Result<CachedResponse> getScoreboard(int gameNumber) {
+        return cachedResponse(gameNumber, session -> ResponseCache.Endpoint.SCOREBOARD,
+                (session, snapshot, json) -> json.writeScoreBoard(snapshot));
+    }
+
+    /**
+     * A rectangle of the board, height rows from row and width columns from col (0 based),
+     * cut off at the board's edges. At most MAX_REGION_CELLS cells can be asked for at once.
+     */
+    public Result<byte[]> getBoardRegion(int gameNumber, int row, int col, int height, int width) {
+        Optional<GameSession> found = registry.find(gameNumber);
+        if (found.isEmpty()) {
+            return Result.status(404);
+        }
+
+        GameSession session = found.get();
+        GameSnapshot snapshot = session.getGame().getSnapshot();
+        int boardSize = snapshot.getBoardSize();
+        if (row < 0 || col < 0 || row >= boardSize || col >= boardSize || height <= 0 || width <= 0) {
+            return Result.status(400);
+        }
+        int clippedHeight = Math.min(height, boardSize - row);
+        int clippedWidth = Math.min(width, boardSize - col);
+        if ((long) clippedHeight * clippedWidth > MAX_REGION_CELLS) {
+            return Result.status(400);
+        }
+
+        RenderEvent event = new RenderEvent();
+        event.begin();
+        byte[] body = new GameJsonWriter()
+                .writeBoardRegion(snapshot, session.isCheatMode(), row, col, clippedHeight, clippedWidth)
+                .toByteArray();
+        if (event.shouldCommit()) {
+            event.endpoint = "BOARD_REGION";
+            event.gameNumber = gameNumber;
+            event.size = body.length;
+            event.commit();
+        }
+        return Result.of(200, body);
+    }
+
+    public Result<Void> setCheatState(int gameNumber, String cheatCommand) {
+        String trimmed = cheatCommand != null ? cheatCommand.trim() : "";
+        // Remove surrounding quotes if present
+        if (trimmed.startsWith("\"") && trimmed.endsWith("\"")) {
+            trimmed = trimmed.substring(1, trimmed.length() - 1);
+        }
+        boolean showAll = "SHOW_ALL".equals(trimmed);
+
+        Optional<Integer> status = registry.execute(gameNumber, session -> {
+            if (!showAll) {
+                return 400;
+            }
+            session.enableCheatMode();
+            return 202;
+        });
+        return Result.status(status.orElse(404));
+    }
+
+    public Result<Void> processMove(int gameNumber, ApiLocationDTO location) {
+        Optional<Integer> status = registry.execute(gameNumber, session -> {
+            // Check if location is on the board and the game is still running
+            int boardSize = session.getGame().getMap().getBoardSize();
+            boolean isLocationValid = location != null && location.row >= 0 && location.row < boardSize &&
+                    location.col >= 0 && location.col < boardSize;
+            if (!isLocationValid || session.getGame().isGameOver()) {
+                return 400;
+            }
+
+            // Convert row/col to coordinate string (e.g., row=1, col=4 -> "B5")
+            String coordinate = Map.toCoordinates(location.row, location.col);
+
+            // Process the shot
+            session.getGame().processPlayerShot(coordinate);
+            return 202;
+        });
+        return Result.status(status.orElse(404));
+    }
+
+    public Result<ApiShotDTO> processShot(int gameNumber, ApiShotRequestDTO shotRequest) {
+        boolean isRequestValid = shotRequest != null && shotRequest.shot != null && !shotRequest.shot.isEmpty();
+
+        Optional<Result<ApiShotDTO>> result = registry.execute(gameNumber, session -> {
+            // Check if request is usable and the game is still running
+            if (!isRequestValid || session.getGame().isGameOver()) {
+                return Result.<ApiShotDTO>status(400);
+            }
+
+            // Process the shot
+            ShotScore shotScore = session.getGame().processPlayerShot(shotRequest.shot);
+            return Result.of(200, ApiShotDTO.makeFromShotScore(shotScore));
+        });
+        return result.orElseGet(() -> Result.status(404));
+    }
+
+    // Totals over every game on this server, read from running counters instead of scanning the games
+    public Result<ApiStatsDTO> getStats() {
+        return Result.of(200, ApiStatsDTO.makeFromStatistics(statistics));
+    }
+
+    // Best won games, from the standings the leaderboard published when they were won
+    public Result<ApiLeaderboardDTO> getLeaderboard() {
+        return Result.of(200, ApiLeaderboardDTO.makeFromStandings(leaderboard.getStandings()));
+    }
+
+    // Built from the game's published snapshot, so it never waits on the owning shard
+    public Result<ApiForecastDTO> getForecast(int gameNumber) {
+        return registry.find(gameNumber)
+                .map(session -> Result.of(200, ApiForecastDTO.makeFromSnapshot(session.getGame().getSnapshot())))
+                .orElseGet(() -> Result.status(404));
+    }
+
+    // Plays the given number of missed turns at once (all remaining turns if not given)
+    public Result<ApiGameDTO> fastForward(int gameNumber, Integer turns) {
+        if (turns != null && turns < 0) {
+            return Result.status(400);
+        }
+
+        return registry.execute(gameNumber, session -> {
+            if (turns == null) {
+                session.getGame().simulateUntilEnd();
+            } else {
+                session.getGame().fastForward(turns);
+            }
+            return Result.of(200, makeGameDTO(session));
+        }).orElseGet(() -> Result.status(404));
+    }
+
+    /**
+     * Serves a read endpoint from the game's response cache, encoding the snapshot only when the
+     * game changed since the cached copy. Every response has an ETag for If-None-Match.
+     */
+    private Result<CachedResponse> cachedResponse(int gameNumber,
+            Function<GameSession, ResponseCache.Endpoint> endpoint,
+            SnapshotEncoder encoder) {
+        Optional<GameSession> found = registry.find(gameNumber);
+        if (found.isEmpty()) {
+            return Result.status(404);
+        }
+
+        GameSession session = found.get();
+        GameSnapshot snapshot = session.getGame().getSnapshot();
+        ResponseCache.Endpoint cached = endpoint.apply(session);
+        ResponseCache.Entry response = session.getResponseCache().get(cached, snapshot.getVersion(),
+                () -> {
+                    RenderEvent event = new RenderEvent();
+                    event.begin();
+                    GameJsonWriter json = new GameJsonWriter();
+                    encoder.encode(session, snapshot, json);
+                    byte[] encoded = json.toByteArray();
+                    if (event.shouldCommit()) {
+                        event.endpoint = cached.name();
+                        event.gameNumber = gameNumber;
+                        event.size = encoded.length;
+                        event.commit();
+                    }
+                    return encoded;
+                });
+
+        // The normal board of a finished game still changes if cheat mode is turned on later
+        boolean isFinal = snapshot.isGameOver() && cached != ResponseCache.Endpoint.BOARD;
+        return Result.of(200, new CachedResponse(response.getBytes(), response.getETag(), isFinal));
+    }
+
+    // Writes one read endpoint's JSON for a snapshot of the session's game
+    @FunctionalInterface
+    private interface SnapshotEncoder {
+        void encode(GameSession session, GameSnapshot snapshot, GameJsonWriter json);
+    }
+
+    /**
+     * Admission tokens a creation request costs: one per cellsPerToken cells (rounded up) of each game.
+     * Counts and board sizes the API would reject are charged as one game on the default board.
+     */
+    public static int creationCost(int count, int boardSize, int cellsPerToken) {
+        int games = count < 1 || count > MAX_BULK_COUNT ? 1 : count;
+        int size = boardSize < 1 || boardSize > Map.MAX_BOARD_SIZE ? Map.DEFAULT_BOARD_SIZE : boardSize;
+        long cellsPerGame = (long) size * size;
+        long tokensPerGame = (cellsPerGame + cellsPerToken - 1) / cellsPerToken;
+        return (int) Math.min(games * tokensPerGame, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Admission tokens a request on one of TURN_PATHS costs: one per turn it plays. A fast-forward
+     * costs its turns, or the whole burst when it plays until the end; malformed turns cost one
+     * and are rejected by the API.
+     */
+    public static int turnCost(String path, String turns, int burst) {
+        if (!path.endsWith(FAST_FORWARD_SUFFIX)) {
+            return 1;
+        } else if (turns == null || turns.isEmpty()) {
+            return burst;
+        }
+        try {
+            return Math.max(Integer.parseInt(turns), 1);
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    private static ApiGameDTO makeGameDTO(GameSession session) {
+        return ApiGameDTO.makeFromSnapshot(session.getGame().getSnapshot(), session.getGameNumber());
+    }
+}
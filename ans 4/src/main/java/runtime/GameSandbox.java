@@ -0,0 +1,55 @@
+package runtime;
+
+import model.GameFork;
+import model.GameSnapshot;
+import model.ShotScore;
+
+/**
+ * A fork of a game that API clients can play hypothetical shots on without touching the real game.
+ * The fork itself is not thread safe, so every access goes through this object's lock.
+ */
+public class GameSandbox {
+    private final int forkId;
+    private final int gameNumber;
+    private final GameFork fork;
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    GameSandbox(int forkId, int gameNumber, GameFork fork) {
+        this.forkId = forkId;
+        this.gameNumber = gameNumber;
+        this.fork = fork;
+    }
+
+    public int getForkId() {
+        return forkId;
+    }
+
+    // The real game this sandbox was forked from
+    public int getGameNumber() {
+        return gameNumber;
+    }
+
+    public synchronized ShotScore processPlayerShot(String shotCoordinates) {
+        return fork.processPlayerShot(shotCoordinates);
+    }
+
+    public synchronized boolean isGameOver() {
+        return fork.isGameOver();
+    }
+
+    public synchronized GameSnapshot getSnapshot() {
+        return fork.getSnapshot();
+    }
+
+    synchronized GameFork fork() {
+        return fork.fork();
+    }
+
+    long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+}
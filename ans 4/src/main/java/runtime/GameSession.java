@@ -0,0 +1,60 @@
+package runtime;
+
+import model.GameEngine;
+
+/**
+ * Holds a single game together with the per-game settings the API needs, such as cheat mode.
+ * A session is owned by exactly one GameShard and its game is only changed from that shard's thread;
+ * other threads read the game through its published GameSnapshot.
+ */
+public class GameSession {
+    private final int gameNumber;
+    private final GameEngine game;
+    private volatile boolean cheatMode;
+    private final ResponseCache responseCache = new ResponseCache();
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    public GameSession(int gameNumber, GameEngine game) {
+        this(gameNumber, game, false);
+    }
+
+    // Rebuilds a session from previously saved state (see GameSessionCodec)
+    GameSession(int gameNumber, GameEngine game, boolean cheatMode) {
+        this.gameNumber = gameNumber;
+        this.game = game;
+        this.cheatMode = cheatMode;
+    }
+
+    public int getGameNumber() {
+        return gameNumber;
+    }
+
+    public GameEngine getGame() {
+        return game;
+    }
+
+    // Encoded API responses for this game, keyed by the game's snapshot version
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    // Records that the game was just used, so it is not hibernated for a while
+    public void touch() {
+        long now = System.currentTimeMillis();
+        if (now != lastAccessMillis) {
+            lastAccessMillis = now;
+        }
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    public boolean isCheatMode() {
+        return cheatMode;
+    }
+
+    public void enableCheatMode() {
+        this.cheatMode = true;
+    }
+}
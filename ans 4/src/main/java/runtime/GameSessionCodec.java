@@ -0,0 +1,41 @@
+package runtime;
+
+import model.GameCodec;
+import model.GameEngine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Encodes a GameSession (game number, cheat mode and the game)
+ * into a byte array so it can be handed to another node, and decodes it again.
+ */
+public class GameSessionCodec {
+
+    private GameSessionCodec() {
+    }
+
+    public static byte[] encode(GameSession session) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(session.getGameNumber());
+            out.writeBoolean(session.isCheatMode());
+            GameCodec.write(session.getGame(), out);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode game " + session.getGameNumber(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static GameSession decode(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int gameNumber = in.readInt();
+            boolean cheatMode = in.readBoolean();
+            GameEngine game = GameCodec.read(in);
+            return new GameSession(gameNumber, game, cheatMode);
+        }
+    }
+}
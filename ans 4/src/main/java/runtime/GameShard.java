@@ -0,0 +1,71 @@
+package runtime;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One partition of the game registry.
+ * Owns its games and runs every change to them on a single dedicated thread,
+ * so writers never need locking and shards never contend with each other.
+ * Readers on other threads may look games up directly and read their published snapshots.
+ * Games that have been idle for a while are kept separately, encoded by GameSessionCodec.
+ */
+public class GameShard {
+    private final int shardIndex;
+    private final ScheduledExecutorService executor;
+    private final Map<Integer, GameSession> sessions = new ConcurrentHashMap<>();
+    private final Map<Integer, byte[]> hibernated = new ConcurrentHashMap<>();
+
+    public GameShard(int shardIndex) {
+        this.shardIndex = shardIndex;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-shard-" + shardIndex);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    // Runs the task on this shard's thread with access to the shard's games
+    public <T> CompletableFuture<T> submit(Function<Map<Integer, GameSession>, T> task) {
+        return CompletableFuture.supplyAsync(() -> task.apply(sessions), executor);
+    }
+
+    // Runs the task on this shard's thread every periodMillis, until the shard shuts down
+    public void scheduleRepeating(Consumer<Map<Integer, GameSession>> task, long periodMillis) {
+        executor.scheduleWithFixedDelay(() -> task.accept(sessions), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Looks a game up without going through the shard thread
+    public GameSession find(int gameNumber) {
+        return sessions.get(gameNumber);
+    }
+
+    // All games owned by this shard, readable from any thread
+    public Collection<GameSession> getSessions() {
+        return sessions.values();
+    }
+
+    /**
+     * Encoded games that are hibernating, keyed by game number. Readable from any thread,
+     * but only changed on this shard's thread. A game is in here or in the live games, never both
+     * for longer than it takes to move it.
+     */
+    public Map<Integer, byte[]> getHibernated() {
+        return hibernated;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
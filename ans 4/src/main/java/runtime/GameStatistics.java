@@ -0,0 +1,147 @@
+package runtime;
+
+import model.GameEngine;
+import model.ShotScore;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals over every game on this instance, updated as games are created, shot at and finished.
+ * The counters are LongAdders, which spread updates from the shard threads over separate cells,
+ * so recording never contends and reading the totals costs the same no matter how many games exist.
+ */
+@Component
+public class GameStatistics implements SessionListener {
+    private final LongAdder gamesCreated = new LongAdder();
+    private final LongAdder gamesInProgress = new LongAdder();
+    private final LongAdder gamesWon = new LongAdder();
+    private final LongAdder gamesLost = new LongAdder();
+    private final LongAdder shotsFired = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder wins = new LongAdder();
+    private final LongAdder shotsToWin = new LongAdder();
+    private final LongAdder gamesHibernated = new LongAdder();
+    private final LongAdder hibernatedBytes = new LongAdder();
+    private final LongAdder rehydrations = new LongAdder();
+    private final LongAdder rehydrationNanos = new LongAdder();
+    private final LongAccumulator maxRehydrationNanos = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void sessionCreated(GameSession session) {
+        gamesCreated.increment();
+        sessionAdopted(session);
+    }
+
+    @Override
+    public void sessionAdopted(GameSession session) {
+        counterFor(session.getGame().getGameState()).increment();
+    }
+
+    @Override
+    public void sessionReleased(GameSession session) {
+        counterFor(session.getGame().getGameState()).decrement();
+    }
+
+    @Override
+    public void sessionHibernated(GameSession session, int encodedSize) {
+        gamesHibernated.increment();
+        hibernatedBytes.add(encodedSize);
+    }
+
+    @Override
+    public void sessionRehydrated(GameSession session, int encodedSize, long nanos) {
+        gamesHibernated.decrement();
+        hibernatedBytes.add(-encodedSize);
+        rehydrations.increment();
+        rehydrationNanos.add(nanos);
+        maxRehydrationNanos.accumulate(nanos);
+    }
+
+    @Override
+    public void shotFired(GameSession session, ShotScore shotScore) {
+        shotsFired.increment();
+        if (shotScore.isHit()) {
+            hits.increment();
+        }
+    }
+
+    // Fast-forwarded turns are all misses
+    @Override
+    public void shotsFired(GameSession session, int count, ShotScore shotScore) {
+        shotsFired.add(count);
+    }
+
+    @Override
+    public void gameStateChanged(GameSession session, GameEngine.GameState previousState) {
+        GameEngine game = session.getGame();
+        counterFor(previousState).decrement();
+        counterFor(game.getGameState()).increment();
+        if (game.getGameState() == GameEngine.GameState.PLAYER_WON) {
+            wins.increment();
+            shotsToWin.add(game.getNumShotsFired());
+        }
+    }
+
+    public long getGamesCreated() {
+        return gamesCreated.sum();
+    }
+
+    public long getGamesInProgress() {
+        return gamesInProgress.sum();
+    }
+
+    public long getGamesWon() {
+        return gamesWon.sum();
+    }
+
+    public long getGamesLost() {
+        return gamesLost.sum();
+    }
+
+    public long getShotsFired() {
+        return shotsFired.sum();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    // Games currently hibernating, and the bytes their encoded form takes up
+    public long getGamesHibernated() {
+        return gamesHibernated.sum();
+    }
+
+    public long getHibernatedBytes() {
+        return hibernatedBytes.sum();
+    }
+
+    public long getRehydrations() {
+        return rehydrations.sum();
+    }
+
+    // Average and longest time taken to decode a hibernating game, 0 if none was decoded yet
+    public double getAverageRehydrationMicros() {
+        long count = rehydrations.sum();
+        return count == 0 ? 0 : rehydrationNanos.sum() / 1000.0 / count;
+    }
+
+    public double getMaxRehydrationMicros() {
+        return maxRehydrationNanos.get() / 1000.0;
+    }
+
+    // Average shots the player needed over the games won here, 0 if none were won yet
+    public double getAverageShotsToWin() {
+        long numWins = wins.sum();
+        return numWins == 0 ? 0 : (double) shotsToWin.sum() / numWins;
+    }
+
+    private LongAdder counterFor(GameEngine.GameState state) {
+        return switch (state) {
+            case IN_PROGRESS -> gamesInProgress;
+            case PLAYER_WON -> gamesWon;
+            case OPPONENTS_WON -> gamesLost;
+        };
+    }
+}
@@ -0,0 +1,138 @@
+package runtime;
+
+import model.GameEngine;
+import model.GameSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Best won games on this instance, for each Ranking.
+ * Every ranking keeps only its top k games in a bounded heap whose root is the worst of them,
+ * so a new win costs O(log k) and is dropped at once when it does not make the cut.
+ * After each change a sorted, immutable Standings is published for readers.
+ */
+@Component
+public class Leaderboard implements SessionListener {
+    private final int size;
+    private final Map<Ranking, PriorityQueue<Entry>> heaps = new EnumMap<>(Ranking.class);
+    private volatile Standings standings;
+
+    // What the games are ranked by, lower is better for all of them
+    public enum Ranking {
+        FEWEST_SHOTS(Comparator.comparingInt(Entry::getShotsFired)),
+        LOWEST_OPPONENT_POINTS(Comparator.comparingInt(Entry::getOpponentPoints));
+
+        // Ties go to the game that was created first
+        private final Comparator<Entry> order;
+
+        Ranking(Comparator<Entry> order) {
+            this.order = order.thenComparingInt(Entry::getGameNumber);
+        }
+    }
+
+    public Leaderboard(@Value("${leaderboard.size:10}") int size) {
+        this.size = Math.max(size, 1);
+        for (Ranking ranking : Ranking.values()) {
+            // reversed, so the root is the entry to drop first
+            heaps.put(ranking, new PriorityQueue<>(this.size + 1, ranking.order.reversed()));
+        }
+        this.standings = new Standings(0, new EnumMap<>(Ranking.class));
+    }
+
+    @Override
+    public void gameStateChanged(GameSession session, GameEngine.GameState previousState) {
+        GameSnapshot snapshot = session.getGame().getSnapshot();
+        if (snapshot.getGameState() == GameEngine.GameState.PLAYER_WON) {
+            record(new Entry(session.getGameNumber(), snapshot.getNumShotsFired(), snapshot.getTotalScore()));
+        }
+    }
+
+    // Wins arrive from every shard thread, but rarely enough that one lock is fine
+    synchronized void record(Entry entry) {
+        boolean changed = false;
+        for (Ranking ranking : Ranking.values()) {
+            PriorityQueue<Entry> heap = heaps.get(ranking);
+            if (heap.size() < size) {
+                heap.add(entry);
+                changed = true;
+            } else if (ranking.order.compare(entry, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(entry);
+                changed = true;
+            }
+        }
+        if (changed) {
+            publish();
+        }
+    }
+
+    private void publish() {
+        Map<Ranking, List<Entry>> sorted = new EnumMap<>(Ranking.class);
+        for (Ranking ranking : Ranking.values()) {
+            List<Entry> entries = new ArrayList<>(heaps.get(ranking));
+            entries.sort(ranking.order);
+            sorted.put(ranking, Collections.unmodifiableList(entries));
+        }
+        standings = new Standings(standings.getVersion() + 1, sorted);
+    }
+
+    // Latest published standings, safe to read from any thread
+    public Standings getStandings() {
+        return standings;
+    }
+
+    /**
+     * The best games per ranking at one point in time, best first.
+     * The version goes up every time the standings change.
+     */
+    public static final class Standings {
+        private final long version;
+        private final Map<Ranking, List<Entry>> entries;
+
+        private Standings(long version, Map<Ranking, List<Entry>> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public List<Entry> get(Ranking ranking) {
+            return entries.getOrDefault(ranking, List.of());
+        }
+    }
+
+    // One won game
+    public static final class Entry {
+        private final int gameNumber;
+        private final int shotsFired;
+        private final int opponentPoints;
+
+        Entry(int gameNumber, int shotsFired, int opponentPoints) {
+            this.gameNumber = gameNumber;
+            this.shotsFired = shotsFired;
+            this.opponentPoints = opponentPoints;
+        }
+
+        public int getGameNumber() {
+            return gameNumber;
+        }
+
+        public int getShotsFired() {
+            return shotsFired;
+        }
+
+        public int getOpponentPoints() {
+            return opponentPoints;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package runtime;
+
+import jakarta.annotation.PreDestroy;
+import model.GameEngine;
+import model.MultiplayerGame;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * All multiplayer games on this instance. Unlike single player games they are not owned by a shard:
+ * their players' shots are applied directly on the request threads, in parallel.
+ * At most max-games exist at once; games are removed once unused for idle-seconds, finished ones
+ * after finished-seconds. They are not handed between cluster members and ClusterRoutingFilter does not
+ * route /api/multiplayer/**, so in cluster mode the load balancer must keep each game's players on one instance.
+ */
+@Component
+public class MultiplayerRegistry {
+    private static final long SWEEP_MILLIS = 10_000;
+    private final Map<Integer, MultiplayerSession> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextGameId = new AtomicInteger(0);
+    private final AtomicInteger numGames = new AtomicInteger(0);
+    private final int maxGames;
+    private final int maxPlayers;
+    private final long idleMillis;
+    private final long finishedMillis;
+    private final ScheduledExecutorService sweeper;
+
+    public MultiplayerRegistry(@Value("${multiplayer.max-games:1000}") int maxGames,
+            @Value("${multiplayer.max-players:64}") int maxPlayers,
+            @Value("${multiplayer.idle-seconds:1800}") long idleSeconds,
+            @Value("${multiplayer.finished-seconds:300}") long finishedSeconds) {
+        this.maxGames = maxGames;
+        this.maxPlayers = maxPlayers;
+        this.idleMillis = idleSeconds * 1000;
+        this.finishedMillis = finishedSeconds * 1000;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "multiplayer-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::removeUnusedGames, SWEEP_MILLIS, SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a game with forts placed as for a single player game, if they cannot be placed an exception is thrown.
+     * Throws IllegalStateException when there are already max-games games.
+     */
+    public MultiplayerSession createGame(int numOpponents) throws Exception {
+        if (numGames.incrementAndGet() > maxGames) {
+            numGames.decrementAndGet();
+            throw new IllegalStateException("Too many multiplayer games");
+        }
+        try {
+            GameEngine layout = new GameEngine(numOpponents);
+            MultiplayerSession session = new MultiplayerSession(nextGameId.getAndIncrement(),
+                    new MultiplayerGame(layout.getSnapshot()), maxPlayers);
+            sessions.put(session.getGameId(), session);
+            return session;
+        } catch (Exception e) {
+            numGames.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public Optional<MultiplayerSession> find(int gameId) {
+        MultiplayerSession session = sessions.get(gameId);
+        if (session != null) {
+            session.touch();
+        }
+        return Optional.ofNullable(session);
+    }
+
+    // Drops games nobody used for idle-seconds, or finished-seconds once they are over
+    void removeUnusedGames() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(session -> {
+            long unusedMillis = now - session.getLastAccessMillis();
+            boolean isUnused = unusedMillis > idleMillis
+                    || (session.getGame().isGameOver() && unusedMillis > finishedMillis);
+            if (isUnused) {
+                numGames.decrementAndGet();
+            }
+            return isUnused;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+}
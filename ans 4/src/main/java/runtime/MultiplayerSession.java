@@ -0,0 +1,100 @@
+package runtime;
+
+import model.MultiplayerGame;
+import model.ShotScore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A multiplayer game together with what each player has fired so far.
+ * Like the game itself, it is safe for any number of threads without locking.
+ * At most maxPlayers different players may fire in one game.
+ */
+public class MultiplayerSession {
+    private final int gameId;
+    private final MultiplayerGame game;
+    private final Map<String, PlayerStats> players = new ConcurrentHashMap<>();
+    private final int maxPlayers;
+    private final AtomicInteger numPlayers = new AtomicInteger(0);
+    private volatile long lastAccessMillis = System.currentTimeMillis();
+
+    /**
+     * Shots and hits of one player in the game; a hit only counts for the player whose shot claimed the cell.
+     */
+    public static final class PlayerStats {
+        private final String name;
+        private final LongAdder shotsFired = new LongAdder();
+        private final LongAdder hits = new LongAdder();
+
+        private PlayerStats(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getShotsFired() {
+            return shotsFired.sum();
+        }
+
+        public long getHits() {
+            return hits.sum();
+        }
+    }
+
+    MultiplayerSession(int gameId, MultiplayerGame game, int maxPlayers) {
+        this.gameId = gameId;
+        this.game = game;
+        this.maxPlayers = maxPlayers;
+    }
+
+    public int getGameId() {
+        return gameId;
+    }
+
+    public MultiplayerGame getGame() {
+        return game;
+    }
+
+    // Throws IllegalStateException, without firing, when the player is new and the game already has maxPlayers
+    public ShotScore processPlayerShot(String player, String shotCoordinates) {
+        PlayerStats stats = players.get(player);
+        if (stats == null) {
+            stats = players.computeIfAbsent(player, this::addPlayer);
+        }
+        touch();
+        ShotScore shotScore = game.processPlayerShot(shotCoordinates);
+        stats.shotsFired.increment();
+        if (shotScore.isHit() && !shotScore.wasAlreadyShot()) {
+            stats.hits.increment();
+        }
+        return shotScore;
+    }
+
+    public List<PlayerStats> getPlayers() {
+        return new ArrayList<>(players.values());
+    }
+
+    public long getLastAccessMillis() {
+        return lastAccessMillis;
+    }
+
+    void touch() {
+        lastAccessMillis = System.currentTimeMillis();
+    }
+
+    // Runs inside computeIfAbsent, so each new name is counted once
+    private PlayerStats addPlayer(String player) {
+        if (numPlayers.incrementAndGet() > maxPlayers) {
+            numPlayers.decrementAndGet();
+            throw new IllegalStateException("Game " + gameId + " is full");
+        }
+        return new PlayerStats(player);
+    }
+}
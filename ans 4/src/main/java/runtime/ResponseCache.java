@@ -0,0 +1,74 @@
+package runtime;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+/**
+ * Per-game cache of encoded API responses.
+ * Each entry remembers the game version it was encoded from, so any shot (which bumps the version)
+ * makes older entries stale without any explicit invalidation. Safe to use from any thread.
+ * Each entry also carries an ETag derived from its bytes, so it stays valid across restarts and nodes.
+ */
+public class ResponseCache {
+    private final AtomicReferenceArray<Entry> entries = new AtomicReferenceArray<>(Endpoint.values().length);
+
+    // Responses that can be cached, the board is cached separately for normal and cheat mode
+    public enum Endpoint {
+        GAME,
+        BOARD,
+        BOARD_CHEAT,
+        OPPONENTS,
+        SCOREBOARD
+    }
+
+    /**
+     * Returns the cached response for the endpoint if it was encoded from this version,
+     * otherwise encodes it and caches the result.
+     */
+    public Entry get(Endpoint endpoint, long version, Supplier<byte[]> encoder) {
+        Entry entry = entries.get(endpoint.ordinal());
+        if (entry != null && entry.version == version) {
+            return entry;
+        }
+        Entry fresh = new Entry(version, encoder.get());
+
+        // Never replace a newer entry with an older one
+        while (entry == null || entry.version < version) {
+            if (entries.compareAndSet(endpoint.ordinal(), entry, fresh)) {
+                break;
+            }
+            entry = entries.get(endpoint.ordinal());
+        }
+        return fresh;
+    }
+
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+    }
+
+    // An encoded response and its ETag (a quoted CRC-32C and length of the bytes)
+    public static final class Entry {
+        private final long version;
+        private final byte[] bytes;
+        private final String eTag;
+
+        private Entry(long version, byte[] bytes) {
+            this.version = version;
+            this.bytes = bytes;
+            CRC32C crc = new CRC32C();
+            crc.update(bytes);
+            this.eTag = "\"" + Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(bytes.length) + "\"";
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+
+        public String getETag() {
+            return eTag;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package runtime;
+
+import jakarta.annotation.PreDestroy;
+import model.GameFork;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sandboxes forked from games (or from other sandboxes), kept until they are discarded or nobody has used
+ * them for sandbox.idle-seconds. Forking only reads a game's published snapshot, so it never waits on the
+ * game's shard. At most sandbox.max-forks sandboxes exist at a time; creating them is rate limited per client
+ * by admission control (see GameApi.CREATION_PATHS).
+ */
+@Component
+public class SandboxRegistry {
+    private static final long SWEEP_MILLIS = 10_000;
+    private final ShardedGameRegistry registry;
+    private final int maxForks;
+    private final long idleMillis;
+    private final Map<Integer, GameSandbox> sandboxes = new ConcurrentHashMap<>();
+    private final AtomicInteger nextForkId = new AtomicInteger(0);
+    private final AtomicInteger numForks = new AtomicInteger(0);
+    private final ScheduledExecutorService sweeper;
+
+    public SandboxRegistry(ShardedGameRegistry registry, @Value("${sandbox.max-forks:10000}") int maxForks,
+            @Value("${sandbox.idle-seconds:600}") long idleSeconds) {
+        this.registry = registry;
+        this.maxForks = maxForks;
+        this.idleMillis = idleSeconds * 1000;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sandbox-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::removeIdleSandboxes, SWEEP_MILLIS, SWEEP_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Forks a game as it is now. Returns an empty Optional when no game with that number exists,
+     * throws IllegalStateException when there are already too many sandboxes.
+     */
+    public Optional<GameSandbox> forkGame(int gameNumber) {
+        return registry.find(gameNumber).map(session -> add(gameNumber, session.getGame().fork()));
+    }
+
+    // Same as forkGame, starting from the current state of another sandbox of the game
+    public Optional<GameSandbox> forkSandbox(int gameNumber, int forkId) {
+        return find(gameNumber, forkId).map(sandbox -> add(gameNumber, sandbox.fork()));
+    }
+
+    // The sandbox with that id, if it exists and was forked from the given game
+    public Optional<GameSandbox> find(int gameNumber, int forkId) {
+        GameSandbox sandbox = sandboxes.get(forkId);
+        if (sandbox == null || sandbox.getGameNumber() != gameNumber) {
+            return Optional.empty();
+        }
+        sandbox.touch();
+        return Optional.of(sandbox);
+    }
+
+    // Returns false if there was no such sandbox
+    public boolean discard(int gameNumber, int forkId) {
+        if (find(gameNumber, forkId).isEmpty() || sandboxes.remove(forkId) == null) {
+            return false;
+        }
+        numForks.decrementAndGet();
+        return true;
+    }
+
+    private GameSandbox add(int gameNumber, GameFork fork) {
+        if (numForks.incrementAndGet() > maxForks) {
+            numForks.decrementAndGet();
+            throw new IllegalStateException("Too many sandboxes");
+        }
+        GameSandbox sandbox = new GameSandbox(nextForkId.getAndIncrement(), gameNumber, fork);
+        sandboxes.put(sandbox.getForkId(), sandbox);
+        return sandbox;
+    }
+
+    // Drops sandboxes nobody used for idle-seconds
+    void removeIdleSandboxes() {
+        long now = System.currentTimeMillis();
+        sandboxes.values().removeIf(sandbox -> {
+            boolean isIdle = now - sandbox.getLastAccessMillis() > idleMillis;
+            if (isIdle) {
+                numForks.decrementAndGet();
+            }
+            return isIdle;
+        });
+    }
+
+    public int getNumForks() {
+        return numForks.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+}
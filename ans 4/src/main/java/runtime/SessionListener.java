@@ -0,0 +1,43 @@
+package runtime;
+
+import model.GameEngine;
+import model.ShotScore;
+
+/**
+ * Receives notifications about the games in the ShardedGameRegistry.
+ * Every Spring bean implementing this is registered automatically. Calls are made on the
+ * owning shard's thread, after the game's new snapshot has been published, so they should be quick.
+ */
+public interface SessionListener {
+    // A new game was created on this instance
+    default void sessionCreated(GameSession session) {
+    }
+
+    // A game created elsewhere joined this instance, e.g. handed off from another cluster node
+    default void sessionAdopted(GameSession session) {
+    }
+
+    // A game left this instance
+    default void sessionReleased(GameSession session) {
+    }
+
+    // A game that had been idle was encoded into encodedSize bytes and dropped from the heap
+    default void sessionHibernated(GameSession session, int encodedSize) {
+    }
+
+    // A hibernating game was decoded again for a request, which took rehydrationNanos
+    default void sessionRehydrated(GameSession session, int encodedSize, long rehydrationNanos) {
+    }
+
+    // A player shot was processed (including shots at invalid coordinates)
+    default void shotFired(GameSession session, ShotScore shotScore) {
+    }
+
+    // count missed turns were played at once (see GameEngine.fastForward), shotScore is the last one's result
+    default void shotsFired(GameSession session, int count, ShotScore shotScore) {
+    }
+
+    // The game went from previousState to its current state
+    default void gameStateChanged(GameSession session, GameEngine.GameState previousState) {
+    }
+}
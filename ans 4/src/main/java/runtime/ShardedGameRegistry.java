@@ -0,0 +1,492 @@
+package runtime;
+
+import jakarta.annotation.PreDestroy;
+import model.GameEngine;
+import model.GameListener;
+import model.ShotScore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Registry of all games, partitioned by game number into N shards.
+ * Each game lives on exactly one shard (gameNumber mod N) and every change to it
+ * is routed to that shard's thread, while reads go straight to the game's snapshot. The shard count defaults to the number of cores.
+ * Games left idle for hibernation.idle-seconds are hibernated: encoded into a byte array by their shard
+ * and dropped from the heap, then decoded again the next time a request needs them.
+ */
+@Component
+public class ShardedGameRegistry {
+    private final GameShard[] shards;
+    private static final int MAX_ALLOCATION_ATTEMPTS = 100_000;
+    private static final int LIST_INITIAL_CAPACITY = 1024;
+    private static final int MAX_SEEDS_PER_GAME = 100;
+    private final AtomicInteger nextGameNumber = new AtomicInteger(0);
+    // Numbers handed out to games that are not on their shard yet, guarded by itself. Listings stop before
+    // the lowest one, so a cursor never moves past a game that shows up later
+    private final NavigableSet<Integer> creating = new TreeSet<>();
+    private volatile IntPredicate ownership = gameNumber -> true;
+    // New game numbers are those equal to numberOffset mod numberStride, so nodes with different offsets never clash
+    private volatile int numberOffset = 0;
+    private volatile int numberStride = 1;
+    private final List<SessionListener> listeners;
+    // Places forts for bulk creation; its threads are only started when first needed
+    private final ForkJoinPool placementPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public ShardedGameRegistry(@Value("${game.shards:0}") int numShards,
+                               @Value("${hibernation.idle-seconds:0}") long idleSeconds,
+                               @Value("${hibernation.sweep-seconds:60}") long sweepSeconds,
+                               List<SessionListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+        int count = numShards > 0 ? numShards : Runtime.getRuntime().availableProcessors();
+        this.shards = new GameShard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new GameShard(i);
+            if (idleSeconds > 0) {
+                GameShard shard = shards[i];
+                shard.scheduleRepeating(owned -> hibernateIdleGames(shard, owned, idleSeconds * 1000),
+                        Math.max(sweepSeconds, 1) * 1000);
+            }
+        }
+    }
+
+    public int getNumShards() {
+        return shards.length;
+    }
+
+    // Restricts new game numbers to the ones this instance owns (used in cluster mode)
+    public void setOwnership(IntPredicate ownership) {
+        this.ownership = ownership;
+    }
+
+    // Restricts new game numbers to offset, offset + stride, offset + 2 * stride, ... (used in cluster mode)
+    public void setGameNumbering(int offset, int stride) {
+        if (stride < 1 || offset < 0 || offset >= stride) {
+            throw new IllegalArgumentException("Invalid game numbering " + offset + " mod " + stride);
+        }
+        this.numberStride = stride;
+        this.numberOffset = offset;
+    }
+
+    // Creates a game on its owning shard, if the forts cannot be placed an exception is thrown
+    public GameSession createGame(int numOpponents) throws Exception {
+        return createGame(numOpponents, model.Map.DEFAULT_BOARD_SIZE, false);
+    }
+
+    // Same as createGame on a board of the given size, optionally with opponents that fire in real time
+    // (see realtime.RealTimeClock)
+    public GameSession createGame(int numOpponents, int boardSize, boolean isRealTime) throws Exception {
+        try {
+            return createGameAsync(numOpponents, boardSize, isRealTime).join();
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    // Same as createGame, but completes once the owning shard has created the game
+    public CompletableFuture<GameSession> createGameAsync(int numOpponents) {
+        return createGameAsync(numOpponents, model.Map.DEFAULT_BOARD_SIZE, false);
+    }
+
+    public CompletableFuture<GameSession> createGameAsync(int numOpponents, int boardSize, boolean isRealTime) {
+        int gameNumber;
+        try {
+            gameNumber = allocateGameNumber();
+        } catch (IllegalStateException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return shardFor(gameNumber).submit(owned -> {
+            GameSession session = new GameSession(gameNumber, newGame(numOpponents, boardSize));
+            if (isRealTime) {
+                session.getGame().enableRealTime();
+            }
+            attachListeners(session);
+            owned.put(gameNumber, session);
+            listeners.forEach(listener -> listener.sessionCreated(session));
+            return session;
+        }).whenComplete((session, e) -> finishCreating(List.of(gameNumber)));
+    }
+
+    /**
+     * Creates one game per seed. Their forts are placed in parallel on a fork/join pool, then every shard
+     * adds its share of the games in a single task. When a seed's forts cannot be placed it is replaced by
+     * seeds[i] + seeds.length (and so on), and seeds[i] is updated to the seed the game was created from.
+     */
+    public List<GameSession> createGames(int numOpponents, long[] seeds) {
+        GameEngine[] games;
+        try {
+            games = placementPool.submit(() -> IntStream.range(0, seeds.length).parallel()
+                    .mapToObj(i -> newSeededGame(numOpponents, seeds, i))
+                    .toArray(GameEngine[]::new)).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException(unwrap(e));
+        }
+
+        List<GameSession> created = new ArrayList<>(games.length);
+        List<List<GameSession>> createdByShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            createdByShard.add(new ArrayList<>());
+        }
+        try {
+            for (GameEngine game : games) {
+                GameSession session = new GameSession(allocateGameNumber(), game);
+                created.add(session);
+                createdByShard.get(Math.floorMod(session.getGameNumber(), shards.length)).add(session);
+            }
+        } catch (IllegalStateException e) {
+            finishCreating(created.stream().map(GameSession::getGameNumber).toList());
+            throw e;
+        }
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            List<GameSession> shardGames = createdByShard.get(i);
+            if (shardGames.isEmpty()) {
+                continue;
+            }
+            pending.add(shards[i].<Void>submit(owned -> {
+                for (GameSession session : shardGames) {
+                    attachListeners(session);
+                    owned.put(session.getGameNumber(), session);
+                    listeners.forEach(listener -> listener.sessionCreated(session));
+                }
+                return null;
+            }).whenComplete((result, e) -> finishCreating(
+                    shardGames.stream().map(GameSession::getGameNumber).toList())));
+        }
+        pending.forEach(CompletableFuture::join);
+        return created;
+    }
+
+    /**
+     * Runs the action against a game on the shard that owns it.
+     * Returns an empty Optional when no game with that number exists.
+     */
+    public <T> Optional<T> execute(int gameNumber, Function<GameSession, T> action) {
+        try {
+            return executeAsync(gameNumber, action).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException(unwrap(e));
+        }
+    }
+
+    // Same as execute, but completes once the owning shard has run the action
+    public <T> CompletableFuture<Optional<T>> executeAsync(int gameNumber, Function<GameSession, T> action) {
+        if (gameNumber < 0) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        GameShard shard = shardFor(gameNumber);
+        return shard.submit(owned -> {
+            GameSession session = wake(shard, owned, gameNumber);
+            return session == null ? Optional.<T>empty() : Optional.ofNullable(action.apply(session));
+        });
+    }
+
+    /**
+     * Runs the action against many games, each with its own argument, using one task per shard for all
+     * of that shard's games instead of one task per game. Games that do not exist are skipped.
+     * Completes once every shard has run its share.
+     */
+    public <T> CompletableFuture<Void> executeBatch(Map<Integer, T> arguments, BiConsumer<GameSession, T> action) {
+        List<List<Map.Entry<Integer, T>>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (Map.Entry<Integer, T> entry : arguments.entrySet()) {
+            if (entry.getKey() >= 0) {
+                byShard.get(Math.floorMod(entry.getKey(), shards.length)).add(entry);
+            }
+        }
+
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        for (int i = 0; i < shards.length; i++) {
+            GameShard shard = shards[i];
+            List<Map.Entry<Integer, T>> shardWork = byShard.get(i);
+            if (shardWork.isEmpty()) {
+                continue;
+            }
+            pending.add(shard.submit(owned -> {
+                for (Map.Entry<Integer, T> entry : shardWork) {
+                    GameSession session = wake(shard, owned, entry.getKey());
+                    if (session != null) {
+                        action.accept(session, entry.getValue());
+                    }
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Looks a game up without waiting for its shard, for readers that only use the game's snapshot.
+     * Only a hibernating game has to wait, for its shard to wake it up.
+     * Returns an empty Optional when no game with that number exists.
+     */
+    public Optional<GameSession> find(int gameNumber) {
+        return findAsync(gameNumber).join();
+    }
+
+    // Same as find, but a hibernating game completes the future once its shard has woken it up
+    public CompletableFuture<Optional<GameSession>> findAsync(int gameNumber) {
+        if (gameNumber < 0) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        GameShard shard = shardFor(gameNumber);
+        GameSession session = shard.find(gameNumber);
+        if (session == null && shard.getHibernated().containsKey(gameNumber)) {
+            return shard.submit(owned -> Optional.ofNullable(wake(shard, owned, gameNumber)));
+        } else if (session == null) {
+            // it may have been woken up between the two lookups
+            session = shard.find(gameNumber);
+        } else {
+            session.touch();
+        }
+        return CompletableFuture.completedFuture(Optional.ofNullable(session));
+    }
+
+    /**
+     * Up to limit games the filter accepts, in game number order starting at fromNumber,
+     * for readers that only use snapshots. Game numbers are handed out in order, so this walks
+     * them directly instead of collecting and sorting every game. Hibernating games are decoded
+     * into read-only copies and stay hibernated. The listing ends before the first game that is still
+     * being created, so paging on from the last listed game never skips one.
+     */
+    public List<GameSession> listGames(int fromNumber, int limit, Predicate<GameSession> filter) {
+        List<GameSession> sessions = new ArrayList<>(Math.min(limit, LIST_INITIAL_CAPACITY));
+        int endNumber;
+        synchronized (creating) {
+            endNumber = creating.isEmpty() ? nextGameNumber.get() : creating.first();
+        }
+        for (int gameNumber = Math.max(fromNumber, 0); gameNumber < endNumber && sessions.size() < limit; gameNumber++) {
+            GameSession session = peek(shardFor(gameNumber), gameNumber);
+            if (session != null && filter.test(session)) {
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * Takes over a game that was created elsewhere, e.g. handed off by another cluster node.
+     * Returns false, leaving the registry unchanged, if a game with that number is already here.
+     */
+    public boolean adoptGame(GameSession session) {
+        int gameNumber = session.getGameNumber();
+        GameShard shard = shardFor(gameNumber);
+        boolean isAdopted = shard.submit(owned -> {
+            if (owned.containsKey(gameNumber) || shard.getHibernated().containsKey(gameNumber)) {
+                return false;
+            }
+            attachListeners(session);
+            owned.put(gameNumber, session);
+            listeners.forEach(listener -> listener.sessionAdopted(session));
+            return true;
+        }).join();
+        if (isAdopted) {
+            nextGameNumber.accumulateAndGet(gameNumber + 1, Math::max);
+        }
+        return isAdopted;
+    }
+
+    /**
+     * Removes every game the predicate no longer accepts and returns them encoded,
+     * keyed by game number, so they can be handed off to their new owner.
+     */
+    public Map<Integer, byte[]> releaseGames(IntPredicate keep) {
+        List<CompletableFuture<List<Map.Entry<Integer, byte[]>>>> pending = new ArrayList<>();
+        for (GameShard shard : shards) {
+            pending.add(shard.submit(owned -> {
+                for (int gameNumber : List.copyOf(shard.getHibernated().keySet())) {
+                    if (!keep.test(gameNumber)) {
+                        wake(shard, owned, gameNumber);
+                    }
+                }
+                List<Map.Entry<Integer, byte[]>> released = new ArrayList<>();
+                owned.values().removeIf(session -> {
+                    if (keep.test(session.getGameNumber())) {
+                        return false;
+                    }
+                    released.add(Map.entry(session.getGameNumber(), GameSessionCodec.encode(session)));
+                    session.getGame().setListener(null);
+                    listeners.forEach(listener -> listener.sessionReleased(session));
+                    return true;
+                });
+                return released;
+            }));
+        }
+
+        Map<Integer, byte[]> released = new TreeMap<>();
+        for (CompletableFuture<List<Map.Entry<Integer, byte[]>>> future : pending) {
+            for (Map.Entry<Integer, byte[]> entry : future.join()) {
+                released.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return released;
+    }
+
+    /**
+     * On the shard's thread: the live game with that number, decoding it first if it is hibernating.
+     * Returns null when the shard has no such game.
+     */
+    private GameSession wake(GameShard shard, Map<Integer, GameSession> owned, int gameNumber) {
+        GameSession session = shard.find(gameNumber);
+        if (session == null) {
+            byte[] data = shard.getHibernated().get(gameNumber);
+            if (data == null) {
+                return null;
+            }
+            long start = System.nanoTime();
+            session = decode(data);
+            attachListeners(session);
+            owned.put(gameNumber, session);
+            shard.getHibernated().remove(gameNumber);
+            long rehydrationNanos = System.nanoTime() - start;
+            GameSession woken = session;
+            listeners.forEach(listener -> listener.sessionRehydrated(woken, data.length, rehydrationNanos));
+        }
+        session.touch();
+        return session;
+    }
+
+    // A live game, or a read-only copy of a hibernating one, without waiting for the shard
+    private static GameSession peek(GameShard shard, int gameNumber) {
+        GameSession session = shard.find(gameNumber);
+        if (session == null) {
+            byte[] data = shard.getHibernated().get(gameNumber);
+            session = data == null ? shard.find(gameNumber) : decode(data);
+        }
+        return session;
+    }
+
+    // On the shard's thread: encodes every game not used for idleMillis and drops it from the heap
+    private void hibernateIdleGames(GameShard shard, Map<Integer, GameSession> owned, long idleMillis) {
+        long idleBefore = System.currentTimeMillis() - idleMillis;
+        for (GameSession session : owned.values()) {
+            if (session.getLastAccessMillis() >= idleBefore) {
+                continue;
+            }
+            // stored before the live game is removed, so readers always find one of the two
+            byte[] data = GameSessionCodec.encode(session);
+            shard.getHibernated().put(session.getGameNumber(), data);
+            owned.remove(session.getGameNumber());
+            session.getGame().setListener(null);
+            listeners.forEach(listener -> listener.sessionHibernated(session, data.length));
+        }
+    }
+
+    private static GameSession decode(byte[] data) {
+        try {
+            return GameSessionCodec.decode(data);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to decode a hibernated game", e);
+        }
+    }
+
+    // Forwards the game's notifications to every SessionListener, together with its session
+    private void attachListeners(GameSession session) {
+        session.getGame().setListener(new GameListener() {
+            @Override
+            public void shotFired(GameEngine game, ShotScore shotScore) {
+                for (SessionListener listener : listeners) {
+                    listener.shotFired(session, shotScore);
+                }
+            }
+
+            @Override
+            public void shotsFired(GameEngine game, int count, ShotScore shotScore) {
+                for (SessionListener listener : listeners) {
+                    listener.shotsFired(session, count, shotScore);
+                }
+            }
+
+            @Override
+            public void gameStateChanged(GameEngine game, GameEngine.GameState previousState) {
+                for (SessionListener listener : listeners) {
+                    listener.gameStateChanged(session, previousState);
+                }
+            }
+        });
+    }
+
+    // Hands out the next game number in this instance's numbering that it owns, marked as being created
+    private int allocateGameNumber() {
+        IntPredicate owns = ownership;
+        int offset = numberOffset;
+        int stride = numberStride;
+        synchronized (creating) {
+            for (int attempt = 0; attempt < MAX_ALLOCATION_ATTEMPTS; attempt++) {
+                int gameNumber = nextGameNumber.getAndUpdate(next -> next + Math.floorMod(offset - next, stride) + 1);
+                gameNumber += Math.floorMod(offset - gameNumber, stride);
+                if (owns.test(gameNumber)) {
+                    creating.add(gameNumber);
+                    return gameNumber;
+                }
+            }
+        }
+        throw new IllegalStateException("This instance does not own any game numbers");
+    }
+
+    // The games are on their shards (or failed to be created), listings may include them now
+    private void finishCreating(List<Integer> gameNumbers) {
+        synchronized (creating) {
+            creating.removeAll(gameNumbers);
+        }
+    }
+
+    private GameShard shardFor(int gameNumber) {
+        return shards[Math.floorMod(gameNumber, shards.length)];
+    }
+
+    private static GameEngine newGame(int numOpponents, int boardSize) {
+        try {
+            return new GameEngine(numOpponents, new model.Map(boardSize));
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static GameEngine newSeededGame(int numOpponents, long[] seeds, int index) {
+        for (int attempt = 0; attempt < MAX_SEEDS_PER_GAME; attempt++) {
+            long seed = seeds[index] + (long) attempt * seeds.length;
+            try {
+                GameEngine game = new GameEngine(numOpponents, seed);
+                seeds[index] = seed;
+                return game;
+            } catch (Exception e) {
+                // unlucky placement, try the next seed
+            }
+        }
+        throw new IllegalStateException("Unable to place forts for " + numOpponents + " opponents");
+    }
+
+    private static Exception unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        return cause instanceof Exception ? (Exception) cause : e;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (GameShard shard : shards) {
+            shard.shutdown();
+        }
+        placementPool.shutdown();
+    }
+}
@@ -0,0 +1,163 @@
+package warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dto.ApiBoardDTO;
+import dto.ApiGameDTO;
+import dto.ApiMoveRequestDTO;
+import dto.ApiOpponentDTO;
+import dto.ApiScoreBoardDTO;
+import dto.ApiShotDTO;
+import dto.ApiShotRequestDTO;
+import dto.GameJsonWriter;
+import model.GameEngine;
+import model.GameSnapshot;
+import model.Map;
+import model.ShotScore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays synthetic games through GameEngine, FortPlacer, the DTOs, GameJsonWriter and Jackson at startup,
+ * so the JIT has compiled the hot paths before real players arrive. Readiness stays REFUSING_TRAFFIC until
+ * it is done: Spring Boot only publishes ACCEPTING_TRAFFIC once every ApplicationRunner has returned.
+ * Games are played in rounds until a round leaves the JIT compiler quiet, max-millis have passed, or, when
+ * iterations is set, that many games have been played. The games are never put in the registry.
+ */
+@Component
+public class JitWarmup implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(JitWarmup.class);
+    private static final int GAMES_PER_ROUND = 50;
+    private static final int NUM_OPPONENTS = 5;
+    // Rounds in a row that must stay under quiet-compile-millis
+    private static final int QUIET_ROUNDS = 2;
+
+    private final ApplicationContext context;
+    private final ObjectMapper objectMapper;
+    private final boolean isEnabled;
+    private final long maxMillis;
+    private final int iterations;
+    private final long quietCompileMillis;
+    private final Random random = new Random(0);
+
+    // Results are summed here so the JIT cannot drop the work as unused
+    private long sink;
+
+    public JitWarmup(ApplicationContext context, ObjectMapper objectMapper,
+                     @Value("${warmup.enabled:false}") boolean isEnabled,
+                     @Value("${warmup.max-millis:10000}") long maxMillis,
+                     @Value("${warmup.iterations:0}") int iterations,
+                     @Value("${warmup.quiet-compile-millis:5}") long quietCompileMillis) {
+        this.context = context;
+        this.objectMapper = objectMapper;
+        this.isEnabled = isEnabled;
+        this.maxMillis = Math.max(maxMillis, 0);
+        this.iterations = Math.max(iterations, 0);
+        this.quietCompileMillis = Math.max(quietCompileMillis, 0);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!isEnabled) {
+            return;
+        }
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+
+        CompilationMXBean compiler = ManagementFactory.getCompilationMXBean();
+        boolean canTimeCompiler = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        long startCompileMillis = canTimeCompiler ? compiler.getTotalCompilationTime() : 0;
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(maxMillis);
+
+        int games = 0;
+        int quietRounds = 0;
+        String reason = "time limit reached";
+        try {
+            while (System.nanoTime() < deadline) {
+                if (iterations > 0 && games >= iterations) {
+                    reason = "iterations played";
+                    break;
+                }
+                if (iterations == 0 && canTimeCompiler && quietRounds >= QUIET_ROUNDS) {
+                    reason = "compiler quiet";
+                    break;
+                }
+
+                long roundStartCompileMillis = canTimeCompiler ? compiler.getTotalCompilationTime() : 0;
+                int roundGames = iterations > 0 ? Math.min(GAMES_PER_ROUND, iterations - games) : GAMES_PER_ROUND;
+                for (int i = 0; i < roundGames; i++) {
+                    playGame();
+                }
+                games += roundGames;
+
+                long roundCompileMillis = canTimeCompiler ? compiler.getTotalCompilationTime() - roundStartCompileMillis : 0;
+                quietRounds = roundCompileMillis <= quietCompileMillis ? quietRounds + 1 : 0;
+            }
+        } catch (IOException | RuntimeException e) {
+            // A failed warm-up only costs speed, the instance can still serve
+            reason = "failed: " + e;
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        long compileMillis = canTimeCompiler ? compiler.getTotalCompilationTime() - startCompileMillis : -1;
+        log.info("JIT warm-up played {} games in {} ms ({} ms of JIT compilation), {}",
+                games, elapsedMillis, compileMillis, reason);
+    }
+
+    // One game shot by shot until it ends, rendered and parsed the way the controllers do it
+    private void playGame() throws IOException {
+        GameEngine game;
+        try {
+            game = new GameEngine(NUM_OPPONENTS);
+        } catch (Exception e) {
+            // the forts did not fit this time, the placement code has still run
+            return;
+        }
+        int boardSize = game.getMap().getBoardSize();
+        int gameNumber = random.nextInt(1000);
+        GameJsonWriter json = new GameJsonWriter();
+        render(json, game.getSnapshot(), gameNumber);
+
+        while (!game.isGameOver()) {
+            int row = random.nextInt(boardSize);
+            int col = random.nextInt(boardSize);
+            ShotScore shotScore;
+            if (random.nextBoolean()) {
+                ApiShotRequestDTO request = objectMapper.readValue(
+                        "{\"shot\":\"" + Map.toCoordinates(row, col) + "\"}", ApiShotRequestDTO.class);
+                shotScore = game.processPlayerShot(request.shot);
+            } else {
+                ApiMoveRequestDTO request = objectMapper.readValue(
+                        "{\"row\":" + row + ",\"col\":" + col + "}", ApiMoveRequestDTO.class);
+                shotScore = game.processPlayerShot(Map.toCoordinates(request.row, request.col));
+            }
+            sink += objectMapper.writeValueAsBytes(ApiShotDTO.makeFromShotScore(shotScore)).length;
+            render(json, game.getSnapshot(), gameNumber);
+        }
+    }
+
+    // Every response the REST API builds from a snapshot, hand written and through Jackson
+    private void render(GameJsonWriter json, GameSnapshot snapshot, int gameNumber) throws IOException {
+        sink += json.reset().writeGame(snapshot, gameNumber).size();
+        sink += json.reset().writeBoard(snapshot, false).size();
+        sink += json.reset().writeBoard(snapshot, true).size();
+        sink += json.reset().writeOpponents(snapshot).size();
+        sink += json.reset().writeScoreBoard(snapshot).size();
+        sink += objectMapper.writeValueAsBytes(ApiGameDTO.makeFromSnapshot(snapshot, gameNumber)).length;
+        sink += objectMapper.writeValueAsBytes(ApiBoardDTO.makeFromSnapshot(snapshot, false)).length;
+        sink += objectMapper.writeValueAsBytes(ApiOpponentDTO.makeFromSnapshot(snapshot)).length;
+        sink += objectMapper.writeValueAsBytes(ApiScoreBoardDTO.makeFromSnapshot(snapshot)).length;
+    }
+}
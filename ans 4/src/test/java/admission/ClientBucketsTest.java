@@ -0,0 +1,66 @@
+package admission;
+
+import org.junit.jupiter.api.Test;
+import runtime.GameApi;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClientBucketsTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsAdmittedAtOnceThenOneTokenPerRefillInterval() {
+        TokenBucket bucket = new TokenBucket(2, 5, 0);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(0, 1));
+        }
+        assertEquals(SECOND / 2, bucket.tryAcquire(0, 1));
+
+        // half a second refills one token, no more
+        assertEquals(0, bucket.tryAcquire(SECOND / 2, 1));
+        assertTrue(bucket.tryAcquire(SECOND / 2, 1) > 0);
+    }
+
+    @Test
+    void costsTakeSeveralTokensAndWaitsCoverTheShortfall() {
+        TokenBucket bucket = new TokenBucket(10, 10, 0);
+        assertEquals(0, bucket.tryAcquire(0, 8));
+        assertEquals(SECOND / 10 * 3, bucket.tryAcquire(0, 5));
+        assertEquals(0, bucket.tryAcquire(SECOND / 10 * 3, 5));
+    }
+
+    @Test
+    void bucketIsFullAgainOnceEverythingTakenHasRefilled() {
+        TokenBucket bucket = new TokenBucket(1, 3, 0);
+        bucket.tryAcquire(0, 3);
+        assertFalse(bucket.isFull(2 * SECOND));
+        assertTrue(bucket.isFull(3 * SECOND));
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        ClientBuckets buckets = new ClientBuckets(1, 2);
+        assertEquals(0, buckets.tryAcquire("a", 0, 2));
+        assertTrue(buckets.tryAcquire("a", 0, 1) > 0);
+        assertEquals(0, buckets.tryAcquire("b", 0, 2));
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() {
+        assertEquals(1, ClientBuckets.retryAfterSeconds(1));
+        assertEquals(1, ClientBuckets.retryAfterSeconds(SECOND));
+        assertEquals(2, ClientBuckets.retryAfterSeconds(SECOND + 1));
+    }
+
+    @Test
+    void creationCostChargesRequestsTheApiRejectsAsOneGame() {
+        assertEquals(20, GameApi.creationCost(20, 10, 65536));
+        assertEquals(16, GameApi.creationCost(1, 1024, 65536));
+        assertEquals(1, GameApi.creationCost(GameApi.MAX_BULK_COUNT + 1, 10, 65536));
+        assertEquals(1, GameApi.creationCost(0, 2048, 65536));
+    }
+}
@@ -0,0 +1,121 @@
+package cluster;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import runtime.ShardedGameRegistry;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ClusterRoutingFilterTest {
+    private static final String SELF = "localhost:1";
+    private static final String SECRET = "secret";
+    private final ShardedGameRegistry registry = new ShardedGameRegistry(1, 0, 60, List.of());
+    private HttpServer peer;
+    private volatile Headers peerRequestHeaders;
+    private ClusterMembership membership;
+    private ClusterRoutingFilter filter;
+    private int peerGameNumber;
+
+    @BeforeEach
+    void start(@TempDir Path directory) throws Exception {
+        peer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        peer.createContext("/", exchange -> {
+            peerRequestHeaders = exchange.getRequestHeaders();
+            boolean isCached = "\"7\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"));
+            exchange.getResponseHeaders().add("ETag", "\"7\"");
+            exchange.getResponseHeaders().add("X-Next-Cursor", "42");
+            exchange.getResponseHeaders().add("Vary", "Accept");
+            exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+            if (isCached) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        peer.start();
+
+        String peerAddress = "localhost:" + peer.getAddress().getPort();
+        Path members = Files.writeString(directory.resolve("members.txt"), SELF + "\n" + peerAddress + "\n");
+        ClusterClient client = new ClusterClient(SECRET);
+        membership = new ClusterMembership(true, SELF, members.toString(), 60_000, SECRET, 0, 64, registry, client);
+        membership.start();
+        filter = new ClusterRoutingFilter(membership, client);
+        while (!peerAddress.equals(membership.ownerOf(peerGameNumber))) {
+            peerGameNumber++;
+        }
+    }
+
+    @AfterEach
+    void stop() {
+        membership.stop();
+        registry.shutdown();
+        peer.stop(0);
+    }
+
+    @Test
+    void requestHeadersArePassedOn() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/games/" + peerGameNumber);
+        request.addHeader("Accept", "application/json");
+        request.addHeader("If-None-Match", "\"3\"");
+        request.addHeader(ClusterClient.SECRET_HEADER, "guess");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(200, response.getStatus());
+        assertEquals("application/json", peerRequestHeaders.getFirst("Accept"));
+        assertEquals("\"3\"", peerRequestHeaders.getFirst("If-None-Match"));
+        assertEquals(List.of(SECRET), peerRequestHeaders.get(ClusterClient.SECRET_HEADER));
+        assertEquals(SELF, peerRequestHeaders.getFirst(ClusterClient.FORWARDED_HEADER));
+        assertEquals("{}", response.getContentAsString());
+    }
+
+    @Test
+    void responseHeadersAreCopiedBack() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/games/" + peerGameNumber);
+        request.addHeader("If-None-Match", "\"7\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertEquals(304, response.getStatus());
+        assertEquals("\"7\"", response.getHeader("ETag"));
+        assertEquals("42", response.getHeader("X-Next-Cursor"));
+        assertEquals(List.of("Accept", "Accept-Encoding"), response.getHeaders("Vary"));
+        assertNull(response.getHeader("Transfer-Encoding"));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void localGamesAreNotForwarded() throws Exception {
+        int localGameNumber = 0;
+        while (!SELF.equals(membership.ownerOf(localGameNumber))) {
+            localGameNumber++;
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/games/" + localGameNumber);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertEquals(request, chain.getRequest());
+        assertNull(peerRequestHeaders);
+    }
+}
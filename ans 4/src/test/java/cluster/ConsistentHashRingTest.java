@@ -0,0 +1,71 @@
+package cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+    private static final int GAMES = 100_000;
+
+    @Test
+    void gamesAreSpreadEvenlyOverTheMembers() {
+        List<String> members = List.of("node1:8080", "node2:8080", "node3:8080", "node4:8080");
+        ConsistentHashRing ring = new ConsistentHashRing(members);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int gameNumber = 0; gameNumber < GAMES; gameNumber++) {
+            counts.merge(ring.ownerOf(gameNumber), 1, Integer::sum);
+        }
+
+        assertEquals(members.size(), counts.size());
+        int fairShare = GAMES / members.size();
+        for (int count : counts.values()) {
+            assertTrue(Math.abs(count - fairShare) < fairShare * 0.25, "unbalanced ring " + counts);
+        }
+    }
+
+    @Test
+    void addingAMemberOnlyMovesGamesToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("node1:8080", "node2:8080", "node3:8080"));
+        ConsistentHashRing after = new ConsistentHashRing(
+                List.of("node1:8080", "node2:8080", "node3:8080", "node4:8080"));
+
+        int moved = 0;
+        for (int gameNumber = 0; gameNumber < GAMES; gameNumber++) {
+            String owner = after.ownerOf(gameNumber);
+            if (!owner.equals(before.ownerOf(gameNumber))) {
+                assertEquals("node4:8080", owner);
+                moved++;
+            }
+        }
+        // about a quarter of the games belong to the new member
+        assertTrue(moved > GAMES * 0.15 && moved < GAMES * 0.35, moved + " games moved");
+    }
+
+    @Test
+    void removingAMemberOnlyMovesItsGames() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("node1:8080", "node2:8080", "node3:8080"));
+        ConsistentHashRing after = new ConsistentHashRing(List.of("node1:8080", "node3:8080"));
+
+        for (int gameNumber = 0; gameNumber < GAMES; gameNumber++) {
+            String owner = before.ownerOf(gameNumber);
+            if (!owner.equals("node2:8080")) {
+                assertEquals(owner, after.ownerOf(gameNumber));
+            }
+        }
+    }
+
+    @Test
+    void anEmptyRingOwnsNothing() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of());
+
+        assertTrue(ring.isEmpty());
+        assertNull(ring.ownerOf(1));
+    }
+}
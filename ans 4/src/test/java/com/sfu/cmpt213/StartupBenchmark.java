@@ -0,0 +1,77 @@
+package com.sfu.cmpt213;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures cold start: the time from launching the server process until its first successful POST /api/games.
+ * Usage: StartupBenchmark port runs command...
+ * e.g. StartupBenchmark 8090 5 java -XX:SharedArchiveFile=target/cds/application.jsa -jar target/cds/water-fight-game-1.0.0-cds.jar
+ * The port is passed to the server with --server.port.
+ */
+public class StartupBenchmark {
+    private static final long TIMEOUT_NANOS = Duration.ofMinutes(2).toNanos();
+    private static final long POLL_MILLIS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: StartupBenchmark port runs command...");
+            System.exit(1);
+        }
+        int port = Integer.parseInt(args[0]);
+        int runs = Integer.parseInt(args[1]);
+        List<String> command = new ArrayList<>(Arrays.asList(args).subList(2, args.length));
+        command.add("--server.port=" + port);
+
+        HttpClient http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(200))
+                .build();
+        HttpRequest createGame = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/games"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+
+        long[] millis = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            millis[run] = timeToFirstGame(command, http, createGame);
+            System.out.printf("run %d: first game created after %d ms%n", run + 1, millis[run]);
+        }
+        Arrays.sort(millis);
+        System.out.printf("min %d ms, median %d ms, max %d ms%n", millis[0], millis[runs / 2], millis[runs - 1]);
+    }
+
+    private static long timeToFirstGame(List<String> command, HttpClient http, HttpRequest createGame)
+            throws Exception {
+        long start = System.nanoTime();
+        Process server = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT_NANOS) {
+                if (!server.isAlive()) {
+                    throw new IllegalStateException("Server exited with code " + server.exitValue());
+                }
+                try {
+                    HttpResponse<Void> response = http.send(createGame, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 201) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(POLL_MILLIS);
+            }
+            throw new IllegalStateException("No game was created within the timeout");
+        } finally {
+            server.destroy();
+            server.waitFor();
+        }
+    }
+}
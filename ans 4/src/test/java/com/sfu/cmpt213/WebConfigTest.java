@@ -0,0 +1,108 @@
+package com.sfu.cmpt213;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = WaterFightGameApplication.class, properties = {
+        "warmup.enabled=false",
+        "admission.shots.per-second=0.01",
+        "admission.shots.burst=3"
+})
+@AutoConfigureMockMvc
+class WebConfigTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void movesTakeFromTheShotBudget() throws Exception {
+        int gameNumber = createGame();
+        for (int i = 0; i < 3; i++) {
+            int status = mvc.perform(post("/api/games/" + gameNumber + "/moves")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"row\":0,\"col\":" + i + "}")
+                            .with(request -> remoteAddr(request, "10.0.0.1")))
+                    .andReturn().getResponse().getStatus();
+            assertEquals(202, status);
+        }
+
+        mvc.perform(post("/api/games/" + gameNumber + "/moves")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"row\":1,\"col\":0}")
+                        .with(request -> remoteAddr(request, "10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    @Test
+    void fastForwardIsChargedPerTurn() throws Exception {
+        int gameNumber = createGame();
+        mvc.perform(post("/api/games/" + gameNumber + "/fastforward?turns=2")
+                        .with(request -> remoteAddr(request, "10.0.0.2")))
+                .andExpect(status().isOk());
+        mvc.perform(post("/api/games/" + gameNumber + "/fastforward?turns=2")
+                        .with(request -> remoteAddr(request, "10.0.0.2")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // More turns than the whole burst can never be admitted
+        mvc.perform(post("/api/games/" + gameNumber + "/fastforward?turns=10")
+                        .with(request -> remoteAddr(request, "10.0.0.3")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().doesNotExist("Retry-After"));
+    }
+
+    @Test
+    void forkShotsTakeFromTheShotBudget() throws Exception {
+        int gameNumber = createGame();
+        String fork = mvc.perform(post("/api/games/" + gameNumber + "/forks")
+                        .with(request -> remoteAddr(request, "10.0.0.4")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        String forkId = fork.replaceAll(".*\"forkId\":(\\d+).*", "$1");
+
+        int last = 0;
+        for (int i = 0; i < 4; i++) {
+            last = mvc.perform(post("/api/games/" + gameNumber + "/forks/" + forkId + "/shots")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"shot\":\"A" + (i + 1) + "\"}")
+                            .with(request -> remoteAddr(request, "10.0.0.4")))
+                    .andReturn().getResponse().getStatus();
+        }
+        assertEquals(429, last);
+    }
+
+    @Test
+    void forksTakeFromTheCreationBudget() throws Exception {
+        int gameNumber = createGame();
+        int last = 0;
+        // admission.create.burst is 20
+        for (int i = 0; i < 21; i++) {
+            last = mvc.perform(post("/api/games/" + gameNumber + "/forks")
+                            .with(request -> remoteAddr(request, "10.0.0.5")))
+                    .andReturn().getResponse().getStatus();
+        }
+        assertEquals(429, last);
+    }
+
+    private int createGame() throws Exception {
+        String body = mvc.perform(post("/api/games"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(body.replaceAll(".*\"gameNumber\":(\\d+).*", "$1"));
+    }
+
+    private static MockHttpServletRequest remoteAddr(MockHttpServletRequest request, String address) {
+        request.setRemoteAddr(address);
+        return request;
+    }
+}
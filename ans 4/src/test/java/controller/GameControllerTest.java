@@ -0,0 +1,102 @@
+package controller;
+
+import com.sfu.cmpt213.WaterFightGameApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = WaterFightGameApplication.class, properties = {
+        "warmup.enabled=false",
+        "admission.enabled=false"
+})
+@AutoConfigureMockMvc
+class GameControllerTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void unchangedResponsesAreNotSentAgain() throws Exception {
+        int gameNumber = createGame();
+        for (String endpoint : new String[] {"", "/board", "/opponents", "/scoreboard"}) {
+            String path = "/api/games/" + gameNumber + endpoint;
+            String eTag = mvc.perform(get(path))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader("ETag");
+
+            MvcResult notModified = mvc.perform(get(path).header("If-None-Match", eTag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", eTag))
+                    .andReturn();
+            assertEquals(0, notModified.getResponse().getContentLength());
+        }
+    }
+
+    @Test
+    void aShotChangesTheETag() throws Exception {
+        int gameNumber = createGame();
+        String path = "/api/games/" + gameNumber + "/board";
+        String before = mvc.perform(get(path)).andReturn().getResponse().getHeader("ETag");
+
+        shoot(gameNumber, "A1");
+
+        String after = mvc.perform(get(path).header("If-None-Match", before))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(before, after);
+    }
+
+    @Test
+    void cheatModeChangesTheBoardETag() throws Exception {
+        int gameNumber = createGame();
+        String path = "/api/games/" + gameNumber + "/board";
+        String before = mvc.perform(get(path)).andReturn().getResponse().getHeader("ETag");
+
+        mvc.perform(post("/api/games/" + gameNumber + "/cheatstate")
+                        .contentType(MediaType.TEXT_PLAIN)
+                        .content("SHOW_ALL"))
+                .andExpect(status().is2xxSuccessful());
+
+        mvc.perform(get(path).header("If-None-Match", before))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void finishedGamesMayBeCachedExceptTheBoard() throws Exception {
+        int gameNumber = createGame();
+        mvc.perform(get("/api/games/" + gameNumber))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+
+        mvc.perform(post("/api/games/" + gameNumber + "/fastforward")).andExpect(status().isOk());
+
+        mvc.perform(get("/api/games/" + gameNumber))
+                .andExpect(header().string("Cache-Control", "max-age=60"));
+        mvc.perform(get("/api/games/" + gameNumber + "/board"))
+                .andExpect(header().string("Cache-Control", "no-cache"));
+    }
+
+    private int createGame() throws Exception {
+        // larger than the standard board, where random fort placement never fails
+        String body = mvc.perform(post("/api/games?boardSize=20"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return Integer.parseInt(body.replaceAll(".*\"gameNumber\":(\\d+).*", "$1"));
+    }
+
+    private void shoot(int gameNumber, String coordinates) throws Exception {
+        mvc.perform(post("/api/games/" + gameNumber + "/shots")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"shot\":\"" + coordinates + "\"}"))
+                .andExpect(status().is2xxSuccessful());
+    }
+}
@@ -0,0 +1,117 @@
+package dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.GameEngine;
+import model.GameSnapshot;
+import model.Map;
+import model.ShotScore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameJsonWriterTest {
+    // Random fort placement sometimes fails on the standard board, a seeded layout never does
+    private static final long SEED = 42;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void smallBoardsMatchJackson() throws Exception {
+        GameEngine game = new GameEngine(5, SEED);
+        assertSameAsJackson(game.getSnapshot());
+        for (int i = 0; i < 30 && !game.isGameOver(); i++) {
+            game.processPlayerShot(Map.toCoordinates(i % 10, (i * 7) % 10));
+        }
+        assertSameAsJackson(game.getSnapshot());
+    }
+
+    @Test
+    void finishedGamesMatchJackson() throws Exception {
+        GameEngine game = new GameEngine(5, SEED);
+        for (int i = 0; !game.isGameOver(); i++) {
+            game.processPlayerShot(Map.toCoordinates(i / 10 % 10, i % 10));
+        }
+        assertSameAsJackson(game.getSnapshot());
+    }
+
+    @Test
+    void largeBoardsWrittenInParallelBandsMatchJackson() throws Exception {
+        // Boards of 128 or more are written in parallel bands, rows past Z have labels like AA and AB
+        GameEngine game = new GameEngine(5, new Map(200));
+        Random random = new Random(3);
+        for (int i = 0; i < 3_000; i++) {
+            String coordinates = Map.toCoordinates(random.nextInt(200), random.nextInt(200));
+            game.processPlayerShot(coordinates);
+        }
+        game.processPlayerShot(Map.toCoordinates(27, 150));
+        assertTrue(Map.toCoordinates(27, 150).startsWith("AB"));
+        GameSnapshot snapshot = game.getSnapshot();
+        assertSameAsJackson(snapshot);
+
+        for (boolean cheatMode : new boolean[] {false, true}) {
+            assertSame(objectMapper.writeValueAsBytes(ApiBoardRegionDTO.makeFromSnapshot(snapshot, cheatMode,
+                            30, 17, 40, 90)),
+                    new GameJsonWriter().writeBoardRegion(snapshot, cheatMode, 30, 17, 40, 90).toByteArray());
+            assertSame(objectMapper.writeValueAsBytes(ApiBoardRegionDTO.makeFromSnapshot(snapshot, cheatMode,
+                            0, 0, 200, 200)),
+                    new GameJsonWriter().writeBoardRegion(snapshot, cheatMode, 0, 0, 200, 200).toByteArray());
+        }
+    }
+
+    @Test
+    void dtosMatchJackson() throws Exception {
+        GameEngine game = new GameEngine(5, SEED);
+        ShotScore shotScore = game.processPlayerShot("J10");
+        ApiStatsDTO stats = new ApiStatsDTO();
+        stats.gamesCreated = Long.MAX_VALUE;
+        stats.averageShotsToWin = Double.NaN;
+        stats.averageRehydrationMicros = 12.5;
+        stats.maxRehydrationMicros = Double.POSITIVE_INFINITY;
+
+        assertSameDto(ApiShotDTO.makeFromShotScore(shotScore));
+        assertSameDto(ApiForkDTO.makeFromSnapshot(3, 7, game.getSnapshot()));
+        assertSameDto(stats);
+        assertSameDto(List.of(ApiGameDTO.makeFromSnapshot(game.getSnapshot(), 1),
+                ApiGameDTO.makeFromSnapshot(game.getSnapshot(), 2)));
+        assertSameDto(ApiOpponentDTO.makeFromSnapshot(game.getSnapshot()));
+    }
+
+    @Test
+    void reusedWritersMatchFreshOnes() throws Exception {
+        GameSnapshot snapshot = new GameEngine(5, new Map(200)).getSnapshot();
+        GameJsonWriter json = new GameJsonWriter(16);
+
+        byte[] first = json.reset().writeBoard(snapshot, true).toByteArray();
+        json.reset().writeGame(snapshot, 1);
+        byte[] second = json.reset().writeBoard(snapshot, true).toByteArray();
+
+        assertSame(first, second);
+        assertSame(new GameJsonWriter().writeBoard(snapshot, true).toByteArray(), second);
+    }
+
+    private void assertSameAsJackson(GameSnapshot snapshot) throws Exception {
+        assertSame(objectMapper.writeValueAsBytes(ApiGameDTO.makeFromSnapshot(snapshot, 7)),
+                new GameJsonWriter().writeGame(snapshot, 7).toByteArray());
+        assertSame(objectMapper.writeValueAsBytes(ApiBoardDTO.makeFromSnapshot(snapshot, false)),
+                new GameJsonWriter().writeBoard(snapshot, false).toByteArray());
+        assertSame(objectMapper.writeValueAsBytes(ApiBoardDTO.makeFromSnapshot(snapshot, true)),
+                new GameJsonWriter().writeBoard(snapshot, true).toByteArray());
+        assertSame(objectMapper.writeValueAsBytes(ApiOpponentDTO.makeFromSnapshot(snapshot)),
+                new GameJsonWriter().writeOpponents(snapshot).toByteArray());
+        assertSame(objectMapper.writeValueAsBytes(ApiScoreBoardDTO.makeFromSnapshot(snapshot)),
+                new GameJsonWriter().writeScoreBoard(snapshot).toByteArray());
+    }
+
+    private void assertSameDto(Object dto) throws Exception {
+        assertSame(objectMapper.writeValueAsBytes(dto), new GameJsonWriter().writeDto(dto).toByteArray());
+    }
+
+    // Compares as text so a failure shows where the JSON differs
+    private static void assertSame(byte[] expected, byte[] actual) {
+        assertEquals(new String(expected, StandardCharsets.UTF_8), new String(actual, StandardCharsets.UTF_8));
+    }
+}
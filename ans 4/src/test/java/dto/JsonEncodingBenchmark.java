@@ -0,0 +1,83 @@
+package dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import model.GameEngine;
+import model.GameSnapshot;
+import model.Map;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.LongSupplier;
+
+/**
+ * Compares Jackson (building the DTOs first) with GameJsonWriter for the hot read responses.
+ * GameJsonWriterTest checks both produce the same bytes.
+ * Usage: JsonEncodingBenchmark [iterations], after mvn test-compile:
+ * java -cp target/classes:target/test-classes:<dependencies> dto.JsonEncodingBenchmark
+ */
+public class JsonEncodingBenchmark {
+    private static final int WARMUP_ITERATIONS = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        ObjectMapper objectMapper = new ObjectMapper();
+        GameSnapshot snapshot = makeSnapshot();
+
+        runJackson(objectMapper, snapshot, WARMUP_ITERATIONS);
+        runWriter(snapshot, WARMUP_ITERATIONS);
+        report("Jackson", iterations, () -> runJackson(objectMapper, snapshot, iterations));
+        report("writer ", iterations, () -> runWriter(snapshot, iterations));
+    }
+
+    // A game part way through, so every kind of cell and some last scores are present
+    private static GameSnapshot makeSnapshot() throws Exception {
+        GameEngine game = null;
+        while (game == null) {
+            try {
+                game = new GameEngine(5);
+            } catch (Exception e) {
+                // Fort placement occasionally fails, try again
+            }
+        }
+        for (int i = 0; i < 30 && !game.isGameOver(); i++) {
+            game.processPlayerShot(Map.toCoordinates(i % 10, (i * 7) % 10));
+        }
+        return game.getSnapshot();
+    }
+
+    private static long runJackson(ObjectMapper objectMapper, GameSnapshot snapshot, int iterations) {
+        long totalBytes = 0;
+        try {
+            for (int i = 0; i < iterations; i++) {
+                totalBytes += objectMapper.writeValueAsBytes(ApiGameDTO.makeFromSnapshot(snapshot, i)).length;
+                totalBytes += objectMapper.writeValueAsBytes(ApiBoardDTO.makeFromSnapshot(snapshot, false)).length;
+                totalBytes += objectMapper.writeValueAsBytes(ApiOpponentDTO.makeFromSnapshot(snapshot)).length;
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return totalBytes;
+    }
+
+    private static long runWriter(GameSnapshot snapshot, int iterations) {
+        // One writer reused for every response, as a server thread would
+        GameJsonWriter json = new GameJsonWriter(1024);
+        long totalBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            totalBytes += json.reset().writeGame(snapshot, i).toByteArray().length;
+            totalBytes += json.reset().writeBoard(snapshot, false).toByteArray().length;
+            totalBytes += json.reset().writeOpponents(snapshot).toByteArray().length;
+        }
+        return totalBytes;
+    }
+
+    private static void report(String name, int iterations, LongSupplier run) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long totalBytes = run.getAsLong();
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%s: %.0f ns per game+board+opponents, %d bytes allocated per round (%d bytes of JSON)%n",
+                name, (double) elapsed / iterations, allocated / iterations, totalBytes / iterations);
+    }
+}
@@ -0,0 +1,165 @@
+package embedded;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the Spring Boot app with EmbeddedGameServer: time from launch to the first answered request,
+ * resident memory (Linux only) after startup and after load, and per-request latency of shots and board reads.
+ * Each server runs in its own JVM, started by this benchmark on a free port.
+ * Usage: EmbeddedServerBenchmark [jar] [classesDir] [requests], after mvn package:
+ * java -cp target/classes:target/test-classes embedded.EmbeddedServerBenchmark
+ */
+public class EmbeddedServerBenchmark {
+    private static final int WARMUP_REQUESTS = 10_000;
+    private static final long STARTUP_TIMEOUT_MILLIS = 60_000;
+
+    public static void main(String[] args) throws Exception {
+        String jar = args.length > 0 ? args[0] : "target/water-fight-game-1.0.0.jar";
+        String classes = args.length > 1 ? args[1] : "target/classes";
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        // Rate limits and Spring Boot's own JIT warm-up are turned off so both start and run alike
+        run("Spring Boot", requests, port -> List.of(java, "-jar", jar, "--server.port=" + port,
+                "--admission.enabled=false", "--warmup.enabled=false"));
+        run("embedded   ", requests, port -> List.of(java, "-Dadmission.enabled=false", "-cp", classes,
+                EmbeddedGameServer.class.getName(), String.valueOf(port)));
+    }
+
+    @FunctionalInterface
+    private interface Launcher {
+        List<String> command(int port);
+    }
+
+    private static void run(String label, int requests, Launcher launcher) throws Exception {
+        int port = freePort();
+        String baseUrl = "http://localhost:" + port + "/api";
+        HttpClient http = HttpClient.newHttpClient();
+
+        long start = System.nanoTime();
+        Process server = new ProcessBuilder(launcher.command(port))
+                .redirectErrorStream(true)
+                .redirectOutput(new File(System.getProperty("java.io.tmpdir"), "benchmark-server-" + port + ".log"))
+                .start();
+        try {
+            long startupMillis = waitUntilUp(http, baseUrl, start);
+            long idleRss = residentKilobytes(server.pid());
+
+            runRequests(http, baseUrl, WARMUP_REQUESTS);
+            long[][] latencies = runRequests(http, baseUrl, requests);
+            long loadedRss = residentKilobytes(server.pid());
+
+            System.out.printf("%s startup: %d ms | RSS idle: %s | RSS after load: %s%n",
+                    label, startupMillis, megabytes(idleRss), megabytes(loadedRss));
+            report(label + " shot ", latencies[0]);
+            report(label + " board", latencies[1]);
+        } finally {
+            server.destroy();
+            server.waitFor();
+        }
+    }
+
+    private static long waitUntilUp(HttpClient http, String baseUrl, long startNanos) throws Exception {
+        HttpRequest about = HttpRequest.newBuilder(URI.create(baseUrl + "/about")).build();
+        while (System.nanoTime() - startNanos < STARTUP_TIMEOUT_MILLIS * 1_000_000) {
+            try {
+                if (http.send(about, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - startNanos) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Server did not start within " + STARTUP_TIMEOUT_MILLIS + " ms");
+    }
+
+    // Fires shots at a game and reads its board after each one, starting a new game when it ends
+    private static long[][] runRequests(HttpClient http, String baseUrl, int requests) throws Exception {
+        long[] shots = new long[requests];
+        long[] boards = new long[requests];
+        int gameNumber = createGame(http, baseUrl);
+        for (int i = 0; i < requests; i++) {
+            HttpRequest shot = HttpRequest.newBuilder(URI.create(baseUrl + "/games/" + gameNumber + "/shots"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"shot\":\"" + coordinate(i) + "\"}"))
+                    .build();
+            long begin = System.nanoTime();
+            HttpResponse<String> response = http.send(shot, HttpResponse.BodyHandlers.ofString());
+            shots[i] = System.nanoTime() - begin;
+
+            HttpRequest board = HttpRequest.newBuilder(URI.create(baseUrl + "/games/" + gameNumber + "/board")).build();
+            begin = System.nanoTime();
+            http.send(board, HttpResponse.BodyHandlers.ofByteArray());
+            boards[i] = System.nanoTime() - begin;
+
+            if (!response.body().contains("IN_PROGRESS")) {
+                gameNumber = createGame(http, baseUrl);
+            }
+        }
+        return new long[][] {shots, boards};
+    }
+
+    // Fort placement occasionally fails, so retry until a game is created
+    private static int createGame(HttpClient http, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/games"))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        while (response.statusCode() != 201) {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+        return Integer.parseInt(response.body().replaceAll(".*\"gameNumber\":(\\d+).*", "$1"));
+    }
+
+    // Walks the board row by row
+    private static String coordinate(int shot) {
+        int cell = shot % 100;
+        return (char) ('A' + cell / 10) + String.valueOf(cell % 10 + 1);
+    }
+
+    // VmRSS of the process, or -1 where /proc is not available
+    private static long residentKilobytes(long pid) {
+        try {
+            List<String> status = Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"));
+            for (String line : status) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // not Linux
+        }
+        return -1;
+    }
+
+    private static String megabytes(long kilobytes) {
+        return kilobytes < 0 ? "n/a" : String.format("%.1f MB", kilobytes / 1024.0);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void report(String label, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s requests: %d | p50: %.1f us | p99: %.1f us | mean: %.1f us%n",
+                label, sorted.length,
+                sorted[sorted.length / 2] / 1000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1000.0,
+                Arrays.stream(sorted).average().orElse(0) / 1000.0);
+    }
+}
@@ -0,0 +1,43 @@
+package model;
+
+import org.junit.jupiter.api.Assumptions;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.IntSupplier;
+
+/**
+ * Measures how many bytes the current thread allocates per call of an operation, with
+ * com.sun.management.ThreadMXBean. Tests using it are skipped on JVMs that cannot count allocations.
+ */
+final class Allocations {
+    private static final int WARMUP_CALLS = 20_000;
+
+    // Results are kept here so the JIT cannot drop the measured calls
+    static volatile long sink;
+
+    private Allocations() {
+    }
+
+    // Average bytes allocated per call, measured after warming the operation up so the JIT has compiled it
+    static double bytesPerCall(int calls, IntSupplier operation) {
+        com.sun.management.ThreadMXBean threads = threadBean();
+        long result = 0;
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            result += operation.getAsInt();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; i++) {
+            result += operation.getAsInt();
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        sink = result;
+        return (double) allocated / calls;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        boolean isSupported = ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+        Assumptions.assumeTrue(isSupported, "Thread allocation counting is not available");
+        return (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+}
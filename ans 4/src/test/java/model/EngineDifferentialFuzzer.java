@@ -0,0 +1,352 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Differential fuzzer for alternative game engines. Plays seeded random games on GameEngine, the reference,
+ * and on each candidate engine side by side, and checks after every shot that both returned the same ShotScore
+ * and publish the same board, opponents and scores. A divergence is shrunk to the fewest opponents and shortest
+ * shot sequence that still shows it, and printed as a reproduction.
+ *
+ * Usage: EngineDifferentialFuzzer [games] [seed]
+ */
+public class EngineDifferentialFuzzer {
+    private static final int MAX_OPPONENTS = 8;
+    private static final int MAX_SHOTS_PER_GAME = 200;
+    private static final String[] INVALID_SHOTS = {"", "A", "K1", "A0", "A11", "1A", "AA", "Z99", " B2", "B2 ", "J10a"};
+
+    // An engine implementation that should behave exactly like GameEngine
+    interface Candidate {
+        ShotScore processPlayerShot(String shotCoordinates);
+
+        GameSnapshot getSnapshot();
+    }
+
+    // Builds a candidate that starts from the same game as the reference, before any shots
+    static final class CandidateType {
+        final String name;
+        final Function<GameEngine, Candidate> factory;
+
+        CandidateType(String name, Function<GameEngine, Candidate> factory) {
+            this.name = name;
+            this.factory = factory;
+        }
+    }
+
+    // A shot sequence on which a candidate and the reference disagree
+    static final class Divergence {
+        final CandidateType candidate;
+        final long layoutSeed;
+        final int numOpponents;
+        final List<String> shots;
+        final int step;
+        final String difference;
+
+        Divergence(CandidateType candidate, long layoutSeed, int numOpponents, List<String> shots,
+                int step, String difference) {
+            this.candidate = candidate;
+            this.layoutSeed = layoutSeed;
+            this.numOpponents = numOpponents;
+            this.shots = shots;
+            this.step = step;
+            this.difference = difference;
+        }
+
+        @Override
+        public String toString() {
+            return candidate.name + " diverged from GameEngine at shot " + (step + 1) + " of " + shots.size()
+                    + "\n  game:  new GameEngine(" + numOpponents + ", " + layoutSeed + "L)"
+                    + "\n  shots: " + shots
+                    + "\n  " + difference;
+        }
+    }
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : new Random().nextLong();
+        System.out.println("Fuzzing " + games + " games with seed " + seed);
+
+        List<Divergence> divergences = fuzz(defaultCandidates(), games, seed);
+        if (divergences.isEmpty()) {
+            System.out.println("No divergences");
+            return;
+        }
+        for (Divergence divergence : divergences) {
+            System.out.println(divergence);
+        }
+        System.exit(1);
+    }
+
+    // The engines checked by default: forks, chains of forks, multiplayer games and games passed through GameCodec
+    static List<CandidateType> defaultCandidates() {
+        List<CandidateType> candidates = new ArrayList<>();
+        candidates.add(new CandidateType("GameFork", reference -> {
+            GameFork fork = GameFork.of(reference.getSnapshot());
+            return new Candidate() {
+                public ShotScore processPlayerShot(String shotCoordinates) {
+                    return fork.processPlayerShot(shotCoordinates);
+                }
+
+                public GameSnapshot getSnapshot() {
+                    return fork.getSnapshot();
+                }
+            };
+        }));
+        candidates.add(new CandidateType("GameFork chain", reference -> new Candidate() {
+            private GameFork fork = GameFork.of(reference.getSnapshot());
+
+            // every shot goes to a fresh fork of the previous one
+            public ShotScore processPlayerShot(String shotCoordinates) {
+                fork = fork.fork();
+                return fork.processPlayerShot(shotCoordinates);
+            }
+
+            public GameSnapshot getSnapshot() {
+                return fork.getSnapshot();
+            }
+        }));
+        candidates.add(new CandidateType("MultiplayerGame", reference -> {
+            MultiplayerGame game = new MultiplayerGame(reference.getSnapshot());
+            return new Candidate() {
+                public ShotScore processPlayerShot(String shotCoordinates) {
+                    return game.processPlayerShot(shotCoordinates);
+                }
+
+                public GameSnapshot getSnapshot() {
+                    return game.getSnapshot();
+                }
+            };
+        }));
+        candidates.add(new CandidateType("GameCodec round trip", reference -> new Candidate() {
+            private GameEngine game = roundTrip(reference);
+
+            // the game is encoded and decoded again after every shot
+            public ShotScore processPlayerShot(String shotCoordinates) {
+                ShotScore shotScore = game.processPlayerShot(shotCoordinates);
+                game = roundTrip(game);
+                return shotScore;
+            }
+
+            public GameSnapshot getSnapshot() {
+                return game.getSnapshot();
+            }
+        }));
+        return candidates;
+    }
+
+    // Plays the given number of random games against every candidate, returns one shrunk divergence per candidate
+    static List<Divergence> fuzz(List<CandidateType> candidates, int games, long seed) {
+        Random random = new Random(seed);
+        List<CandidateType> remaining = new ArrayList<>(candidates);
+        List<Divergence> divergences = new ArrayList<>();
+        long shotsFired = 0;
+        int played = 0;
+
+        for (int game = 0; game < games && !remaining.isEmpty(); game++) {
+            long layoutSeed = random.nextLong();
+            int numOpponents = 1 + random.nextInt(MAX_OPPONENTS);
+            if (newGame(numOpponents, layoutSeed) == null) {
+                continue;
+            }
+            List<String> shots = randomShots(random, newGame(numOpponents, layoutSeed).getMap().getBoardSize());
+            shotsFired += shots.size();
+            played++;
+
+            for (CandidateType candidate : List.copyOf(remaining)) {
+                Divergence divergence = play(candidate, layoutSeed, numOpponents, shots);
+                if (divergence != null) {
+                    divergences.add(shrink(divergence));
+                    remaining.remove(candidate);
+                }
+            }
+        }
+        System.out.println("Played " + played + " games, " + shotsFired + " shots, against "
+                + candidates.size() + " candidates");
+        return divergences;
+    }
+
+    // A mix of fresh cells (in either case), repeats of earlier shots and invalid coordinates
+    private static List<String> randomShots(Random random, int boardSize) {
+        int count = 1 + random.nextInt(MAX_SHOTS_PER_GAME);
+        List<String> shots = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 2 && !shots.isEmpty()) {
+                shots.add(shots.get(random.nextInt(shots.size())));
+            } else if (kind == 2) {
+                shots.add(INVALID_SHOTS[random.nextInt(INVALID_SHOTS.length)]);
+            } else {
+                char row = (char) ((random.nextBoolean() ? 'A' : 'a') + random.nextInt(boardSize));
+                shots.add(row + String.valueOf(1 + random.nextInt(boardSize)));
+            }
+        }
+        return shots;
+    }
+
+    /**
+     * Plays the shots on the reference and on the candidate until the reference's game is over.
+     * Returns where they first disagreed, or null if they never did.
+     */
+    static Divergence play(CandidateType type, long layoutSeed, int numOpponents, List<String> shots) {
+        GameEngine reference = newGame(numOpponents, layoutSeed);
+        if (reference == null) {
+            return null;
+        }
+        Candidate candidate;
+        try {
+            candidate = type.factory.apply(reference);
+        } catch (RuntimeException e) {
+            return new Divergence(type, layoutSeed, numOpponents, shots, -1, "candidate could not be created: " + e);
+        }
+
+        String difference = compareSnapshots(reference.getSnapshot(), candidate.getSnapshot());
+        if (difference != null) {
+            return new Divergence(type, layoutSeed, numOpponents, shots, -1, "before any shot, " + difference);
+        }
+        for (int step = 0; step < shots.size() && !reference.isGameOver(); step++) {
+            String shot = shots.get(step);
+            String expected = describeShot(() -> reference.processPlayerShot(shot));
+            String actual = describeShot(() -> candidate.processPlayerShot(shot));
+            difference = expected.equals(actual) ? null : "shot score: expected " + expected + ", got " + actual;
+            if (difference == null) {
+                difference = compareSnapshots(reference.getSnapshot(), candidate.getSnapshot());
+            }
+            if (difference != null) {
+                return new Divergence(type, layoutSeed, numOpponents, shots, step, difference);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Shrinks a divergence: drops the shots after it, tries fewer opponents, then removes ever smaller
+     * runs of shots for as long as the candidate still diverges.
+     */
+    static Divergence shrink(Divergence divergence) {
+        Divergence smallest = truncate(divergence);
+        for (int numOpponents = 1; numOpponents < smallest.numOpponents; numOpponents++) {
+            Divergence fewer = play(smallest.candidate, smallest.layoutSeed, numOpponents, smallest.shots);
+            if (fewer != null) {
+                smallest = truncate(fewer);
+                break;
+            }
+        }
+
+        boolean isShrinking = true;
+        while (isShrinking) {
+            isShrinking = false;
+            for (int runLength = Math.max(smallest.shots.size() / 2, 1); runLength >= 1; runLength /= 2) {
+                for (int start = 0; start + runLength <= smallest.shots.size(); ) {
+                    List<String> fewerShots = new ArrayList<>(smallest.shots.subList(0, start));
+                    fewerShots.addAll(smallest.shots.subList(start + runLength, smallest.shots.size()));
+                    Divergence shorter = play(smallest.candidate, smallest.layoutSeed, smallest.numOpponents, fewerShots);
+                    if (shorter != null) {
+                        smallest = truncate(shorter);
+                        isShrinking = true;
+                    } else {
+                        start++;
+                    }
+                }
+                if (runLength == 1) {
+                    break;
+                }
+            }
+        }
+        return smallest;
+    }
+
+    private static Divergence truncate(Divergence divergence) {
+        List<String> shots = List.copyOf(divergence.shots.subList(0, Math.max(divergence.step + 1, 0)));
+        return new Divergence(divergence.candidate, divergence.layoutSeed, divergence.numOpponents, shots,
+                divergence.step, divergence.difference);
+    }
+
+    private static String describeShot(java.util.function.Supplier<ShotScore> shot) {
+        try {
+            ShotScore score = shot.get();
+            return "{hit=" + score.isHit() + ", alreadyShot=" + score.wasAlreadyShot()
+                    + ", opponentScores=" + score.getOpponentScores() + ", state=" + score.getGameState() + "}";
+        } catch (RuntimeException e) {
+            return "threw " + e;
+        }
+    }
+
+    // The first published value the two snapshots disagree on, or null if they agree (versions are not compared)
+    static String compareSnapshots(GameSnapshot expected, GameSnapshot actual) {
+        String difference = firstDifference(
+                "game state", expected.getGameState(), actual.getGameState(),
+                "board size", expected.getBoardSize(), actual.getBoardSize(),
+                "shots fired", expected.getNumShotsFired(), actual.getNumShotsFired(),
+                "total score", expected.getTotalScore(), actual.getTotalScore(),
+                "winning score", expected.getWinningScore(), actual.getWinningScore(),
+                "turn count", expected.getTurnCount(), actual.getTurnCount(),
+                "last opponent scores", Arrays.toString(expected.getLastOpponentScores()),
+                Arrays.toString(actual.getLastOpponentScores()),
+                "opponent points per turn", expected.getOpponentPointsPerTurn(), actual.getOpponentPointsPerTurn(),
+                "turns until opponents win", expected.getTurnsUntilOpponentsWin(), actual.getTurnsUntilOpponentsWin(),
+                "active opponent forts", expected.getNumActiveOpponentForts(), actual.getNumActiveOpponentForts(),
+                "opponents", expected.getNumOpponents(), actual.getNumOpponents());
+        if (difference != null) {
+            return difference;
+        }
+
+        for (int i = 0; i < expected.getNumOpponents(); i++) {
+            GameSnapshot.OpponentSnapshot want = expected.getOpponent(i);
+            GameSnapshot.OpponentSnapshot got = actual.getOpponent(i);
+            difference = firstDifference(
+                    "opponent " + i + " id", want.getOpponentId(), got.getOpponentId(),
+                    "opponent " + i + " fort", want.getFortId(), got.getFortId(),
+                    "opponent " + i + " undamaged cells", want.getUndamagedCellCount(), got.getUndamagedCellCount(),
+                    "opponent " + i + " fort cells", want.getTotalCellCount(), got.getTotalCellCount());
+            if (difference != null) {
+                return difference;
+            }
+        }
+
+        int boardSize = expected.getBoardSize();
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                String cell = "cell " + (char) ('A' + row) + (col + 1);
+                difference = firstDifference(
+                        cell + " state", expected.getCellState(row, col), actual.getCellState(row, col),
+                        cell + " fort", expected.isFortCell(row, col), actual.isFortCell(row, col));
+                if (difference != null) {
+                    return difference;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Takes (name, expected, actual) triples
+    private static String firstDifference(Object... triples) {
+        for (int i = 0; i < triples.length; i += 3) {
+            if (!Objects.equals(triples[i + 1], triples[i + 2])) {
+                return triples[i] + ": expected " + triples[i + 1] + ", got " + triples[i + 2];
+            }
+        }
+        return null;
+    }
+
+    // The seeded game, or null if its forts cannot be placed
+    private static GameEngine newGame(int numOpponents, long layoutSeed) {
+        try {
+            return new GameEngine(numOpponents, layoutSeed);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static GameEngine roundTrip(GameEngine game) {
+        try {
+            return GameCodec.decode(GameCodec.encode(game));
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EngineDifferentialFuzzerTest {
+    private static final long SEED = 213;
+    private static final int GAMES = 300;
+
+    @Test
+    void alternativeEnginesPlayLikeGameEngine() {
+        List<EngineDifferentialFuzzer.Divergence> divergences =
+                EngineDifferentialFuzzer.fuzz(EngineDifferentialFuzzer.defaultCandidates(), GAMES, SEED);
+
+        assertEquals(List.of(), divergences.stream().map(Object::toString).toList());
+    }
+
+    @Test
+    void divergencesAreFoundAndShrunk() {
+        // forgets that a cell was already shot
+        EngineDifferentialFuzzer.CandidateType broken = new EngineDifferentialFuzzer.CandidateType("broken",
+                reference -> new EngineDifferentialFuzzer.Candidate() {
+                    private final GameFork fork = GameFork.of(reference.getSnapshot());
+
+                    public ShotScore processPlayerShot(String shotCoordinates) {
+                        ShotScore shotScore = fork.processPlayerShot(shotCoordinates);
+                        return new ShotScore(shotScore.isHit(), false, shotScore.getOpponentScores(),
+                                shotScore.getGameState());
+                    }
+
+                    public GameSnapshot getSnapshot() {
+                        return fork.getSnapshot();
+                    }
+                });
+
+        List<EngineDifferentialFuzzer.Divergence> divergences =
+                EngineDifferentialFuzzer.fuzz(List.of(broken), GAMES, SEED);
+
+        assertEquals(1, divergences.size());
+        EngineDifferentialFuzzer.Divergence divergence = divergences.get(0);
+        assertEquals(1, divergence.numOpponents);
+        assertEquals(2, divergence.shots.size(), divergence.toString());
+        assertTrue(divergence.shots.get(0).equalsIgnoreCase(divergence.shots.get(1)), divergence.toString());
+    }
+}
@@ -0,0 +1,41 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FortPlacerTest {
+    private static final int GAMES = 2_000;
+    // Copying the placed forts on every attempt costs several hundred bytes per attempt with a few forts placed
+    private static final double MAX_EXTRA_BYTES_PER_ATTEMPT = 512;
+
+    @Test
+    void placementAttemptsDoNotCopyThePlacedForts() {
+        double oneFort = bytesPerAttempt(1);
+        double eightForts = bytesPerAttempt(8);
+        assertTrue(eightForts - oneFort < MAX_EXTRA_BYTES_PER_ATTEMPT,
+                "Placing 8 forts allocates " + eightForts + " bytes per attempt, 1 fort " + oneFort);
+    }
+
+    // Placement on a reused map, so the map's cells are not counted
+    private static double bytesPerAttempt(int numForts) {
+        FortPlacer placer = new FortPlacer(42);
+        Map map = new Map();
+        int[] games = {0};
+        double bytesPerGame = Allocations.bytesPerCall(GAMES, () -> {
+            games[0]++;
+            return placeForts(placer, map, numForts);
+        });
+        double attemptsPerGame = (double) placer.getNumPlacementAttempts() / games[0];
+        return bytesPerGame / attemptsPerGame;
+    }
+
+    private static int placeForts(FortPlacer placer, Map map, int numForts) {
+        try {
+            return placer.placeForts(map, numForts).size();
+        } catch (Exception e) {
+            // the forts did not fit, the attempts still count
+            return 0;
+        }
+    }
+}
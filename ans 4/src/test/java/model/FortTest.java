@@ -0,0 +1,42 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FortTest {
+    private static final int CALLS = 100_000;
+    private static final double MAX_BYTES_PER_CALL = 1;
+
+    @Test
+    void cellViewsDoNotAllocate() {
+        Fort fort = newFort();
+        double cells = Allocations.bytesPerCall(CALLS, () -> fort.getCells().size());
+        double undamaged = Allocations.bytesPerCall(CALLS, () -> fort.getUndamagedCells().size());
+        assertTrue(cells < MAX_BYTES_PER_CALL, "getCells allocates " + cells + " bytes per call");
+        assertTrue(undamaged < MAX_BYTES_PER_CALL, "getUndamagedCells allocates " + undamaged + " bytes per call");
+    }
+
+    @Test
+    void cellViewsAreReadOnlyAndLive() {
+        Fort fort = newFort();
+        List<Cell> undamaged = fort.getUndamagedCells();
+        assertThrows(UnsupportedOperationException.class, () -> undamaged.remove(0));
+
+        fort.markDamaged(fort.getCells().get(0));
+        assertEquals(4, undamaged.size());
+        assertEquals(5, fort.getCells().size());
+    }
+
+    private static Fort newFort() {
+        Fort fort = new Fort("A");
+        for (int col = 0; col < 5; col++) {
+            fort.addCell(new Cell(0, col));
+        }
+        return fort;
+    }
+}
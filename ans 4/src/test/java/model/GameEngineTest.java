@@ -0,0 +1,47 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameEngineTest {
+
+    @Test
+    void fastForwardReportsEverySkippedTurnToTheListener() throws Exception {
+        GameEngine game = new GameEngine(5, 42);
+        int[] reported = {0};
+        game.setListener(new GameListener() {
+            @Override
+            public void shotFired(GameEngine game, ShotScore shotScore) {
+                reported[0]++;
+            }
+
+            @Override
+            public void shotsFired(GameEngine game, int count, ShotScore shotScore) {
+                reported[0] += count;
+            }
+        });
+
+        game.processPlayerShot("A1");
+        game.fastForward(3);
+        game.simulateUntilEnd();
+
+        assertEquals(GameEngine.GameState.OPPONENTS_WON, game.getGameState());
+        assertEquals(game.getNumShotsFired(), reported[0]);
+    }
+
+    @Test
+    void shotsAreParsedOnceAndOffBoardShotsMiss() throws Exception {
+        GameEngine game = new GameEngine(5, 42);
+
+        ShotScore offBoard = game.processPlayerShot("K1");
+        assertFalse(offBoard.isHit());
+        assertEquals(1, game.getNumShotsFired());
+
+        game.processPlayerShot("c7");
+        assertTrue(game.getMap().getCellByRowCol(2, 6).hasBeenShot());
+        assertEquals(2, game.getNumShotsFired());
+    }
+}
@@ -0,0 +1,79 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class GameForkTest {
+    private static final int BOARD_SIZE = 20;
+
+    @Test
+    void shotsOnAChildLeaveTheGameParentAndSiblingsUnchanged() throws Exception {
+        GameEngine game = new GameEngine(5, new Map(BOARD_SIZE));
+        game.processPlayerShot("A1");
+        GameFork parent = game.fork();
+        parent.processPlayerShot("B2");
+        GameFork child = parent.fork();
+        GameFork sibling = parent.fork();
+        sibling.processPlayerShot("C3");
+
+        String gameBefore = Snapshots.describe(game.getSnapshot());
+        String parentBefore = Snapshots.describe(parent.getSnapshot());
+        String siblingBefore = Snapshots.describe(sibling.getSnapshot());
+        for (int col = 0; col < BOARD_SIZE; col++) {
+            child.processPlayerShot(Map.toCoordinates(0, col));
+            child.processPlayerShot(Map.toCoordinates(5, col));
+        }
+
+        assertNotEquals(parentBefore, Snapshots.describe(child.getSnapshot()));
+        assertEquals(gameBefore, Snapshots.describe(game.getSnapshot()));
+        assertEquals(parentBefore, Snapshots.describe(parent.getSnapshot()));
+        assertEquals(siblingBefore, Snapshots.describe(sibling.getSnapshot()));
+    }
+
+    @Test
+    void shotsOnAParentLeaveItsForksUnchanged() throws Exception {
+        GameEngine game = new GameEngine(5, new Map(BOARD_SIZE));
+        GameFork parent = game.fork();
+        parent.processPlayerShot("D4");
+        GameFork child = parent.fork();
+        String childBefore = Snapshots.describe(child.getSnapshot());
+
+        for (int col = 0; col < BOARD_SIZE; col++) {
+            parent.processPlayerShot(Map.toCoordinates(3, col));
+        }
+
+        assertEquals(childBefore, Snapshots.describe(child.getSnapshot()));
+    }
+
+    @Test
+    void snapshotsOfAForkNeverChange() throws Exception {
+        GameFork fork = new GameEngine(5, new Map(BOARD_SIZE)).fork();
+        fork.processPlayerShot("E5");
+        GameSnapshot snapshot = fork.getSnapshot();
+        String before = Snapshots.describe(snapshot);
+
+        // the snapshot shares the fork's rows, the next shots in the same row must copy it first
+        for (int col = 0; col < BOARD_SIZE; col++) {
+            fork.processPlayerShot(Map.toCoordinates(4, col));
+        }
+
+        assertEquals(before, Snapshots.describe(snapshot));
+        assertEquals(Cell.CellState.UNKNOWN, snapshot.getCellState(4, 0));
+    }
+
+    @Test
+    void aForkPlaysLikeTheGame() throws Exception {
+        GameEngine game = new GameEngine(5, new Map(BOARD_SIZE));
+        GameFork fork = game.fork();
+        for (int i = 0; i < 30; i++) {
+            String shot = Map.toCoordinates(i % BOARD_SIZE, (i * 7) % BOARD_SIZE);
+            ShotScore expected = game.processPlayerShot(shot);
+            ShotScore actual = fork.processPlayerShot(shot);
+            assertEquals(expected.getOpponentScores(), actual.getOpponentScores());
+        }
+
+        assertEquals(Snapshots.describe(game.getSnapshot()), Snapshots.describe(fork.getSnapshot()));
+    }
+}
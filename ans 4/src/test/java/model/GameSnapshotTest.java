@@ -0,0 +1,150 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameSnapshotTest {
+    private static final int CALLS = 2_000;
+    // A full copy of a 1024 x 1024 board is over 1 MB, a row and the tile row it is in are about 5 KB
+    private static final double MAX_EXTRA_BYTES_PER_TURN = 16 * 1024;
+
+    @Test
+    void incrementalSnapshotsMatchAFullRebuild() throws Exception {
+        GameEngine game = new GameEngine(5, new Map(200));
+        Random random = new Random(7);
+        for (int turn = 0; turn < 2_000; turn++) {
+            if (turn % 500 == 499) {
+                game.fastForward(1);
+            } else {
+                int row = random.nextInt(200);
+                int col = random.nextInt(200);
+                // every other shot lands next to the last, so some turns reshoot a cell
+                game.processPlayerShot(Map.toCoordinates(row, random.nextBoolean() ? col : col / 2));
+            }
+            GameSnapshot published = game.getSnapshot();
+            assertSameBoard(GameSnapshot.of(game, published.getVersion()), published);
+        }
+    }
+
+    @Test
+    void publishedSnapshotsNeverChange() throws Exception {
+        GameEngine game = new GameEngine(5, new Map(64));
+        GameSnapshot before = game.getSnapshot();
+        game.processPlayerShot("A1");
+        GameSnapshot afterOne = game.getSnapshot();
+        game.processPlayerShot("A2");
+
+        assertEquals(Cell.CellState.UNKNOWN, before.getCellState(0, 0));
+        assertEquals(0, before.getTileIndex().getShotCells(0, 0));
+        assertEquals(Cell.CellState.UNKNOWN, afterOne.getCellState(0, 1));
+        assertEquals(1, afterOne.getTileIndex().getShotCells(0, 0));
+        assertEquals(2, game.getSnapshot().getTileIndex().getShotCells(0, 0));
+    }
+
+    @Test
+    void turnsOnALargeBoardDoNotCopyTheWholeBoard() throws Exception {
+        // seeded, random fort placement sometimes fails on the standard board
+        GameEngine small = new GameEngine(5, 42);
+        GameEngine large = new GameEngine(5, new Map(Map.MAX_BOARD_SIZE));
+        String[] shots = new String[1000];
+        for (int i = 0; i < shots.length; i++) {
+            shots[i] = Map.toCoordinates(i % Map.DEFAULT_BOARD_SIZE, i / 100);
+        }
+        int[] turn = {0};
+        double smallBytes = Allocations.bytesPerCall(CALLS,
+                () -> small.processPlayerShot(shots[turn[0]++ % shots.length]).getOpponentScores().size());
+        double largeBytes = Allocations.bytesPerCall(CALLS,
+                () -> large.processPlayerShot(shots[turn[0]++ % shots.length]).getOpponentScores().size());
+        assertTrue(largeBytes - smallBytes < MAX_EXTRA_BYTES_PER_TURN,
+                "A turn allocates " + largeBytes + " bytes on a 1024 board, " + smallBytes + " on a 10 board");
+    }
+
+    @Test
+    void readersAlwaysSeeAWholeTurn() throws Exception {
+        int boardSize = 200;
+        int turns = 4_000;
+        GameEngine game = new GameEngine(5, new Map(boardSize));
+        AtomicBoolean isDone = new AtomicBoolean();
+        AtomicReference<String> inconsistency = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long lastVersion = -1;
+            while (!isDone.get() && inconsistency.get() == null) {
+                GameSnapshot snapshot = game.getSnapshot();
+                String problem = snapshot.getVersion() < lastVersion
+                        ? "version went back from " + lastVersion + " to " + snapshot.getVersion()
+                        : checkConsistent(snapshot);
+                inconsistency.compareAndSet(null, problem);
+                lastVersion = snapshot.getVersion();
+            }
+        });
+        reader.start();
+
+        // every shot lands on a fresh cell, so each turn adds exactly one shot cell
+        for (int turn = 0; turn < turns; turn++) {
+            game.processPlayerShot(Map.toCoordinates(turn % boardSize, turn / boardSize * 7 % boardSize));
+        }
+        isDone.set(true);
+        reader.join();
+
+        assertNull(inconsistency.get());
+        assertNull(checkConsistent(game.getSnapshot()));
+        assertEquals(turns, game.getSnapshot().getNumShotsFired());
+    }
+
+    // Describes how the snapshot's board, tile index, opponents and counters disagree, or null if they agree
+    private static String checkConsistent(GameSnapshot snapshot) {
+        int shotCells = 0;
+        int hitCells = 0;
+        for (int row = 0; row < snapshot.getBoardSize(); row++) {
+            for (int col = 0; col < snapshot.getBoardSize(); col++) {
+                Cell.CellState state = snapshot.getCellState(row, col);
+                shotCells += state != Cell.CellState.UNKNOWN ? 1 : 0;
+                hitCells += state == Cell.CellState.HIT ? 1 : 0;
+            }
+        }
+        int indexedShotCells = 0;
+        TileIndex tiles = snapshot.getTileIndex();
+        for (int tileRow = 0; tileRow < tiles.getTilesPerSide(); tileRow++) {
+            for (int tileCol = 0; tileCol < tiles.getTilesPerSide(); tileCol++) {
+                indexedShotCells += tiles.getShotCells(tileRow, tileCol);
+            }
+        }
+        int damagedCells = 0;
+        for (int i = 0; i < snapshot.getNumOpponents(); i++) {
+            GameSnapshot.OpponentSnapshot opponent = snapshot.getOpponent(i);
+            damagedCells += opponent.getTotalCellCount() - opponent.getUndamagedCellCount();
+        }
+
+        if (shotCells != snapshot.getNumShotsFired() || indexedShotCells != shotCells || damagedCells != hitCells) {
+            return "version " + snapshot.getVersion() + ": " + snapshot.getNumShotsFired() + " shots fired, "
+                    + shotCells + " cells shot, " + indexedShotCells + " in the tile index, "
+                    + hitCells + " hit, " + damagedCells + " fort cells damaged";
+        }
+        return null;
+    }
+
+    private static void assertSameBoard(GameSnapshot expected, GameSnapshot actual) {
+        int boardSize = expected.getBoardSize();
+        for (int row = 0; row < boardSize; row++) {
+            for (int col = 0; col < boardSize; col++) {
+                assertEquals(expected.getCellState(row, col), actual.getCellState(row, col));
+                assertEquals(expected.isFortCell(row, col), actual.isFortCell(row, col));
+            }
+        }
+        TileIndex expectedTiles = expected.getTileIndex();
+        TileIndex actualTiles = actual.getTileIndex();
+        for (int tileRow = 0; tileRow < expectedTiles.getTilesPerSide(); tileRow++) {
+            for (int tileCol = 0; tileCol < expectedTiles.getTilesPerSide(); tileCol++) {
+                assertEquals(expectedTiles.getShotCells(tileRow, tileCol), actualTiles.getShotCells(tileRow, tileCol));
+                assertEquals(expectedTiles.getFortCells(tileRow, tileCol), actualTiles.getFortCells(tileRow, tileCol));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MapTest {
+
+    @Test
+    void parsesStandardCoordinates() {
+        assertEquals(0, Map.parseCellIndex("A1", 10));
+        assertEquals(14, Map.parseCellIndex("B5", 10));
+        assertEquals(14, Map.parseCellIndex("b5", 10));
+        assertEquals(99, Map.parseCellIndex("J10", 10));
+    }
+
+    @Test
+    void rowsPastZContinueInBijectiveBase26() {
+        assertEquals(25 * 30, Map.parseCellIndex("Z1", 30));
+        assertEquals(26 * 30, Map.parseCellIndex("AA1", 30));
+        assertEquals(27 * 30 + 2, Map.parseCellIndex("ab3", 30));
+        assertEquals(51 * 100, Map.parseCellIndex("AZ1", 100));
+        assertEquals(52 * 100, Map.parseCellIndex("BA1", 100));
+        assertEquals(701 * 1024, Map.parseCellIndex("ZZ1", 1024));
+        assertEquals(702 * 1024, Map.parseCellIndex("AAA1", 1024));
+    }
+
+    @Test
+    void formattingAndParsingAreInverse() {
+        int boardSize = 1024;
+        for (int row = 0; row < boardSize; row++) {
+            int col = (row * 7) % boardSize;
+            assertEquals(row * boardSize + col, Map.parseCellIndex(Map.toCoordinates(row, col), boardSize),
+                    Map.toCoordinates(row, col));
+        }
+    }
+
+    @Test
+    void rejectsCoordinatesOffTheBoard() {
+        assertEquals(-1, Map.parseCellIndex("A0", 10));
+        assertEquals(-1, Map.parseCellIndex("A11", 10));
+        assertEquals(-1, Map.parseCellIndex("K1", 10));
+        assertEquals(-1, Map.parseCellIndex("Z1", 10));
+        assertEquals(-1, Map.parseCellIndex("AA1", 26));
+        assertEquals(-1, Map.parseCellIndex("A31", 30));
+        assertEquals(-1, Map.parseCellIndex("A00", 30));
+    }
+
+    @Test
+    void rejectsMalformedCoordinates() {
+        assertEquals(-1, Map.parseCellIndex(null, 10));
+        assertEquals(-1, Map.parseCellIndex("", 10));
+        assertEquals(-1, Map.parseCellIndex("A", 10));
+        assertEquals(-1, Map.parseCellIndex("5", 10));
+        assertEquals(-1, Map.parseCellIndex("1A", 10));
+        assertEquals(-1, Map.parseCellIndex("A1B", 30));
+        assertEquals(-1, Map.parseCellIndex("A-1", 30));
+        assertEquals(-1, Map.parseCellIndex("[1", 30));
+        assertEquals(-1, Map.parseCellIndex("A 1", 30));
+    }
+
+    @Test
+    void rejectsOverLongCoordinatesWithoutOverflow() {
+        assertEquals(-1, Map.parseCellIndex("A" + "1".repeat(20), 1024));
+        assertEquals(0, Map.parseCellIndex("A" + "0".repeat(14) + "1", 1024));
+        assertEquals(-1, Map.parseCellIndex("A" + "0".repeat(15) + "1", 1024));
+        assertEquals(-1, Map.parseCellIndex("Z".repeat(15) + "1", 1024));
+        assertEquals(-1, Map.parseCellIndex("A4294967297", 1024));
+    }
+}
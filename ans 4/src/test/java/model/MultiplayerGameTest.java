@@ -0,0 +1,106 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiplayerGameTest {
+    private static final int BOARD_SIZE = 20;
+    private static final int PLAYERS = 8;
+    private static final int ROUNDS = 20;
+
+    @Test
+    void concurrentShotsNeverDoubleCountAHit() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PLAYERS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                playRound(executor, round);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shotsAfterTheGameEndsChangeNothing() throws Exception {
+        GameSnapshot start = new GameEngine(5, new Map(BOARD_SIZE)).getSnapshot();
+        MultiplayerGame game = new MultiplayerGame(start);
+        for (int cell = 0; cell < BOARD_SIZE * BOARD_SIZE && !game.isGameOver(); cell++) {
+            game.processPlayerShot(Map.toCoordinates(cell / BOARD_SIZE, cell % BOARD_SIZE));
+        }
+        String before = Snapshots.describe(game.getSnapshot());
+
+        ShotScore shotScore = game.processPlayerShot("T20");
+
+        assertTrue(game.isGameOver());
+        assertEquals(game.getGameState(), shotScore.getGameState());
+        assertEquals(before, Snapshots.describe(game.getSnapshot()));
+    }
+
+    // Every player fires at every fort cell, in their own order, all at once
+    private static void playRound(ExecutorService executor, int round) throws Exception {
+        GameSnapshot start = new GameEngine(5, new Map(BOARD_SIZE)).getSnapshot();
+        MultiplayerGame game = new MultiplayerGame(start);
+        List<Integer> fortCells = new ArrayList<>();
+        for (int cell = 0; cell < BOARD_SIZE * BOARD_SIZE; cell++) {
+            if (start.isFortCell(cell / BOARD_SIZE, cell % BOARD_SIZE)) {
+                fortCells.add(cell);
+            }
+        }
+        AtomicIntegerArray firstHits = new AtomicIntegerArray(BOARD_SIZE * BOARD_SIZE);
+        CyclicBarrier barrier = new CyclicBarrier(PLAYERS);
+
+        List<Future<?>> pending = new ArrayList<>();
+        for (int player = 0; player < PLAYERS; player++) {
+            List<Integer> order = new ArrayList<>(fortCells);
+            Collections.shuffle(order, new Random(round * PLAYERS + player));
+            pending.add(executor.submit(() -> {
+                barrier.await();
+                for (int cell : order) {
+                    String coordinates = Map.toCoordinates(cell / BOARD_SIZE, cell % BOARD_SIZE);
+                    ShotScore shotScore = game.processPlayerShot(coordinates);
+                    if (shotScore.isHit() && !shotScore.wasAlreadyShot()) {
+                        firstHits.incrementAndGet(cell);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : pending) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        GameSnapshot end = game.getSnapshot();
+        short[] fortLayout = end.getFortLayout();
+        int[] damage = new int[end.getNumOpponents()];
+        for (int cell : fortCells) {
+            int hits = firstHits.get(cell);
+            assertTrue(hits <= 1, "cell " + cell + " counted " + hits + " times");
+            boolean isHit = end.getCellState(cell / BOARD_SIZE, cell % BOARD_SIZE) == Cell.CellState.HIT;
+            assertEquals(isHit ? 1 : 0, hits);
+            damage[fortLayout[cell] - 1] += hits;
+        }
+        int fortsStanding = 0;
+        for (int i = 0; i < damage.length; i++) {
+            GameSnapshot.OpponentSnapshot opponent = end.getOpponent(i);
+            assertEquals(opponent.getTotalCellCount() - damage[i], opponent.getUndamagedCellCount());
+            fortsStanding += opponent.isDestroyed() ? 0 : 1;
+        }
+        assertEquals(fortsStanding, end.getNumActiveOpponentForts());
+        if (end.getGameState() == GameEngine.GameState.PLAYER_WON) {
+            assertEquals(0, fortsStanding);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScoreBoardTest {
+    private static final int CALLS = 100_000;
+    private static final double MAX_BYTES_PER_CALL = 1;
+    // Slack for measurement noise when comparing two allocating calls
+    private static final double MAX_EXTRA_BYTES_PER_CALL = 16;
+
+    @Test
+    void historyViewDoesNotAllocate() {
+        ScoreBoard scoreBoard = newScoreBoard(10_000);
+        double bytes = Allocations.bytesPerCall(CALLS, () -> scoreBoard.getScoreHistory().size());
+        assertTrue(bytes < MAX_BYTES_PER_CALL, "getScoreHistory allocates " + bytes + " bytes per call");
+    }
+
+    @Test
+    void recentScoresDoNotCopyTheWholeHistory() {
+        ScoreBoard shortHistory = newScoreBoard(10);
+        ScoreBoard longHistory = newScoreBoard(10_000);
+        double shortBytes = Allocations.bytesPerCall(CALLS, () -> shortHistory.getRecentScores(5).size());
+        double longBytes = Allocations.bytesPerCall(CALLS, () -> longHistory.getRecentScores(5).size());
+        assertTrue(longBytes - shortBytes < MAX_EXTRA_BYTES_PER_CALL,
+                "getRecentScores allocates " + longBytes + " bytes per call with a long history, "
+                        + shortBytes + " with a short one");
+    }
+
+    @Test
+    void recentScoresAreAnUnmodifiableCopy() {
+        ScoreBoard scoreBoard = new ScoreBoard();
+        scoreBoard.addRepeatedPoints(20, 3);
+        scoreBoard.addPoints(35);
+
+        List<Integer> recent = scoreBoard.getRecentScores(2);
+        assertEquals(List.of(20, 35), recent);
+        assertThrows(UnsupportedOperationException.class, () -> recent.set(0, 1));
+
+        scoreBoard.addPoints(50);
+        assertEquals(List.of(20, 35), recent);
+        assertEquals(List.of(20, 20, 20, 35, 50), scoreBoard.getRecentScores(10));
+        assertEquals(List.of(), scoreBoard.getRecentScores(0));
+    }
+
+    @Test
+    void historyMatchesTheTurnsRecorded() {
+        ScoreBoard scoreBoard = new ScoreBoard();
+        List<Integer> expected = new ArrayList<>();
+        Random random = new Random(30);
+        for (int i = 0; i < 2_000; i++) {
+            // few distinct points, so consecutive calls often extend the last run
+            int points = 1 + random.nextInt(4);
+            int turns = 1 + random.nextInt(i % 10 == 0 ? 50 : 3);
+            scoreBoard.addRepeatedPoints(points, turns);
+            for (int turn = 0; turn < turns; turn++) {
+                expected.add(points);
+            }
+        }
+
+        for (int turn = 0; turn < expected.size(); turn++) {
+            assertEquals(expected.get(turn), scoreBoard.getScoreAt(turn), "turn " + turn);
+        }
+        assertEquals(expected, new ArrayList<>(scoreBoard.getScoreHistory()));
+        assertThrows(IndexOutOfBoundsException.class, () -> scoreBoard.getScoreAt(expected.size()));
+        assertThrows(IndexOutOfBoundsException.class, () -> scoreBoard.getScoreAt(-1));
+
+        ScoreBoard restored = new ScoreBoard();
+        restored.addRepeatedPoints(9, 4);
+        int[] runPoints = new int[scoreBoard.getRunCount()];
+        int[] runLengths = new int[runPoints.length];
+        for (int run = 0; run < runPoints.length; run++) {
+            runPoints[run] = scoreBoard.getRunPoints(run);
+            runLengths[run] = scoreBoard.getRunLength(run);
+        }
+        restored.restore(scoreBoard.getTotalScore(), runPoints, runLengths);
+        assertEquals(expected, restored.getScoreHistory());
+    }
+
+    @Test
+    void historyIteratorSeesTurnsAddedWhileIterating() {
+        ScoreBoard scoreBoard = new ScoreBoard();
+        scoreBoard.addRepeatedPoints(20, 2);
+        Iterator<Integer> turns = scoreBoard.getScoreHistory().iterator();
+        assertEquals(20, turns.next());
+        assertEquals(20, turns.next());
+        assertFalse(turns.hasNext());
+        assertThrows(NoSuchElementException.class, turns::next);
+
+        scoreBoard.addPoints(20);
+        scoreBoard.addPoints(35);
+        assertEquals(20, turns.next());
+        assertEquals(35, turns.next());
+        assertFalse(turns.hasNext());
+    }
+
+    // A history of the given number of turns, each scoring differently from the last
+    private static ScoreBoard newScoreBoard(int turns) {
+        ScoreBoard scoreBoard = new ScoreBoard();
+        for (int turn = 0; turn < turns; turn++) {
+            scoreBoard.addPoints(1 + turn % 7);
+        }
+        return scoreBoard;
+    }
+}
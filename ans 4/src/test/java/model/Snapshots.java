@@ -0,0 +1,36 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Describes everything a player can see of a game in one string, so tests can compare games,
+ * forks and decoded copies of games with assertEquals.
+ */
+public final class Snapshots {
+
+    private Snapshots() {
+    }
+
+    public static String describe(GameSnapshot snapshot) {
+        StringBuilder description = new StringBuilder();
+        for (int row = 0; row < snapshot.getBoardSize(); row++) {
+            for (int col = 0; col < snapshot.getBoardSize(); col++) {
+                description.append(snapshot.getCellState(row, col).ordinal())
+                        .append(snapshot.isFortCell(row, col) ? 'F' : '.');
+            }
+            description.append('\n');
+        }
+        for (int i = 0; i < snapshot.getNumOpponents(); i++) {
+            GameSnapshot.OpponentSnapshot opponent = snapshot.getOpponent(i);
+            description.append(opponent.getOpponentId()).append(' ').append(opponent.getFortId()).append(' ')
+                    .append(opponent.getUndamagedCellCount()).append('/').append(opponent.getTotalCellCount())
+                    .append('\n');
+        }
+        return description.append(snapshot.getGameState())
+                .append(" score ").append(snapshot.getTotalScore()).append('/').append(snapshot.getWinningScore())
+                .append(" turns ").append(snapshot.getTurnCount())
+                .append(" shots ").append(snapshot.getNumShotsFired())
+                .append(" last ").append(Arrays.toString(snapshot.getLastOpponentScores()))
+                .toString();
+    }
+}
@@ -0,0 +1,93 @@
+package protocol;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking client for the binary game protocol, for bots and benchmarks.
+ * Sends one request at a time and waits for its response.
+ */
+public class BinaryGameClient implements AutoCloseable {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private int nextRequestId = 1;
+
+    public BinaryGameClient(String host, int port) throws IOException {
+        this.socket = new Socket(host, port);
+        socket.setTcpNoDelay(true);
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    public int createGame() throws IOException {
+        writeHeader(BinaryProtocol.CREATE_GAME, 0);
+        out.flush();
+        return readResponse().readInt();
+    }
+
+    // Fires one shot, returns the response payload (see BinaryProtocol for the shot result layout)
+    public DataInputStream fireShot(int gameNumber, String coordinate) throws IOException {
+        byte[] ascii = coordinate.getBytes(StandardCharsets.US_ASCII);
+        writeHeader(BinaryProtocol.FIRE_SHOT, 4 + 1 + ascii.length);
+        out.writeInt(gameNumber);
+        out.writeByte(ascii.length);
+        out.write(ascii);
+        out.flush();
+        return readResponse();
+    }
+
+    public DataInputStream fireShots(int gameNumber, String... coordinates) throws IOException {
+        int length = 4 + 2;
+        for (String coordinate : coordinates) {
+            length += 1 + coordinate.length();
+        }
+        writeHeader(BinaryProtocol.BATCH_SHOTS, length);
+        out.writeInt(gameNumber);
+        out.writeShort(coordinates.length);
+        for (String coordinate : coordinates) {
+            out.writeByte(coordinate.length());
+            out.write(coordinate.getBytes(StandardCharsets.US_ASCII));
+        }
+        out.flush();
+        return readResponse();
+    }
+
+    public DataInputStream readSnapshot(int gameNumber) throws IOException {
+        writeHeader(BinaryProtocol.SNAPSHOT, 4);
+        out.writeInt(gameNumber);
+        out.flush();
+        return readResponse();
+    }
+
+    private void writeHeader(byte opcode, int payloadLength) throws IOException {
+        out.writeInt(1 + 4 + payloadLength);
+        out.writeByte(opcode);
+        out.writeInt(nextRequestId++);
+    }
+
+    // Reads the next response and returns its payload, throws if the status is not OK
+    private DataInputStream readResponse() throws IOException {
+        int length = in.readInt();
+        byte[] frame = new byte[length];
+        in.readFully(frame);
+        DataInputStream response = new DataInputStream(new ByteArrayInputStream(frame));
+        response.readInt(); // request id
+        byte status = response.readByte();
+        if (status != BinaryProtocol.STATUS_OK) {
+            throw new IOException("Request failed with status " + status);
+        }
+        return response;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
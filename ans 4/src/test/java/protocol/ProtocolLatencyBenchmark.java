@@ -0,0 +1,107 @@
+package protocol;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+
+/**
+ * Compares per-shot latency of the REST API with the binary protocol against a running server.
+ * Usage: ProtocolLatencyBenchmark [host] [httpPort] [binaryPort] [shots], after mvn test-compile:
+ * java -cp target/classes:target/test-classes protocol.ProtocolLatencyBenchmark
+ * Start the server with --admission.enabled=false, the REST shot rate limit would throttle the benchmark.
+ */
+public class ProtocolLatencyBenchmark {
+    private static final int WARMUP_SHOTS = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int httpPort = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        int binaryPort = args.length > 2 ? Integer.parseInt(args[2]) : 9090;
+        int shots = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+
+        HttpClient http = HttpClient.newHttpClient();
+        String baseUrl = "http://" + host + ":" + httpPort + "/api/games";
+        try (BinaryGameClient binary = new BinaryGameClient(host, binaryPort)) {
+            runRest(http, baseUrl, WARMUP_SHOTS);
+            runBinary(binary, WARMUP_SHOTS);
+            report("REST  ", runRest(http, baseUrl, shots));
+            report("binary", runBinary(binary, shots));
+        }
+    }
+
+    private static long[] runRest(HttpClient http, String baseUrl, int shots) throws Exception {
+        long[] latencies = new long[shots];
+        int gameNumber = createRestGame(http, baseUrl);
+        for (int i = 0; i < shots; i++) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/" + gameNumber + "/shots"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"shot\":\"" + coordinate(i) + "\"}"))
+                    .build();
+            long start = System.nanoTime();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            latencies[i] = System.nanoTime() - start;
+            if (!response.body().contains("IN_PROGRESS")) {
+                gameNumber = createRestGame(http, baseUrl);
+            }
+        }
+        return latencies;
+    }
+
+    // Fort placement occasionally fails, so retry until a game is created
+    private static int createRestGame(HttpClient http, String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        while (response.statusCode() != 201) {
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+        String number = response.body().replaceAll(".*\"gameNumber\":(\\d+).*", "$1");
+        return Integer.parseInt(number);
+    }
+
+    private static long[] runBinary(BinaryGameClient binary, int shots) throws Exception {
+        long[] latencies = new long[shots];
+        int gameNumber = createBinaryGame(binary);
+        for (int i = 0; i < shots; i++) {
+            long start = System.nanoTime();
+            DataInputStream result = binary.fireShot(gameNumber, coordinate(i));
+            latencies[i] = System.nanoTime() - start;
+            result.readByte(); // flags
+            if (result.readByte() != 0) {
+                gameNumber = createBinaryGame(binary);
+            }
+        }
+        return latencies;
+    }
+
+    private static int createBinaryGame(BinaryGameClient binary) {
+        while (true) {
+            try {
+                return binary.createGame();
+            } catch (IOException e) {
+                // fort placement failed, try again
+            }
+        }
+    }
+
+    // Walks the board row by row
+    private static String coordinate(int shot) {
+        int cell = shot % 100;
+        return (char) ('A' + cell / 10) + String.valueOf(cell % 10 + 1);
+    }
+
+    private static void report(String label, long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%s shots: %d | p50: %.1f us | p99: %.1f us | mean: %.1f us%n",
+                label, sorted.length,
+                sorted[sorted.length / 2] / 1000.0,
+                sorted[(int) (sorted.length * 0.99)] / 1000.0,
+                Arrays.stream(sorted).average().orElse(0) / 1000.0);
+    }
+}
@@ -0,0 +1,122 @@
+package realtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void itemsFallDueOnTheirTickAcrossEveryLevel() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>();
+        // start mid-rotation so deadlines do not line up with the slot boundaries
+        wheel.advanceTo(1_000, item -> { });
+        long[] delays = {1, 2, 255, 256, 257, 511, 512, 65_535, 65_536, 65_537, 100_000,
+                (1 << 24) - 1, 1 << 24, (1 << 24) + 1, (1 << 24) + 65_536 + 257};
+        for (long delay : delays) {
+            wheel.scheduleAfter(delay, 1_000 + delay);
+        }
+
+        Map<Long, Long> dueAt = new HashMap<>();
+        wheel.advanceTo(1_000 + delays[delays.length - 1], item -> dueAt.put(item, wheel.getCurrentTick()));
+
+        assertEquals(delays.length, dueAt.size());
+        dueAt.forEach((deadline, tick) -> assertEquals(deadline, tick));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadedItemsKeepTheirTickWhenScheduledJustBeforeARotation() {
+        // one tick before level 1, then level 2 starts a new rotation
+        for (long now : new long[] {255, 65_535, 65_536 * 2 - 1}) {
+            HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>();
+            wheel.advanceTo(now, item -> { });
+            for (long delay : new long[] {1, 255, 256, 257, 65_536, 65_537}) {
+                wheel.schedule(now + delay, now + delay);
+            }
+            List<Long> due = new ArrayList<>();
+            wheel.advanceTo(now + 65_537, item -> {
+                assertEquals(item, wheel.getCurrentTick());
+                due.add(item);
+            });
+            assertEquals(6, due.size(), "scheduled at " + now);
+        }
+    }
+
+    @Test
+    void pastDeadlinesFallDueOnTheNextTick() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>();
+        wheel.advanceTo(500, item -> { });
+        wheel.schedule(10, "past");
+        wheel.schedule(500, "now");
+        wheel.scheduleAfter(-3, "negative");
+
+        List<String> due = new ArrayList<>();
+        wheel.advanceTo(501, due::add);
+
+        assertEquals(3, due.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void itemsScheduledByTheConsumerFallDueInTheSameAdvance() {
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>();
+        wheel.scheduleAfter(1, 0);
+        List<Long> ticks = new ArrayList<>();
+        wheel.advanceTo(300, item -> {
+            ticks.add(wheel.getCurrentTick());
+            wheel.scheduleAfter(7, item + 1);
+        });
+
+        assertEquals(43, ticks.size());
+        for (int i = 0; i < ticks.size(); i++) {
+            assertEquals(1 + 7L * i, ticks.get(i));
+        }
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void matchesAPriorityQueue() {
+        Random random = new Random(47);
+        HierarchicalTimingWheel<long[]> wheel = new HierarchicalTimingWheel<>();
+        // {deadline, id}, due in deadline order
+        PriorityQueue<long[]> expected = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        long nextId = 0;
+        long end = 1 << 25;
+
+        while (wheel.getCurrentTick() < end) {
+            for (int i = random.nextInt(20); i > 0; i--) {
+                // spread delays over every level, mostly short ones
+                long delay = random.nextLong(1L << random.nextInt(25)) + 1;
+                long[] item = {wheel.getCurrentTick() + delay, nextId++};
+                wheel.schedule(item[0], item);
+                expected.add(item);
+            }
+            assertEquals(expected.size(), wheel.size());
+
+            long toTick = Math.min(end, wheel.getCurrentTick() + 1 + random.nextLong(1L << random.nextInt(20)));
+            TreeMap<Long, List<Long>> expectedDue = new TreeMap<>();
+            while (!expected.isEmpty() && expected.peek()[0] <= toTick) {
+                long[] item = expected.poll();
+                expectedDue.computeIfAbsent(item[0], tick -> new ArrayList<>()).add(item[1]);
+            }
+            TreeMap<Long, List<Long>> due = new TreeMap<>();
+            wheel.advanceTo(toTick, item -> {
+                assertEquals(item[0], wheel.getCurrentTick());
+                due.computeIfAbsent(wheel.getCurrentTick(), tick -> new ArrayList<>()).add(item[1]);
+            });
+            // items due on the same tick come in no particular order
+            due.values().forEach(ids -> ids.sort(null));
+            expectedDue.values().forEach(ids -> ids.sort(null));
+            assertEquals(expectedDue, due);
+        }
+    }
+}
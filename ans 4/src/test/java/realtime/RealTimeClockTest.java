@@ -0,0 +1,90 @@
+package realtime;
+
+import model.GameEngine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import runtime.GameSession;
+import runtime.ShardedGameRegistry;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RealTimeClockTest {
+    // Game numbers in the volleys sent since the last clear
+    private final Set<Integer> volleyed = ConcurrentHashMap.newKeySet();
+    private RealTimeClock clock;
+    private ShardedGameRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        // 1 ms ticks, each opponent fires every 5 ticks
+        clock = new RealTimeClock(beans.getBeanProvider(ShardedGameRegistry.class), 1, 5, 0, 10_000);
+        registry = new ShardedGameRegistry(2, 0, 60, List.of(clock)) {
+            @Override
+            public <T> CompletableFuture<Void> executeBatch(Map<Integer, T> arguments,
+                                                            BiConsumer<GameSession, T> action) {
+                volleyed.addAll(arguments.keySet());
+                return super.executeBatch(arguments, action);
+            }
+        };
+        beans.registerSingleton("registry", registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clock.shutdown();
+        registry.shutdown();
+    }
+
+    @Test
+    void opponentsFireUntilTheyWin() throws Exception {
+        GameSession session = registry.createGame(5, 20, true);
+        assertEquals(1, clock.getNumRunningGames());
+
+        waitFor(() -> session.getGame().getSnapshot().getGameState() == GameEngine.GameState.OPPONENTS_WON);
+
+        waitFor(() -> clock.getNumRunningGames() == 0);
+        assertTimersDropped(session.getGameNumber());
+    }
+
+    @Test
+    void releasedGamesStopFiring() throws Exception {
+        GameSession released = registry.createGame(5, 20, true);
+        GameSession kept = registry.createGame(5, 20, true);
+        waitFor(() -> volleyed.contains(released.getGameNumber()));
+
+        registry.releaseGames(gameNumber -> gameNumber != released.getGameNumber());
+
+        assertEquals(1, clock.getNumRunningGames());
+        assertTimersDropped(released.getGameNumber());
+        assertTrue(volleyed.contains(kept.getGameNumber()) || kept.getGame().isGameOver());
+    }
+
+    // Waits a few intervals for volleys collected before the stop, then checks no more are sent
+    private void assertTimersDropped(int gameNumber) throws InterruptedException {
+        Thread.sleep(50);
+        volleyed.clear();
+        Thread.sleep(100);
+        assertFalse(volleyed.contains(gameNumber));
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(1);
+        }
+    }
+}
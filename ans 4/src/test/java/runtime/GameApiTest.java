@@ -0,0 +1,131 @@
+package runtime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GameApiTest {
+    private static final Pattern GAME_NUMBER = Pattern.compile("\"gameNumber\":(\\d+)");
+    private static final int BOARD_SIZE = 20;
+    private static final int CREATORS = 4;
+    private final ShardedGameRegistry registry = new ShardedGameRegistry(4, 0, 60, List.of());
+    private final GameApi api = new GameApi(registry, new GameStatistics(), new Leaderboard(10), false);
+
+    @AfterEach
+    void shutdown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void pagesStayStableWhileGamesAreCreated() throws Exception {
+        List<Integer> existing = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            existing.add(registry.createGame(5, BOARD_SIZE, false).getGameNumber());
+        }
+        AtomicBoolean isDone = new AtomicBoolean();
+        List<Thread> creators = new ArrayList<>();
+        for (int i = 0; i < CREATORS; i++) {
+            Thread creator = new Thread(() -> {
+                try {
+                    while (!isDone.get()) {
+                        registry.createGame(5, BOARD_SIZE, false);
+                    }
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            creator.start();
+            creators.add(creator);
+        }
+
+        List<Integer> listed = new ArrayList<>();
+        int cursor = 0;
+        try {
+            // a page ends early when it reaches games still being created, carry on from its last game
+            while (listed.size() < 2_000) {
+                GameApi.Result<GameApi.GamePage> result = api.listGames(cursor, 7, null);
+                assertEquals(200, result.status());
+                List<Integer> numbers = gameNumbers(result.body());
+                listed.addAll(numbers);
+                if (result.body().nextCursor() != null) {
+                    cursor = Integer.parseInt(result.body().nextCursor());
+                    assertEquals(numbers.get(numbers.size() - 1) + 1, cursor);
+                } else if (!numbers.isEmpty()) {
+                    cursor = numbers.get(numbers.size() - 1) + 1;
+                }
+            }
+        } finally {
+            isDone.set(true);
+            for (Thread creator : creators) {
+                creator.join();
+            }
+        }
+
+        assertEquals(existing, listed.subList(0, existing.size()));
+        // no game was skipped or listed twice: every number up to the last listed one is there once
+        for (int i = 0; i < listed.size(); i++) {
+            assertEquals(i, (int) listed.get(i), "listed " + listed);
+        }
+    }
+
+    @Test
+    void theLastPageHasNoCursor() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            registry.createGame(5, BOARD_SIZE, false);
+        }
+
+        GameApi.Result<GameApi.GamePage> first = api.listGames(null, 6, null);
+        GameApi.Result<GameApi.GamePage> last = api.listGames(Integer.parseInt(first.body().nextCursor()), 6, null);
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), gameNumbers(first.body()));
+        assertEquals(List.of(6, 7, 8, 9), gameNumbers(last.body()));
+        assertNull(last.body().nextCursor());
+        assertEquals(List.of(), gameNumbers(api.listGames(100, 6, null).body()));
+    }
+
+    @Test
+    void filteredPagesSkipOtherStates() throws Exception {
+        for (int i = 0; i < 12; i++) {
+            GameSession session = registry.createGame(5, BOARD_SIZE, false);
+            if (i % 3 == 0) {
+                registry.execute(session.getGameNumber(), finished -> {
+                    finished.getGame().simulateUntilEnd();
+                    return null;
+                });
+            }
+        }
+
+        GameApi.Result<GameApi.GamePage> first = api.listGames(null, 3, "in_progress");
+        GameApi.Result<GameApi.GamePage> second =
+                api.listGames(Integer.parseInt(first.body().nextCursor()), 3, "in_progress");
+
+        assertEquals(List.of(1, 2, 4), gameNumbers(first.body()));
+        assertEquals(List.of(5, 7, 8), gameNumbers(second.body()));
+    }
+
+    @Test
+    void invalidListingsAreRejected() {
+        assertEquals(400, api.listGames(-1, 10, null).status());
+        assertEquals(400, api.listGames(null, 0, null).status());
+        assertEquals(400, api.listGames(null, GameApi.MAX_PAGE_SIZE + 1, null).status());
+        assertEquals(400, api.listGames(null, 10, "paused").status());
+    }
+
+    private static List<Integer> gameNumbers(GameApi.GamePage page) {
+        List<Integer> numbers = new ArrayList<>();
+        Matcher matcher = GAME_NUMBER.matcher(new String(page.json(), StandardCharsets.UTF_8));
+        while (matcher.find()) {
+            numbers.add(Integer.parseInt(matcher.group(1)));
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,126 @@
+package runtime;
+
+import model.GameEngine;
+import model.Snapshots;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameSessionCodecTest {
+    // Offsets in an encoded session: game number, cheat mode, then GameCodec's version and board size
+    private static final int FORMAT_VERSION_OFFSET = 5;
+    private static final int BOARD_SIZE_OFFSET = 6;
+    private static final int FIRST_FORT_OFFSET = 9;
+
+    @Test
+    void sessionsSurviveARoundTrip() throws Exception {
+        GameSession session = new GameSession(12_345, new GameEngine(5, 42));
+        for (String shot : new String[] {"A1", "B2", "B2", "C10", "J1", "K11"}) {
+            session.getGame().processPlayerShot(shot);
+        }
+        session.getGame().fastForward(3);
+        session.getGame().enableRealTime();
+        session.enableCheatMode();
+
+        GameSession decoded = GameSessionCodec.decode(GameSessionCodec.encode(session));
+
+        assertEquals(12_345, decoded.getGameNumber());
+        assertTrue(decoded.isCheatMode());
+        assertTrue(decoded.getGame().isRealTime());
+        assertEquals(Snapshots.describe(session.getGame().getSnapshot()),
+                Snapshots.describe(decoded.getGame().getSnapshot()));
+        assertEquals(session.getGame().getScoreBoard().getScoreHistory(),
+                decoded.getGame().getScoreBoard().getScoreHistory());
+    }
+
+    @Test
+    void decodedGamesPlayOnLikeTheOriginal() throws Exception {
+        GameEngine original = new GameEngine(5, 7);
+        original.processPlayerShot("E5");
+        GameEngine decoded = GameSessionCodec.decode(GameSessionCodec.encode(new GameSession(1, original))).getGame();
+
+        for (int cell = 0; cell < 100 && !original.isGameOver(); cell++) {
+            String shot = model.Map.toCoordinates(cell % 10, cell * 3 % 10);
+            assertEquals(describe(original.processPlayerShot(shot)), describe(decoded.processPlayerShot(shot)));
+        }
+        assertEquals(Snapshots.describe(original.getSnapshot()), Snapshots.describe(decoded.getSnapshot()));
+    }
+
+    @Test
+    void finishedGamesSurviveARoundTrip() throws Exception {
+        GameEngine game = new GameEngine(5, 3);
+        game.simulateUntilEnd();
+
+        GameEngine decoded = GameSessionCodec.decode(GameSessionCodec.encode(new GameSession(2, game))).getGame();
+
+        assertTrue(decoded.isGameOver());
+        assertEquals(Snapshots.describe(game.getSnapshot()), Snapshots.describe(decoded.getSnapshot()));
+    }
+
+    @Test
+    void truncatedInputIsRejected() throws Exception {
+        byte[] encoded = encodedGame();
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IOException.class, () -> GameSessionCodec.decode(truncated), "length " + length);
+        }
+    }
+
+    @Test
+    void invalidValuesAreRejected() throws Exception {
+        byte[] encoded = encodedGame();
+
+        assertRejected(encoded, FORMAT_VERSION_OFFSET, 99);
+        assertRejected(encoded, BOARD_SIZE_OFFSET, 0x7F);
+        // the game state, followed by the real-time flag, shots fired and an empty list of last scores
+        assertRejected(encoded, encoded.length - 7, 9);
+        // the last cell's state, just before the 15 bytes of scores, state and counters
+        assertRejected(encoded, encoded.length - 16, 9);
+
+        // the second fort starts with the first fort's first cell
+        int idLength = ((encoded[FIRST_FORT_OFFSET] & 0xFF) << 8) | (encoded[FIRST_FORT_OFFSET + 1] & 0xFF);
+        int cellsOffset = FIRST_FORT_OFFSET + 2 + idLength + 1;
+        int secondFortCellsOffset = cellsOffset + encoded[cellsOffset - 1] * 5 + 2 + idLength + 1;
+        byte[] overlapping = encoded.clone();
+        System.arraycopy(encoded, cellsOffset, overlapping, secondFortCellsOffset, 4);
+        assertThrows(IOException.class, () -> GameSessionCodec.decode(overlapping));
+    }
+
+    @Test
+    void corruptedInputNeverFailsWithAnythingButAnIOException() throws Exception {
+        byte[] encoded = encodedGame();
+        Random random = new Random(43);
+        for (int i = 0; i < 5_000; i++) {
+            byte[] corrupted = encoded.clone();
+            for (int flips = 1 + random.nextInt(3); flips > 0; flips--) {
+                corrupted[random.nextInt(corrupted.length)] = (byte) random.nextInt(256);
+            }
+            try {
+                GameSessionCodec.decode(corrupted);
+            } catch (IOException e) {
+                // rejected, as it should be
+            }
+        }
+    }
+
+    private static byte[] encodedGame() throws Exception {
+        return GameSessionCodec.encode(new GameSession(9, new GameEngine(5, 42)));
+    }
+
+    private static void assertRejected(byte[] encoded, int offset, int value) {
+        byte[] corrupted = encoded.clone();
+        corrupted[offset] = (byte) value;
+        assertThrows(IOException.class, () -> GameSessionCodec.decode(corrupted), "byte " + offset + " = " + value);
+    }
+
+    private static String describe(model.ShotScore shotScore) {
+        return shotScore.isHit() + " " + shotScore.wasAlreadyShot() + " " + shotScore.getOpponentScores()
+                + " " + shotScore.getGameState();
+    }
+}
@@ -0,0 +1,159 @@
+package runtime;
+
+import model.GameEngine;
+import model.GameSnapshot;
+import model.ShotScore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GameStatisticsTest {
+    // Forts are placed at random, on a board this size that never fails
+    private static final int BOARD_SIZE = 20;
+    private final GameStatistics statistics = new GameStatistics();
+    private final ShardedGameRegistry registry = new ShardedGameRegistry(4, 0, 60, List.of(statistics));
+
+    @AfterEach
+    void shutdown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void gamesAreCountedByState() throws Exception {
+        int won = createGame();
+        int lost = createGame();
+        createGame();
+
+        winGame(won);
+        registry.execute(lost, session -> {
+            session.getGame().simulateUntilEnd();
+            return null;
+        });
+
+        assertEquals(3, statistics.getGamesCreated());
+        assertEquals(1, statistics.getGamesInProgress());
+        assertEquals(1, statistics.getGamesWon());
+        assertEquals(1, statistics.getGamesLost());
+        assertEquals(snapshot(won).getNumShotsFired(), statistics.getAverageShotsToWin());
+    }
+
+    @Test
+    void shotsAndHitsAreCounted() throws Exception {
+        int gameNumber = createGame();
+        int hits = 0;
+        for (String shot : new String[] {"A1", "A2", "B7", "A1", "Z99", "T20"}) {
+            ShotScore shotScore = registry.execute(gameNumber,
+                    session -> session.getGame().processPlayerShot(shot)).orElseThrow();
+            hits += shotScore.isHit() ? 1 : 0;
+        }
+        registry.execute(gameNumber, session -> {
+            session.getGame().fastForward(4);
+            return null;
+        });
+
+        assertEquals(10, statistics.getShotsFired());
+        assertEquals(hits, statistics.getHits());
+        assertEquals(snapshot(gameNumber).getNumShotsFired(), statistics.getShotsFired());
+    }
+
+    @Test
+    void concurrentUpdatesAreNotLost() throws Exception {
+        int numThreads = 8;
+        int shotsPerThread = 200;
+        List<Integer> games = new ArrayList<>();
+        for (int i = 0; i < numThreads; i++) {
+            games.add(createGame());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int gameNumber : games) {
+                pending.add(executor.submit(() -> {
+                    for (int i = 0; i < shotsPerThread; i++) {
+                        String shot = model.Map.toCoordinates(i % BOARD_SIZE, i / BOARD_SIZE);
+                        registry.execute(gameNumber, session -> session.getGame().processPlayerShot(shot));
+                    }
+                }));
+            }
+            for (Future<?> future : pending) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long shotsFired = 0;
+        long finished = 0;
+        for (int gameNumber : games) {
+            GameSnapshot snapshot = snapshot(gameNumber);
+            shotsFired += snapshot.getNumShotsFired();
+            finished += snapshot.isGameOver() ? 1 : 0;
+        }
+        assertEquals(numThreads * shotsPerThread, statistics.getShotsFired());
+        assertEquals(shotsFired, statistics.getShotsFired());
+        assertEquals(numThreads - finished, statistics.getGamesInProgress());
+        assertEquals(finished, statistics.getGamesWon() + statistics.getGamesLost());
+    }
+
+    @Test
+    void releasedAndAdoptedGamesMoveTheStateCounters() throws Exception {
+        GameStatistics otherStatistics = new GameStatistics();
+        ShardedGameRegistry other = new ShardedGameRegistry(2, 0, 60, List.of(otherStatistics));
+        try {
+            int gameNumber = createGame();
+            createGame();
+
+            byte[] encoded = registry.releaseGames(number -> number != gameNumber).get(gameNumber);
+            assertTrue(other.adoptGame(GameSessionCodec.decode(encoded)));
+
+            assertEquals(2, statistics.getGamesCreated());
+            assertEquals(1, statistics.getGamesInProgress());
+            assertEquals(0, otherStatistics.getGamesCreated());
+            assertEquals(1, otherStatistics.getGamesInProgress());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    void averagesAreZeroBeforeAnyGame() {
+        assertEquals(0, statistics.getAverageShotsToWin());
+        assertEquals(0, statistics.getAverageRehydrationMicros());
+        assertEquals(0, statistics.getMaxRehydrationMicros());
+    }
+
+    private int createGame() throws Exception {
+        return registry.createGame(5, BOARD_SIZE, false).getGameNumber();
+    }
+
+    // Shoots every fort cell, so the player wins before the opponents can
+    private void winGame(int gameNumber) {
+        registry.execute(gameNumber, session -> {
+            GameEngine game = session.getGame();
+            GameSnapshot snapshot = game.getSnapshot();
+            for (int row = 0; row < BOARD_SIZE && !game.isGameOver(); row++) {
+                for (int col = 0; col < BOARD_SIZE && !game.isGameOver(); col++) {
+                    if (snapshot.isFortCell(row, col)) {
+                        game.processPlayerShot(model.Map.toCoordinates(row, col));
+                    }
+                }
+            }
+            return null;
+        });
+        assertEquals(GameEngine.GameState.PLAYER_WON, snapshot(gameNumber).getGameState());
+    }
+
+    private GameSnapshot snapshot(int gameNumber) {
+        return registry.find(gameNumber).orElseThrow().getGame().getSnapshot();
+    }
+}
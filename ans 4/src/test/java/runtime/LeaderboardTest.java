@@ -0,0 +1,94 @@
+package runtime;
+
+import model.GameEngine;
+import model.GameSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LeaderboardTest {
+    private final Leaderboard leaderboard = new Leaderboard(3);
+
+    @Test
+    void onlyTheBestGamesAreKeptBestFirst() {
+        leaderboard.record(new Leaderboard.Entry(1, 40, 900));
+        leaderboard.record(new Leaderboard.Entry(2, 25, 1200));
+        leaderboard.record(new Leaderboard.Entry(3, 60, 100));
+        leaderboard.record(new Leaderboard.Entry(4, 30, 500));
+        leaderboard.record(new Leaderboard.Entry(5, 90, 2000));
+
+        Leaderboard.Standings standings = leaderboard.getStandings();
+        assertEquals(List.of(2, 4, 1), gameNumbers(standings.get(Leaderboard.Ranking.FEWEST_SHOTS)));
+        assertEquals(List.of(3, 4, 1), gameNumbers(standings.get(Leaderboard.Ranking.LOWEST_OPPONENT_POINTS)));
+    }
+
+    @Test
+    void tiesGoToTheEarlierGame() {
+        leaderboard.record(new Leaderboard.Entry(7, 30, 500));
+        leaderboard.record(new Leaderboard.Entry(3, 30, 500));
+        leaderboard.record(new Leaderboard.Entry(5, 30, 500));
+        leaderboard.record(new Leaderboard.Entry(1, 30, 500));
+
+        assertEquals(List.of(1, 3, 5),
+                gameNumbers(leaderboard.getStandings().get(Leaderboard.Ranking.FEWEST_SHOTS)));
+    }
+
+    @Test
+    void standingsArePublishedOnlyWhenTheyChange() {
+        assertEquals(0, leaderboard.getStandings().getVersion());
+        for (int i = 0; i < 3; i++) {
+            leaderboard.record(new Leaderboard.Entry(i, 10 + i, 100 + i));
+        }
+        Leaderboard.Standings full = leaderboard.getStandings();
+        assertEquals(3, full.getVersion());
+
+        // worse in both rankings, does not make the cut
+        leaderboard.record(new Leaderboard.Entry(10, 99, 999));
+        assertSame(full, leaderboard.getStandings());
+
+        leaderboard.record(new Leaderboard.Entry(11, 1, 999));
+        assertEquals(4, leaderboard.getStandings().getVersion());
+        assertEquals(List.of(0, 1, 2), gameNumbers(full.get(Leaderboard.Ranking.FEWEST_SHOTS)));
+        assertThrows(UnsupportedOperationException.class,
+                () -> full.get(Leaderboard.Ranking.FEWEST_SHOTS).clear());
+    }
+
+    @Test
+    void wonGamesAreRecordedThroughTheRegistry() throws Exception {
+        ShardedGameRegistry registry = new ShardedGameRegistry(2, 0, 60, List.of(leaderboard));
+        try {
+            int won = registry.createGame(5, 20, false).getGameNumber();
+            int lost = registry.createGame(5, 20, false).getGameNumber();
+            registry.execute(lost, session -> {
+                session.getGame().simulateUntilEnd();
+                return null;
+            });
+            GameSnapshot snapshot = registry.execute(won, session -> {
+                GameEngine game = session.getGame();
+                GameSnapshot board = game.getSnapshot();
+                for (int cell = 0; cell < 20 * 20 && !game.isGameOver(); cell++) {
+                    if (board.isFortCell(cell / 20, cell % 20)) {
+                        game.processPlayerShot(model.Map.toCoordinates(cell / 20, cell % 20));
+                    }
+                }
+                return game.getSnapshot();
+            }).orElseThrow();
+
+            assertEquals(GameEngine.GameState.PLAYER_WON, snapshot.getGameState());
+            List<Leaderboard.Entry> entries = leaderboard.getStandings().get(Leaderboard.Ranking.FEWEST_SHOTS);
+            assertEquals(List.of(won), gameNumbers(entries));
+            assertEquals(snapshot.getNumShotsFired(), entries.get(0).getShotsFired());
+            assertEquals(snapshot.getTotalScore(), entries.get(0).getOpponentPoints());
+        } finally {
+            registry.shutdown();
+        }
+    }
+
+    private static List<Integer> gameNumbers(List<Leaderboard.Entry> entries) {
+        return entries.stream().map(Leaderboard.Entry::getGameNumber).toList();
+    }
+}
@@ -0,0 +1,87 @@
+package runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ResponseCacheTest {
+    private final ResponseCache cache = new ResponseCache();
+    private final AtomicInteger encodings = new AtomicInteger();
+
+    @Test
+    void aVersionIsEncodedOnce() {
+        ResponseCache.Entry first = cache.get(ResponseCache.Endpoint.GAME, 1, encoder("game 1"));
+        ResponseCache.Entry second = cache.get(ResponseCache.Endpoint.GAME, 1, encoder("game 1"));
+
+        assertSame(first, second);
+        assertEquals(1, encodings.get());
+    }
+
+    @Test
+    void aNewVersionIsEncodedAgainWithANewETag() {
+        ResponseCache.Entry first = cache.get(ResponseCache.Endpoint.GAME, 1, encoder("game 1"));
+        ResponseCache.Entry second = cache.get(ResponseCache.Endpoint.GAME, 2, encoder("game 2"));
+
+        assertEquals("game 2", text(second));
+        assertNotEquals(first.getETag(), second.getETag());
+        assertSame(second, cache.get(ResponseCache.Endpoint.GAME, 2, encoder("game 2")));
+        assertEquals(2, encodings.get());
+    }
+
+    @Test
+    void anOlderVersionNeverReplacesANewerOne() {
+        ResponseCache.Entry newer = cache.get(ResponseCache.Endpoint.BOARD, 5, encoder("board 5"));
+
+        // a reader holding an older snapshot still gets its own version
+        assertEquals("board 4", text(cache.get(ResponseCache.Endpoint.BOARD, 4, encoder("board 4"))));
+        assertSame(newer, cache.get(ResponseCache.Endpoint.BOARD, 5, encoder("board 5")));
+    }
+
+    @Test
+    void endpointsAreCachedSeparately() {
+        cache.get(ResponseCache.Endpoint.BOARD, 1, encoder("board"));
+        ResponseCache.Entry cheat = cache.get(ResponseCache.Endpoint.BOARD_CHEAT, 1, encoder("cheat board"));
+
+        assertEquals("cheat board", text(cheat));
+        assertEquals("board", text(cache.get(ResponseCache.Endpoint.BOARD, 1, encoder("other"))));
+        assertEquals(2, encodings.get());
+    }
+
+    @Test
+    void eTagsOnlyDependOnTheBytes() {
+        ResponseCache other = new ResponseCache();
+
+        String eTag = cache.get(ResponseCache.Endpoint.SCOREBOARD, 1, encoder("score")).getETag();
+
+        assertEquals(eTag, other.get(ResponseCache.Endpoint.SCOREBOARD, 9, encoder("score")).getETag());
+        assertNotEquals(eTag, other.get(ResponseCache.Endpoint.SCOREBOARD, 10, encoder("scores")).getETag());
+        assertEquals('"', eTag.charAt(0));
+        assertEquals('"', eTag.charAt(eTag.length() - 1));
+    }
+
+    @Test
+    void clearForgetsEveryEntry() {
+        cache.get(ResponseCache.Endpoint.OPPONENTS, 1, encoder("opponents"));
+        cache.clear();
+        cache.get(ResponseCache.Endpoint.OPPONENTS, 1, encoder("opponents"));
+
+        assertEquals(2, encodings.get());
+    }
+
+    private Supplier<byte[]> encoder(String text) {
+        return () -> {
+            encodings.incrementAndGet();
+            return text.getBytes(StandardCharsets.UTF_8);
+        };
+    }
+
+    private static String text(ResponseCache.Entry entry) {
+        return new String(entry.getBytes(), StandardCharsets.UTF_8);
+    }
+}
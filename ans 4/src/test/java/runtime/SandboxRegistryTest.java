@@ -0,0 +1,63 @@
+package runtime;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SandboxRegistryTest {
+    // Forts are placed at random, on a board this size that never fails
+    private static final int BOARD_SIZE = 20;
+    private final ShardedGameRegistry games = new ShardedGameRegistry(1, 0, 60, List.of());
+    private SandboxRegistry sandboxes;
+
+    @AfterEach
+    void stop() {
+        sandboxes.stop();
+        games.shutdown();
+    }
+
+    @Test
+    void idleSandboxesAreDiscarded() throws Exception {
+        sandboxes = new SandboxRegistry(games, 10, 0);
+        int gameNumber = games.createGame(5, BOARD_SIZE, false).getGameNumber();
+        GameSandbox sandbox = sandboxes.forkGame(gameNumber).orElseThrow();
+        sandboxes.forkSandbox(gameNumber, sandbox.getForkId()).orElseThrow();
+        Thread.sleep(5);
+
+        sandboxes.removeIdleSandboxes();
+
+        assertEquals(0, sandboxes.getNumForks());
+        assertFalse(sandboxes.find(gameNumber, sandbox.getForkId()).isPresent());
+    }
+
+    @Test
+    void sandboxesInUseAreKept() throws Exception {
+        sandboxes = new SandboxRegistry(games, 10, 600);
+        int gameNumber = games.createGame(5, BOARD_SIZE, false).getGameNumber();
+        GameSandbox sandbox = sandboxes.forkGame(gameNumber).orElseThrow();
+
+        sandboxes.removeIdleSandboxes();
+
+        assertEquals(1, sandboxes.getNumForks());
+        assertTrue(sandboxes.find(gameNumber, sandbox.getForkId()).isPresent());
+    }
+
+    @Test
+    void expiredSandboxesFreeTheirSlots() throws Exception {
+        sandboxes = new SandboxRegistry(games, 1, 0);
+        int gameNumber = games.createGame(5, BOARD_SIZE, false).getGameNumber();
+        sandboxes.forkGame(gameNumber).orElseThrow();
+        assertThrows(IllegalStateException.class, () -> sandboxes.forkGame(gameNumber));
+        Thread.sleep(5);
+
+        sandboxes.removeIdleSandboxes();
+
+        assertTrue(sandboxes.forkGame(gameNumber).isPresent());
+    }
+}
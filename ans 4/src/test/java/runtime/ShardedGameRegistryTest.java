@@ -0,0 +1,241 @@
+package runtime;
+
+import model.Cell;
+import model.GameEngine;
+import model.GameSnapshot;
+import model.Snapshots;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedGameRegistryTest {
+    // Forts are placed at random, on a board this size that never fails
+    private static final int BOARD_SIZE = 20;
+    private static final int THREADS = 8;
+    private static final int SHOTS_PER_THREAD = 150;
+    private static final int BULK_GAMES = 40;
+    private final List<ShardedGameRegistry> registries = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        registries.forEach(ShardedGameRegistry::shutdown);
+    }
+
+    @Test
+    void newGameNumbersFollowTheNumberingAndOwnership() throws Exception {
+        ShardedGameRegistry registry = newRegistry(4);
+        registry.setGameNumbering(3, 8);
+        registry.setOwnership(gameNumber -> gameNumber % 3 != 0);
+
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            numbers.add(registry.createGame(5, BOARD_SIZE, false).getGameNumber());
+        }
+        for (GameSession session : registry.createGames(5, new long[] {1, 2, 3, 4, 5})) {
+            numbers.add(session.getGameNumber());
+        }
+
+        for (int i = 0; i < numbers.size(); i++) {
+            int gameNumber = numbers.get(i);
+            assertEquals(3, gameNumber % 8, "game " + gameNumber);
+            assertTrue(gameNumber % 3 != 0, "game " + gameNumber);
+            if (i > 0) {
+                assertTrue(gameNumber > numbers.get(i - 1));
+            }
+        }
+    }
+
+    @Test
+    void creationFailsWhenNoNumberIsOwned() {
+        ShardedGameRegistry registry = newRegistry(2);
+        registry.setOwnership(gameNumber -> false);
+
+        assertThrows(IllegalStateException.class, () -> registry.createGame(5));
+    }
+
+    @Test
+    void releasedGamesAreAdoptedUnchanged() throws Exception {
+        ShardedGameRegistry from = newRegistry(4);
+        ShardedGameRegistry to = newRegistry(3);
+        List<GameSession> sessions = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            GameSession session = from.createGame(5, BOARD_SIZE, false);
+            for (int shot = 1; shot <= i; shot++) {
+                String coordinates = "C" + shot;
+                from.execute(session.getGameNumber(), owned -> owned.getGame().processPlayerShot(coordinates));
+            }
+            if (i % 2 == 0) {
+                session.enableCheatMode();
+            }
+            sessions.add(session);
+        }
+
+        Map<Integer, byte[]> released = from.releaseGames(gameNumber -> gameNumber % 2 == 0);
+        for (Map.Entry<Integer, byte[]> entry : released.entrySet()) {
+            assertTrue(to.adoptGame(GameSessionCodec.decode(entry.getValue())));
+        }
+
+        for (GameSession session : sessions) {
+            int gameNumber = session.getGameNumber();
+            boolean isReleased = gameNumber % 2 != 0;
+            assertEquals(isReleased, released.containsKey(gameNumber));
+            assertEquals(!isReleased, from.find(gameNumber).isPresent());
+            GameSession owner = (isReleased ? to : from).find(gameNumber).orElseThrow();
+            assertEquals(Snapshots.describe(session.getGame().getSnapshot()),
+                    Snapshots.describe(owner.getGame().getSnapshot()));
+            assertEquals(session.isCheatMode(), owner.isCheatMode());
+        }
+    }
+
+    @Test
+    void adoptingATakenNumberIsRefused() throws Exception {
+        ShardedGameRegistry registry = newRegistry(2);
+        GameSession session = registry.createGame(5, BOARD_SIZE, false);
+
+        assertFalse(registry.adoptGame(GameSessionCodec.decode(GameSessionCodec.encode(session))));
+    }
+
+    @Test
+    void concurrentShotsOnOneGameAreSerializedByItsShard() throws Exception {
+        ShardedGameRegistry registry = newRegistry(4);
+        int gameNumber = registry.createGame(5, 200, false).getGameNumber();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(THREADS, thread -> {
+            for (int i = 0; i < SHOTS_PER_THREAD; i++) {
+                String coordinates = model.Map.toCoordinates(thread, i);
+                registry.execute(gameNumber, session -> {
+                    if (running.incrementAndGet() > 1) {
+                        overlaps.incrementAndGet();
+                    }
+                    threads.add(Thread.currentThread().getName());
+                    session.getGame().processPlayerShot(coordinates);
+                    running.decrementAndGet();
+                    return null;
+                });
+            }
+        });
+
+        assertEquals(0, overlaps.get());
+        assertEquals(1, threads.size());
+        GameSnapshot snapshot = registry.find(gameNumber).orElseThrow().getGame().getSnapshot();
+        assertEquals(THREADS * SHOTS_PER_THREAD, snapshot.getNumShotsFired());
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int i = 0; i < SHOTS_PER_THREAD; i++) {
+                assertNotEquals(Cell.CellState.UNKNOWN, snapshot.getCellState(thread, i));
+            }
+        }
+    }
+
+    @Test
+    void hibernatedGamesWakeUpUnchanged() throws Exception {
+        CountDownLatch hibernated = new CountDownLatch(1);
+        ShardedGameRegistry registry = new ShardedGameRegistry(2, 1, 1, List.of(new SessionListener() {
+            @Override
+            public void sessionHibernated(GameSession session, int encodedSize) {
+                hibernated.countDown();
+            }
+        }));
+        registries.add(registry);
+        int gameNumber = registry.createGame(5, BOARD_SIZE, false).getGameNumber();
+        for (String shot : new String[] {"A1", "B2", "C3", "C3", "Z9"}) {
+            registry.execute(gameNumber, session -> session.getGame().processPlayerShot(shot));
+        }
+        GameSession live = registry.find(gameNumber).orElseThrow();
+        live.enableCheatMode();
+        String before = Snapshots.describe(live.getGame().getSnapshot());
+
+        assertTrue(hibernated.await(10, TimeUnit.SECONDS));
+        GameSession peeked = registry.listGames(gameNumber, 1, session -> true).get(0);
+        assertEquals(before, Snapshots.describe(peeked.getGame().getSnapshot()));
+        GameSession woken = registry.find(gameNumber).orElseThrow();
+
+        assertEquals(before, Snapshots.describe(woken.getGame().getSnapshot()));
+        assertTrue(woken.isCheatMode());
+        int shotsFired = registry.execute(gameNumber,
+                session -> session.getGame().processPlayerShot("D4") != null
+                        ? session.getGame().getSnapshot().getNumShotsFired() : -1).orElseThrow();
+        assertEquals(live.getGame().getSnapshot().getNumShotsFired() + 1, shotsFired);
+    }
+
+    @Test
+    void bulkCreationUnderContentionHandsOutUniqueNumbers() throws Exception {
+        ShardedGameRegistry registry = newRegistry(4);
+        Map<Integer, Long> seedByGame = new ConcurrentHashMap<>();
+        Set<Integer> singleGames = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(THREADS, thread -> {
+            long[] seeds = new long[BULK_GAMES];
+            for (int i = 0; i < seeds.length; i++) {
+                seeds[i] = thread * 1000L + i;
+            }
+            List<GameSession> created = registry.createGames(5, seeds);
+            for (int i = 0; i < created.size(); i++) {
+                assertNull(seedByGame.put(created.get(i).getGameNumber(), seeds[i]));
+            }
+            assertTrue(singleGames.add(registry.createGame(5, BOARD_SIZE, false).getGameNumber()));
+        });
+
+        assertEquals(THREADS * BULK_GAMES, seedByGame.size());
+        assertEquals(THREADS, singleGames.size());
+        singleGames.forEach(gameNumber -> assertFalse(seedByGame.containsKey(gameNumber)));
+        for (Map.Entry<Integer, Long> entry : seedByGame.entrySet()) {
+            GameSession session = registry.find(entry.getKey()).orElseThrow();
+            assertEquals(Snapshots.describe(new GameEngine(5, entry.getValue()).getSnapshot()),
+                    Snapshots.describe(session.getGame().getSnapshot()));
+        }
+    }
+
+    // Starts the task on that many threads at once and waits for all of them
+    private static void runConcurrently(int numThreads, ThrowingIntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CyclicBarrier start = new CyclicBarrier(numThreads);
+        try {
+            List<Future<?>> pending = new ArrayList<>();
+            for (int i = 0; i < numThreads; i++) {
+                int thread = i;
+                pending.add(executor.submit(() -> {
+                    start.await();
+                    task.accept(thread);
+                    return null;
+                }));
+            }
+            for (Future<?> future : pending) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private interface ThrowingIntConsumer {
+        void accept(int value) throws Exception;
+    }
+
+    private ShardedGameRegistry newRegistry(int numShards) {
+        ShardedGameRegistry registry = new ShardedGameRegistry(numShards, 0, 60, List.of());
+        registries.add(registry);
+        return registry;
+    }
+}